@@ -318,7 +318,7 @@ CREATE TABLE `station_distance_cache` (
   `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  KEY `idx_from_station` (`from_station_id`),
+  UNIQUE KEY `uk_from_to_station` (`from_station_id`,`to_station_id`),
   KEY `idx_to_station` (`to_station_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='站点间直线距离缓存表';
 /*!40101 SET character_set_client = @saved_cs_client */;
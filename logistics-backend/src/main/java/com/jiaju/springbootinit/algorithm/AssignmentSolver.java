@@ -0,0 +1,112 @@
+package com.jiaju.springbootinit.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * 矩形代价矩阵的最小代价指派（匈牙利算法，带势函数的最短增广路实现）
+ * 行数不超过列数时每行恰好指派一列，否则转置后求解；时间复杂度 O(n² · m)，n 为较小的一维，
+ * 全部使用基本类型数组。不可行的组合由调用方设为足够大的代价，求解后再剔除
+ */
+public final class AssignmentSolver {
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * 求解最小代价指派
+     *
+     * @param cost 代价矩阵 cost[行][列]，各行长度相同
+     * @return 每行指派的列下标，未指派为 -1（仅在行数多于列数时出现）
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int cols = cost[0].length;
+        int[] rowToCol = new int[rows];
+        Arrays.fill(rowToCol, -1);
+        if (cols == 0) {
+            return rowToCol;
+        }
+        if (rows <= cols) {
+            int[] colToRow = solveRowsNotMoreThanCols(cost, rows, cols, false);
+            for (int j = 0; j < cols; j++) {
+                if (colToRow[j] >= 0) {
+                    rowToCol[colToRow[j]] = j;
+                }
+            }
+        } else {
+            // 转置：原矩阵的列作为行
+            int[] rowOfCol = solveRowsNotMoreThanCols(cost, cols, rows, true);
+            for (int i = 0; i < rows; i++) {
+                if (rowOfCol[i] >= 0) {
+                    rowToCol[i] = rowOfCol[i];
+                }
+            }
+        }
+        return rowToCol;
+    }
+
+    /**
+     * n ≤ m 时的求解，transposed 为 true 时 a[i][j] 取 cost[j][i]
+     *
+     * @return 列 -> 指派的行，未指派为 -1
+     */
+    private static int[] solveRowsNotMoreThanCols(double[][] cost, int n, int m, boolean transposed) {
+        // 下标从 1 开始，0 号列作为增广路的虚拟起点
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] match = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minSlack = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+        for (int i = 1; i <= n; i++) {
+            match[0] = i;
+            int col = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[col] = true;
+                int row = match[col];
+                double delta = Double.POSITIVE_INFINITY;
+                int nextCol = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    double a = transposed ? cost[j - 1][row - 1] : cost[row - 1][j - 1];
+                    double slack = a - u[row] - v[j];
+                    if (slack < minSlack[j]) {
+                        minSlack[j] = slack;
+                        way[j] = col;
+                    }
+                    if (minSlack[j] < delta) {
+                        delta = minSlack[j];
+                        nextCol = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                col = nextCol;
+            } while (match[col] != 0);
+            // 沿增广路翻转匹配
+            do {
+                int prevCol = way[col];
+                match[col] = match[prevCol];
+                col = prevCol;
+            } while (col != 0);
+        }
+        int[] colToRow = new int[m];
+        for (int j = 1; j <= m; j++) {
+            colToRow[j - 1] = match[j] - 1;
+        }
+        return colToRow;
+    }
+}
@@ -0,0 +1,524 @@
+package com.jiaju.springbootinit.algorithm;
+
+import com.jiaju.springbootinit.model.entity.Station;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 物流网络的紧凑图表示（CSR，压缩稀疏行）
+ * 站点ID重映射为稠密下标，边以基本类型数组按起点连续存放，供路径搜索热路径使用，
+ * 避免Long/Double装箱和字符串键的分配。构建完成后只读，可被多个线程共享
+ */
+public final class CompiledGraph {
+
+    // 综合权重缓存的最大权重组合数，超出后清空重建
+    private static final int MAX_WEIGHT_PROFILES = 32;
+
+    // 无法计算直线距离时使用的默认启发值
+    private static final double DEFAULT_DIRECT_DISTANCE = 1000.0;
+
+    private final int nodeCount;
+
+    // 下标 -> 站点ID
+    private final long[] stationIds;
+
+    // 站点ID -> 下标
+    private final LongIntHashMap indexById;
+
+    // 节点u的出边位于 [edgeOffsets[u], edgeOffsets[u + 1])
+    private final int[] edgeOffsets;
+
+    private final int[] edgeTargets;
+
+    private final double[] edgeDistances;
+
+    private final int[] edgeTravelTimes;
+
+    private final double[] edgeCosts;
+
+    // 反向邻接：节点v的入边位于 [reverseOffsets[v], reverseOffsets[v + 1])，存放正向边下标及其起点
+    private final int[] reverseOffsets;
+
+    private final int[] reverseEdges;
+
+    private final int[] reverseSources;
+
+    // 坐标，缺失时为NaN
+    private final double[] latitudes;
+
+    private final double[] longitudes;
+
+    // 区域稠密下标，无区域时为-1
+    private final int[] regionIndexes;
+
+    // 区域下标 -> 区域ID
+    private final long[] regionIds;
+
+    // 区域ID -> 区域下标
+    private final Map<Long, Integer> regionIndexById;
+
+    private final boolean[] hubFlags;
+
+    // 直线距离表，键为 pairKey(u, v)，双向存储
+    private final LongDoubleHashMap directDistances;
+
+    // 按权重组合预计算的边综合权重
+    private final Map<WeightProfile, double[]> edgeWeightCache = new ConcurrentHashMap<>();
+
+    // 按权重组合计算的球面距离下界系数
+    private final Map<WeightProfile, Double> heuristicScales = new ConcurrentHashMap<>();
+
+    // 按权重组合预计算的枢纽间代价矩阵，由后台任务在快照发布后写入
+    private final Map<WeightProfile, HubDistanceMatrix> hubMatrices = new ConcurrentHashMap<>();
+
+    // 按权重组合构建的收缩层次索引，分别对应不强制 / 强制区域中转
+    private final Map<WeightProfile, ContractionHierarchy> hierarchies = new ConcurrentHashMap<>();
+
+    private final Map<WeightProfile, ContractionHierarchy> enforcedHierarchies = new ConcurrentHashMap<>();
+
+    CompiledGraph(Map<Long, Station> stationMap, Map<Long, List<Edge>> adjacencyList,
+                  Map<Long, Map<Long, Double>> directDistanceMap, Predicate<Long> hubPredicate) {
+        // 收集全部站点ID（包括只出现在路线中的站点），排序保证下标稳定
+        Set<Long> idSet = new HashSet<>(stationMap.keySet());
+        for (Map.Entry<Long, List<Edge>> entry : adjacencyList.entrySet()) {
+            idSet.add(entry.getKey());
+            for (Edge edge : entry.getValue()) {
+                idSet.add(edge.getTargetStationId());
+            }
+        }
+        long[] ids = new long[idSet.size()];
+        int k = 0;
+        for (Long id : idSet) {
+            ids[k++] = id;
+        }
+        Arrays.sort(ids);
+
+        this.nodeCount = ids.length;
+        this.stationIds = ids;
+        this.indexById = new LongIntHashMap(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            indexById.put(ids[i], i);
+        }
+
+        // 站点属性
+        this.latitudes = new double[nodeCount];
+        this.longitudes = new double[nodeCount];
+        this.regionIndexes = new int[nodeCount];
+        this.hubFlags = new boolean[nodeCount];
+        this.regionIndexById = new HashMap<>();
+        List<Long> regionIdList = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            Station station = stationMap.get(ids[i]);
+            latitudes[i] = Double.NaN;
+            longitudes[i] = Double.NaN;
+            regionIndexes[i] = -1;
+            if (station == null) {
+                continue;
+            }
+            if (station.getLatitude() != null && station.getLongitude() != null) {
+                latitudes[i] = station.getLatitude().doubleValue();
+                longitudes[i] = station.getLongitude().doubleValue();
+            }
+            if (station.getRegionId() != null) {
+                Integer regionIndex = regionIndexById.get(station.getRegionId());
+                if (regionIndex == null) {
+                    regionIndex = regionIdList.size();
+                    regionIndexById.put(station.getRegionId(), regionIndex);
+                    regionIdList.add(station.getRegionId());
+                }
+                regionIndexes[i] = regionIndex;
+            }
+            hubFlags[i] = hubPredicate.test(ids[i]);
+        }
+        this.regionIds = new long[regionIdList.size()];
+        for (int i = 0; i < regionIds.length; i++) {
+            regionIds[i] = regionIdList.get(i);
+        }
+
+        // 边数组
+        int edgeCount = 0;
+        for (List<Edge> edges : adjacencyList.values()) {
+            edgeCount += edges.size();
+        }
+        this.edgeOffsets = new int[nodeCount + 1];
+        this.edgeTargets = new int[edgeCount];
+        this.edgeDistances = new double[edgeCount];
+        this.edgeTravelTimes = new int[edgeCount];
+        this.edgeCosts = new double[edgeCount];
+        int e = 0;
+        for (int u = 0; u < nodeCount; u++) {
+            edgeOffsets[u] = e;
+            List<Edge> edges = adjacencyList.get(ids[u]);
+            if (edges == null) {
+                continue;
+            }
+            for (Edge edge : edges) {
+                edgeTargets[e] = indexById.get(edge.getTargetStationId(), -1);
+                edgeDistances[e] = edge.getDistance();
+                edgeTravelTimes[e] = edge.getTravelTime() != null ? edge.getTravelTime() : 0;
+                edgeCosts[e] = edge.getTransportCost() != null ? edge.getTransportCost() : 0.0;
+                e++;
+            }
+        }
+        edgeOffsets[nodeCount] = e;
+
+        // 反向邻接，按终点计数排序
+        this.reverseOffsets = new int[nodeCount + 1];
+        this.reverseEdges = new int[edgeCount];
+        this.reverseSources = new int[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (edgeTargets[edge] >= 0) {
+                reverseOffsets[edgeTargets[edge] + 1]++;
+            }
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(reverseOffsets, nodeCount);
+        for (int u = 0; u < nodeCount; u++) {
+            for (int edge = edgeOffsets[u]; edge < edgeOffsets[u + 1]; edge++) {
+                int v = edgeTargets[edge];
+                if (v >= 0) {
+                    reverseEdges[cursor[v]] = edge;
+                    reverseSources[cursor[v]++] = u;
+                }
+            }
+        }
+
+        // 直线距离
+        int pairCount = 0;
+        for (Map<Long, Double> targets : directDistanceMap.values()) {
+            pairCount += targets.size();
+        }
+        this.directDistances = new LongDoubleHashMap(pairCount);
+        for (Map.Entry<Long, Map<Long, Double>> entry : directDistanceMap.entrySet()) {
+            int u = indexById.get(entry.getKey(), -1);
+            if (u < 0) {
+                continue;
+            }
+            for (Map.Entry<Long, Double> target : entry.getValue().entrySet()) {
+                int v = indexById.get(target.getKey(), -1);
+                if (v >= 0) {
+                    directDistances.put(pairKey(u, v), target.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * 站点ID对应的下标，不存在时返回-1
+     */
+    public int indexOf(long stationId) {
+        return indexById.get(stationId, -1);
+    }
+
+    public long getStationId(int node) {
+        return stationIds[node];
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeTargets.length;
+    }
+
+    /**
+     * 节点出边起始位置（含）
+     */
+    public int edgeStart(int node) {
+        return edgeOffsets[node];
+    }
+
+    /**
+     * 节点出边结束位置（不含）
+     */
+    public int edgeEnd(int node) {
+        return edgeOffsets[node + 1];
+    }
+
+    /**
+     * 边的起点，按偏移数组二分查找
+     */
+    public int edgeSource(int edge) {
+        int low = 0;
+        int high = nodeCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (edgeOffsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 节点入边起始位置（含）
+     */
+    public int reverseStart(int node) {
+        return reverseOffsets[node];
+    }
+
+    /**
+     * 节点入边结束位置（不含）
+     */
+    public int reverseEnd(int node) {
+        return reverseOffsets[node + 1];
+    }
+
+    /**
+     * 入边位置对应的正向边下标
+     */
+    public int reverseEdge(int position) {
+        return reverseEdges[position];
+    }
+
+    /**
+     * 入边位置对应的边起点
+     */
+    public int reverseSource(int position) {
+        return reverseSources[position];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public double edgeDistance(int edge) {
+        return edgeDistances[edge];
+    }
+
+    public int edgeTravelTime(int edge) {
+        return edgeTravelTimes[edge];
+    }
+
+    public double edgeCost(int edge) {
+        return edgeCosts[edge];
+    }
+
+    /**
+     * 节点所属区域下标，无区域时返回-1
+     */
+    public int getRegionIndex(int node) {
+        return regionIndexes[node];
+    }
+
+    /**
+     * 区域ID对应的下标，不存在时返回-1
+     */
+    public int regionIndexOf(long regionId) {
+        Integer regionIndex = regionIndexById.get(regionId);
+        return regionIndex != null ? regionIndex : -1;
+    }
+
+    public long getRegionId(int regionIndex) {
+        return regionIds[regionIndex];
+    }
+
+    public int getRegionCount() {
+        return regionIds.length;
+    }
+
+    public boolean isHub(int node) {
+        return hubFlags[node];
+    }
+
+    /**
+     * 节点纬度，无坐标时返回 NaN
+     */
+    public double getLatitude(int node) {
+        return latitudes[node];
+    }
+
+    /**
+     * 节点经度，无坐标时返回 NaN
+     */
+    public double getLongitude(int node) {
+        return longitudes[node];
+    }
+
+    /**
+     * 两节点间直线距离（已应用道路弯曲校正系数），与 LogisticsNetwork.getDirectDistance 口径一致
+     */
+    public double directDistance(int from, int to) {
+        double distance = directDistances.get(pairKey(from, to), Double.NaN);
+        if (Double.isNaN(distance)) {
+            if (Double.isNaN(latitudes[from]) || Double.isNaN(latitudes[to])) {
+                return DEFAULT_DIRECT_DISTANCE;
+            }
+            distance = LogisticsNetwork.haversineDistance(latitudes[from], longitudes[from],
+                    latitudes[to], longitudes[to]);
+        }
+        return LogisticsNetwork.applyDistanceCorrection(distance);
+    }
+
+    /**
+     * 两节点坐标间的球面距离，任一节点无坐标时返回0
+     * 与 getHeuristicScale 相乘后是综合权重意义下的可采纳且一致的启发值
+     */
+    public double geoDistance(int from, int to) {
+        if (Double.isNaN(latitudes[from]) || Double.isNaN(latitudes[to])) {
+            return 0.0;
+        }
+        return LogisticsNetwork.haversineDistance(latitudes[from], longitudes[from], latitudes[to], longitudes[to]);
+    }
+
+    /**
+     * 球面距离到综合权重的下界系数：所有边上 综合权重 / 两端球面距离 的最小值
+     * 存在无坐标的节点时返回0（启发值退化为Dijkstra），结果按权重组合缓存
+     */
+    public double getHeuristicScale(double distanceWeight, double timeWeight, double costWeight) {
+        WeightProfile profile = new WeightProfile(distanceWeight, timeWeight, costWeight);
+        Double scale = heuristicScales.get(profile);
+        if (scale != null) {
+            return scale;
+        }
+        double[] weights = getEdgeWeights(distanceWeight, timeWeight, costWeight);
+        double minScale = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < nodeCount && minScale > 0; u++) {
+            if (Double.isNaN(latitudes[u])) {
+                minScale = 0.0;
+                break;
+            }
+            for (int edge = edgeOffsets[u]; edge < edgeOffsets[u + 1]; edge++) {
+                int v = edgeTargets[edge];
+                if (v < 0) {
+                    continue;
+                }
+                double geo = geoDistance(u, v);
+                if (geo > 0) {
+                    minScale = Math.min(minScale, weights[edge] / geo);
+                }
+            }
+        }
+        scale = Double.isInfinite(minScale) ? 0.0 : Math.max(0.0, minScale);
+        if (heuristicScales.size() >= MAX_WEIGHT_PROFILES) {
+            heuristicScales.clear();
+        }
+        heuristicScales.put(profile, scale);
+        return scale;
+    }
+
+    /**
+     * 获取指定权重组合下每条边的综合权重（含长距离直连惩罚），结果按权重组合缓存
+     * 返回的数组为共享只读数据，调用方不得修改
+     */
+    public double[] getEdgeWeights(double distanceWeight, double timeWeight, double costWeight) {
+        WeightProfile profile = new WeightProfile(distanceWeight, timeWeight, costWeight);
+        double[] weights = edgeWeightCache.get(profile);
+        if (weights != null) {
+            return weights;
+        }
+        weights = computeEdgeWeights(distanceWeight, timeWeight, costWeight);
+        if (edgeWeightCache.size() >= MAX_WEIGHT_PROFILES) {
+            edgeWeightCache.clear();
+        }
+        edgeWeightCache.put(profile, weights);
+        return weights;
+    }
+
+    /**
+     * 获取指定权重组合下已预计算的枢纽间代价矩阵，尚未计算完成时返回 null
+     */
+    public HubDistanceMatrix getHubMatrix(double distanceWeight, double timeWeight, double costWeight) {
+        return hubMatrices.get(new WeightProfile(distanceWeight, timeWeight, costWeight));
+    }
+
+    /**
+     * 登记指定权重组合的枢纽间代价矩阵
+     */
+    public void putHubMatrix(double distanceWeight, double timeWeight, double costWeight,
+                             HubDistanceMatrix matrix) {
+        hubMatrices.put(new WeightProfile(distanceWeight, timeWeight, costWeight), matrix);
+    }
+
+    /**
+     * 获取指定权重组合下已构建的收缩层次索引，尚未构建时返回 null
+     */
+    public ContractionHierarchy getContractionHierarchy(double distanceWeight, double timeWeight, double costWeight,
+                                                        boolean enforceRegionalTransfer) {
+        Map<WeightProfile, ContractionHierarchy> indexes = enforceRegionalTransfer ? enforcedHierarchies : hierarchies;
+        return indexes.get(new WeightProfile(distanceWeight, timeWeight, costWeight));
+    }
+
+    /**
+     * 登记收缩层次索引
+     */
+    public void putContractionHierarchy(ContractionHierarchy hierarchy) {
+        Map<WeightProfile, ContractionHierarchy> indexes =
+                hierarchy.isEnforceRegionalTransfer() ? enforcedHierarchies : hierarchies;
+        indexes.put(new WeightProfile(hierarchy.getDistanceWeight(), hierarchy.getTimeWeight(),
+                hierarchy.getCostWeight()), hierarchy);
+    }
+
+    /**
+     * 已构建的全部收缩层次索引
+     */
+    public List<ContractionHierarchy> getContractionHierarchies() {
+        List<ContractionHierarchy> result = new ArrayList<>(hierarchies.values());
+        result.addAll(enforcedHierarchies.values());
+        return result;
+    }
+
+    private double[] computeEdgeWeights(double distanceWeight, double timeWeight, double costWeight) {
+        // 归一化处理，与 Edge.getCompositeWeight 保持一致
+        double totalWeight = distanceWeight + timeWeight + costWeight;
+        double dw = distanceWeight / totalWeight;
+        double tw = timeWeight / totalWeight;
+        double cw = costWeight / totalWeight;
+
+        double[] weights = new double[edgeTargets.length];
+        for (int e = 0; e < weights.length; e++) {
+            double distance = edgeDistances[e];
+            double weight = dw * distance + tw * edgeTravelTimes[e] * 0.1 + cw * edgeCosts[e] * 0.5;
+            if (distance > AStarPathFinder.LONG_DISTANCE_THRESHOLD) {
+                weight *= AStarPathFinder.LONG_DISTANCE_PENALTY;
+            }
+            weights[e] = weight;
+        }
+        return weights;
+    }
+
+    private static long pairKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 权重组合（缓存键）
+     */
+    private static final class WeightProfile {
+        private final double distanceWeight;
+        private final double timeWeight;
+        private final double costWeight;
+
+        WeightProfile(double distanceWeight, double timeWeight, double costWeight) {
+            this.distanceWeight = distanceWeight;
+            this.timeWeight = timeWeight;
+            this.costWeight = costWeight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WeightProfile)) {
+                return false;
+            }
+            WeightProfile that = (WeightProfile) o;
+            return Double.compare(distanceWeight, that.distanceWeight) == 0
+                    && Double.compare(timeWeight, that.timeWeight) == 0
+                    && Double.compare(costWeight, that.costWeight) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(distanceWeight, timeWeight, costWeight);
+        }
+    }
+}
@@ -0,0 +1,630 @@
+package com.jiaju.springbootinit.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 收缩层次（Contraction Hierarchies）索引
+ * 预处理阶段按重要度依次收缩节点，必要时加入捷径以保持剩余节点间的最短距离不变；
+ * 查询时从起点沿“向上”的弧、从终点沿“向上”的入弧做双向 Dijkstra，只需访问极少节点即可得到精确最短路，
+ * 不受 A* 迭代次数上限的影响。索引针对一组权重组合（以及是否强制区域中转）构建，构建完成后只读
+ */
+public final class ContractionHierarchy {
+
+    // 见证搜索最多确定的节点数，超出后视为无见证路径并加入捷径
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    // 估算重要度时见证搜索的确定节点数上限，只影响收缩顺序，不影响正确性
+    private static final int SIMULATE_SETTLE_LIMIT = 50;
+
+    private final CompiledGraph graph;
+
+    private final double distanceWeight;
+
+    private final double timeWeight;
+
+    private final double costWeight;
+
+    private final boolean enforceRegionalTransfer;
+
+    // 弧的起点、终点，原始边下标（捷径为-1），以及捷径拆分出的前后两段弧
+    private final int[] arcFrom;
+
+    private final int[] arcTo;
+
+    private final int[] arcEdge;
+
+    private final int[] arcFirst;
+
+    private final int[] arcSecond;
+
+    // 正向向上图：节点 -> 通往更高层节点的出弧
+    private final int[] upOffsets;
+
+    private final int[] upArcs;
+
+    private final int[] upTargets;
+
+    private final double[] upWeights;
+
+    // 反向向上图：节点 -> 来自更高层节点的入弧
+    private final int[] downOffsets;
+
+    private final int[] downArcs;
+
+    private final int[] downSources;
+
+    private final double[] downWeights;
+
+    private final int shortcutCount;
+
+    private final long buildMillis;
+
+    private ContractionHierarchy(CompiledGraph graph, double distanceWeight, double timeWeight, double costWeight,
+                                 boolean enforceRegionalTransfer, Preprocessor preprocessor, long buildMillis) {
+        this.graph = graph;
+        this.distanceWeight = distanceWeight;
+        this.timeWeight = timeWeight;
+        this.costWeight = costWeight;
+        this.enforceRegionalTransfer = enforceRegionalTransfer;
+        this.buildMillis = buildMillis;
+        this.shortcutCount = preprocessor.shortcutCount;
+
+        int arcCount = preprocessor.arcCount;
+        this.arcFrom = Arrays.copyOf(preprocessor.arcFrom, arcCount);
+        this.arcTo = Arrays.copyOf(preprocessor.arcTo, arcCount);
+        this.arcEdge = Arrays.copyOf(preprocessor.arcEdge, arcCount);
+        this.arcFirst = Arrays.copyOf(preprocessor.arcFirst, arcCount);
+        this.arcSecond = Arrays.copyOf(preprocessor.arcSecond, arcCount);
+
+        // 按层级拆分为两张向上图：低层 -> 高层的弧放入正向图，高层 -> 低层的弧按终点放入反向图
+        int nodeCount = graph.getNodeCount();
+        int[] rank = preprocessor.rank;
+        this.upOffsets = new int[nodeCount + 1];
+        this.downOffsets = new int[nodeCount + 1];
+        for (int arc = 0; arc < arcCount; arc++) {
+            if (rank[arcFrom[arc]] < rank[arcTo[arc]]) {
+                upOffsets[arcFrom[arc] + 1]++;
+            } else {
+                downOffsets[arcTo[arc] + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            upOffsets[node + 1] += upOffsets[node];
+            downOffsets[node + 1] += downOffsets[node];
+        }
+        this.upArcs = new int[upOffsets[nodeCount]];
+        this.upTargets = new int[upArcs.length];
+        this.upWeights = new double[upArcs.length];
+        this.downArcs = new int[downOffsets[nodeCount]];
+        this.downSources = new int[downArcs.length];
+        this.downWeights = new double[downArcs.length];
+        int[] upCursor = Arrays.copyOf(upOffsets, nodeCount);
+        int[] downCursor = Arrays.copyOf(downOffsets, nodeCount);
+        for (int arc = 0; arc < arcCount; arc++) {
+            int from = arcFrom[arc];
+            int to = arcTo[arc];
+            if (rank[from] < rank[to]) {
+                int slot = upCursor[from]++;
+                upArcs[slot] = arc;
+                upTargets[slot] = to;
+                upWeights[slot] = preprocessor.arcWeight[arc];
+            } else {
+                int slot = downCursor[to]++;
+                downArcs[slot] = arc;
+                downSources[slot] = from;
+                downWeights[slot] = preprocessor.arcWeight[arc];
+            }
+        }
+    }
+
+    /**
+     * 按权重组合构建收缩层次索引
+     *
+     * @param graph                   紧凑图
+     * @param distanceWeight          距离权重
+     * @param timeWeight              时间权重
+     * @param costWeight              成本权重
+     * @param enforceRegionalTransfer 是否按强制区域中转规则过滤边
+     * @return 索引
+     */
+    public static ContractionHierarchy build(CompiledGraph graph, double distanceWeight, double timeWeight,
+                                             double costWeight, boolean enforceRegionalTransfer) {
+        long startTime = System.currentTimeMillis();
+        Preprocessor preprocessor = new Preprocessor(graph,
+                graph.getEdgeWeights(distanceWeight, timeWeight, costWeight), enforceRegionalTransfer);
+        preprocessor.contractAll();
+        return new ContractionHierarchy(graph, distanceWeight, timeWeight, costWeight, enforceRegionalTransfer,
+                preprocessor, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 查询两站点间的最短路径，返回结构与 AStarPathFinder.findPath 一致
+     *
+     * @param sourceId 起点站点ID
+     * @param targetId 终点站点ID
+     * @return 最优路径，不可达时返回 null
+     */
+    public OptimalRoute findPath(long sourceId, long targetId) {
+        int source = graph.indexOf(sourceId);
+        int target = graph.indexOf(targetId);
+        if (source < 0 || target < 0 || source == target) {
+            return null;
+        }
+        long startNanos = System.nanoTime();
+        int nodeCount = graph.getNodeCount();
+        SearchSpace forward = SearchSpace.acquire(nodeCount);
+        SearchSpace backward = SearchSpace.acquireBackward(nodeCount);
+        forward.visit(source, 0.0, 0.0, -1, -1);
+        forward.openList.insertOrDecrease(source, 0.0);
+        backward.visit(target, 0.0, 0.0, -1, -1);
+        backward.openList.insertOrDecrease(target, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int iterations = 0;
+        int reached = 2;
+        while (true) {
+            double forwardKey = forward.openList.peekKey();
+            double backwardKey = backward.openList.peekKey();
+            // 两个方向的最小键都不小于当前最优值时，最优值已确定
+            if (Math.min(forwardKey, backwardKey) >= best) {
+                break;
+            }
+            boolean isForward = forwardKey <= backwardKey;
+            SearchSpace space = isForward ? forward : backward;
+            SearchSpace other = isForward ? backward : forward;
+            int current = space.openList.poll();
+            space.close(current);
+            iterations++;
+            double currentCost = space.actualCost[current];
+            if (other.isVisited(current)) {
+                double total = currentCost + other.actualCost[current];
+                if (total < best) {
+                    best = total;
+                    meeting = current;
+                }
+            }
+            if (isStalled(space, current, currentCost, isForward)) {
+                continue;
+            }
+            int start = isForward ? upOffsets[current] : downOffsets[current];
+            int end = isForward ? upOffsets[current + 1] : downOffsets[current + 1];
+            for (int slot = start; slot < end; slot++) {
+                int neighbor = isForward ? upTargets[slot] : downSources[slot];
+                double newCost = currentCost + (isForward ? upWeights[slot] : downWeights[slot]);
+                int arc = isForward ? upArcs[slot] : downArcs[slot];
+                if (!space.isVisited(neighbor)) {
+                    reached++;
+                    space.visit(neighbor, newCost, 0.0, current, arc);
+                    space.openList.insertOrDecrease(neighbor, newCost);
+                } else if (newCost < space.actualCost[neighbor] && !space.isClosed(neighbor)) {
+                    space.actualCost[neighbor] = newCost;
+                    space.previous[neighbor] = current;
+                    space.previousEdge[neighbor] = arc;
+                    space.openList.insertOrDecrease(neighbor, newCost);
+                } else {
+                    continue;
+                }
+                if (other.isVisited(neighbor)) {
+                    double total = newCost + other.actualCost[neighbor];
+                    if (total < best) {
+                        best = total;
+                        meeting = neighbor;
+                    }
+                }
+            }
+        }
+        RoutingMetrics.recordSearch(RoutingMetrics.SearchType.CH, iterations, reached,
+                System.nanoTime() - startNanos, meeting >= 0);
+        if (meeting < 0) {
+            return null;
+        }
+        return unpackPath(forward, backward, source, meeting, best);
+    }
+
+    /**
+     * 按需停滞：若能经由本方向已访问的更高层节点以更小代价到达当前节点，说明当前标签不是最短的，
+     * 无需继续扩展（该节点仍参与相遇判断，不影响结果正确性）
+     */
+    private boolean isStalled(SearchSpace space, int node, double cost, boolean isForward) {
+        int start = isForward ? downOffsets[node] : upOffsets[node];
+        int end = isForward ? downOffsets[node + 1] : upOffsets[node + 1];
+        for (int slot = start; slot < end; slot++) {
+            int higher = isForward ? downSources[slot] : upTargets[slot];
+            if (space.isVisited(higher)
+                    && space.actualCost[higher] + (isForward ? downWeights[slot] : upWeights[slot]) < cost) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 由相遇点拼接两侧的弧并展开捷径，得到原始边序列
+     */
+    private OptimalRoute unpackPath(SearchSpace forward, SearchSpace backward, int source, int meeting,
+                                    double cost) {
+        List<Integer> arcs = new ArrayList<>();
+        for (int node = meeting; forward.previousEdge[node] >= 0; node = arcFrom[forward.previousEdge[node]]) {
+            arcs.add(forward.previousEdge[node]);
+        }
+        Collections.reverse(arcs);
+        for (int node = meeting; backward.previousEdge[node] >= 0; node = arcTo[backward.previousEdge[node]]) {
+            arcs.add(backward.previousEdge[node]);
+        }
+
+        List<Long> pathNodes = new ArrayList<>();
+        pathNodes.add(graph.getStationId(source));
+        double totalDistance = 0.0;
+        int totalTime = 0;
+        int[] stack = new int[16];
+        for (int arc : arcs) {
+            int top = 0;
+            stack[top++] = arc;
+            while (top > 0) {
+                int current = stack[--top];
+                int edge = arcEdge[current];
+                if (edge >= 0) {
+                    pathNodes.add(graph.getStationId(graph.edgeTarget(edge)));
+                    totalDistance += graph.edgeDistance(edge);
+                    totalTime += graph.edgeTravelTime(edge);
+                    continue;
+                }
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                // 后段先入栈，保证先展开前段
+                stack[top++] = arcSecond[current];
+                stack[top++] = arcFirst[current];
+            }
+        }
+
+        OptimalRoute route = new OptimalRoute();
+        route.setFromStationId(pathNodes.get(0));
+        route.setToStationId(pathNodes.get(pathNodes.size() - 1));
+        route.setPathNodes(pathNodes);
+        route.setTotalDistance(totalDistance > 0 ? totalDistance : cost);
+        route.setEstimatedTime(totalTime);
+        return route;
+    }
+
+    public double getDistanceWeight() {
+        return distanceWeight;
+    }
+
+    public double getTimeWeight() {
+        return timeWeight;
+    }
+
+    public double getCostWeight() {
+        return costWeight;
+    }
+
+    public boolean isEnforceRegionalTransfer() {
+        return enforceRegionalTransfer;
+    }
+
+    public int getNodeCount() {
+        return graph.getNodeCount();
+    }
+
+    public int getArcCount() {
+        return arcFrom.length;
+    }
+
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * 估算索引占用的内存（字节）
+     */
+    public long estimateMemoryBytes() {
+        long arcs = arcFrom.length;
+        long upSlots = upArcs.length;
+        long downSlots = downArcs.length;
+        return arcs * 4 * 5 + (upSlots + downSlots) * (4 + 4 + 8) + (long) (upOffsets.length + downOffsets.length) * 4;
+    }
+
+    /**
+     * 预处理过程中的可变状态，构建完成后丢弃
+     */
+    private static final class Preprocessor {
+
+        private final CompiledGraph graph;
+
+        private final int nodeCount;
+
+        private int arcCount;
+
+        private int[] arcFrom;
+
+        private int[] arcTo;
+
+        private int[] arcEdge;
+
+        private int[] arcFirst;
+
+        private int[] arcSecond;
+
+        private double[] arcWeight;
+
+        // 节点的出弧、入弧列表（含已收缩节点的弧，遍历时跳过）
+        private final int[][] outArcs;
+
+        private final int[] outSizes;
+
+        private final int[][] inArcs;
+
+        private final int[] inSizes;
+
+        // pairKey(from, to) -> 弧，保证任意有序节点对之间只有一条弧
+        private final LongIntHashMap arcIndex;
+
+        private final boolean[] contracted;
+
+        private final int[] contractedNeighbors;
+
+        // 节点在层次中的深度估计，用于让收缩在图中均匀推进
+        private final int[] depths;
+
+        private final int[] rank;
+
+        private int shortcutCount;
+
+        // 见证搜索工作区
+        private final double[] witnessCost;
+
+        private final int[] witnessStamps;
+
+        private final IndexedMinHeap witnessHeap;
+
+        private int witnessEpoch;
+
+        Preprocessor(CompiledGraph graph, double[] edgeWeights, boolean enforceRegionalTransfer) {
+            this.graph = graph;
+            this.nodeCount = graph.getNodeCount();
+            int capacity = Math.max(16, graph.getEdgeCount() * 2);
+            this.arcFrom = new int[capacity];
+            this.arcTo = new int[capacity];
+            this.arcEdge = new int[capacity];
+            this.arcFirst = new int[capacity];
+            this.arcSecond = new int[capacity];
+            this.arcWeight = new double[capacity];
+            this.outArcs = new int[nodeCount][];
+            this.outSizes = new int[nodeCount];
+            this.inArcs = new int[nodeCount][];
+            this.inSizes = new int[nodeCount];
+            this.arcIndex = new LongIntHashMap(capacity);
+            this.contracted = new boolean[nodeCount];
+            this.contractedNeighbors = new int[nodeCount];
+            this.depths = new int[nodeCount];
+            this.rank = new int[nodeCount];
+            this.witnessCost = new double[nodeCount];
+            this.witnessStamps = new int[nodeCount];
+            this.witnessHeap = new IndexedMinHeap(nodeCount);
+            for (int node = 0; node < nodeCount; node++) {
+                outArcs[node] = new int[4];
+                inArcs[node] = new int[4];
+            }
+
+            // 原始边：同一节点对只保留权重最小的一条，强制中转时剔除非枢纽间的跨区域边
+            for (int u = 0; u < nodeCount; u++) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.edgeTarget(e);
+                    if (u == v || (enforceRegionalTransfer && isForbidden(u, v))) {
+                        continue;
+                    }
+                    int existing = arcIndex.get(pairKey(u, v), -1);
+                    if (existing < 0) {
+                        addArc(u, v, edgeWeights[e], e, -1, -1);
+                    } else if (edgeWeights[e] < arcWeight[existing]) {
+                        arcWeight[existing] = edgeWeights[e];
+                        arcEdge[existing] = e;
+                    }
+                }
+            }
+        }
+
+        private boolean isForbidden(int u, int v) {
+            if (graph.isHub(u) || graph.isHub(v)) {
+                return false;
+            }
+            int fromRegion = graph.getRegionIndex(u);
+            int toRegion = graph.getRegionIndex(v);
+            return fromRegion >= 0 && toRegion >= 0 && fromRegion != toRegion;
+        }
+
+        /**
+         * 按重要度（边差、已收缩邻居数与层深）依次收缩所有节点，重要度采用惰性更新：出队时重新计算，变大则放回
+         */
+        void contractAll() {
+            IndexedMinHeap queue = new IndexedMinHeap(nodeCount);
+            for (int node = 0; node < nodeCount; node++) {
+                queue.insertOrDecrease(node, priority(node));
+            }
+            int level = 0;
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                double priority = priority(node);
+                if (!queue.isEmpty() && priority > queue.peekKey()) {
+                    queue.insertOrDecrease(node, priority);
+                    continue;
+                }
+                contract(node, false);
+                contracted[node] = true;
+                rank[node] = level++;
+                // 更新仍未收缩的邻居：累计已收缩邻居数与层深，重要度在出队时重新计算
+                for (int i = 0; i < outSizes[node]; i++) {
+                    touchNeighbor(node, arcTo[outArcs[node][i]]);
+                }
+                for (int i = 0; i < inSizes[node]; i++) {
+                    touchNeighbor(node, arcFrom[inArcs[node][i]]);
+                }
+            }
+        }
+
+        private void touchNeighbor(int node, int neighbor) {
+            if (contracted[neighbor]) {
+                return;
+            }
+            contractedNeighbors[neighbor]++;
+            depths[neighbor] = Math.max(depths[neighbor], depths[node] + 1);
+        }
+
+        private double priority(int node) {
+            int degree = 0;
+            for (int i = 0; i < outSizes[node]; i++) {
+                if (!contracted[arcTo[outArcs[node][i]]]) {
+                    degree++;
+                }
+            }
+            for (int i = 0; i < inSizes[node]; i++) {
+                if (!contracted[arcFrom[inArcs[node][i]]]) {
+                    degree++;
+                }
+            }
+            int shortcuts = contract(node, true);
+            return 2.0 * (shortcuts - degree) + contractedNeighbors[node] + depths[node];
+        }
+
+        /**
+         * 收缩节点：对每对“入邻居 -> 节点 -> 出邻居”，若不存在不经过该节点且不更长的见证路径则加入捷径
+         *
+         * @param simulate 仅统计需要的捷径数量，不修改图
+         * @return 需要的捷径数量
+         */
+        private int contract(int node, boolean simulate) {
+            int shortcuts = 0;
+            for (int i = 0; i < inSizes[node]; i++) {
+                int inArc = inArcs[node][i];
+                int u = arcFrom[inArc];
+                if (contracted[u]) {
+                    continue;
+                }
+                double maxCost = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j < outSizes[node]; j++) {
+                    int w = arcTo[outArcs[node][j]];
+                    if (!contracted[w] && w != u) {
+                        maxCost = Math.max(maxCost, arcWeight[inArc] + arcWeight[outArcs[node][j]]);
+                    }
+                }
+                if (maxCost == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                witnessSearch(u, node, maxCost, simulate ? SIMULATE_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+                // 收缩过程中出弧列表可能因新增捷径而变长，先记录当前长度
+                int outSize = outSizes[node];
+                for (int j = 0; j < outSize; j++) {
+                    int outArc = outArcs[node][j];
+                    int w = arcTo[outArc];
+                    if (contracted[w] || w == u) {
+                        continue;
+                    }
+                    double viaCost = arcWeight[inArc] + arcWeight[outArc];
+                    if (witnessStamps[w] == witnessEpoch && witnessCost[w] <= viaCost) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if (!simulate) {
+                        addShortcut(u, w, viaCost, inArc, outArc);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * 从 source 出发、绕开 excluded 的受限 Dijkstra，代价超过 maxCost 或确定节点数达到上限即停止
+         */
+        private void witnessSearch(int source, int excluded, double maxCost, int settleLimit) {
+            if (++witnessEpoch == Integer.MAX_VALUE) {
+                Arrays.fill(witnessStamps, 0);
+                witnessEpoch = 1;
+            }
+            witnessHeap.clear();
+            witnessStamps[source] = witnessEpoch;
+            witnessCost[source] = 0.0;
+            witnessHeap.insertOrDecrease(source, 0.0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < settleLimit) {
+                if (witnessHeap.peekKey() > maxCost) {
+                    break;
+                }
+                int current = witnessHeap.poll();
+                settled++;
+                double currentCost = witnessCost[current];
+                for (int i = 0; i < outSizes[current]; i++) {
+                    int arc = outArcs[current][i];
+                    int next = arcTo[arc];
+                    if (next == excluded || contracted[next]) {
+                        continue;
+                    }
+                    double newCost = currentCost + arcWeight[arc];
+                    if (witnessStamps[next] != witnessEpoch || newCost < witnessCost[next]) {
+                        witnessStamps[next] = witnessEpoch;
+                        witnessCost[next] = newCost;
+                        witnessHeap.insertOrDecrease(next, newCost);
+                    }
+                }
+            }
+        }
+
+        private void addShortcut(int u, int w, double cost, int first, int second) {
+            int existing = arcIndex.get(pairKey(u, w), -1);
+            if (existing < 0) {
+                addArc(u, w, cost, -1, first, second);
+                shortcutCount++;
+            } else if (cost < arcWeight[existing]) {
+                // 两端均未收缩，该弧尚未被其他捷径引用，可直接改写
+                arcWeight[existing] = cost;
+                if (arcEdge[existing] >= 0) {
+                    shortcutCount++;
+                }
+                arcEdge[existing] = -1;
+                arcFirst[existing] = first;
+                arcSecond[existing] = second;
+            }
+        }
+
+        private void addArc(int u, int v, double weight, int edge, int first, int second) {
+            if (arcCount == arcFrom.length) {
+                int capacity = arcCount * 2;
+                arcFrom = Arrays.copyOf(arcFrom, capacity);
+                arcTo = Arrays.copyOf(arcTo, capacity);
+                arcEdge = Arrays.copyOf(arcEdge, capacity);
+                arcFirst = Arrays.copyOf(arcFirst, capacity);
+                arcSecond = Arrays.copyOf(arcSecond, capacity);
+                arcWeight = Arrays.copyOf(arcWeight, capacity);
+            }
+            int arc = arcCount++;
+            arcFrom[arc] = u;
+            arcTo[arc] = v;
+            arcEdge[arc] = edge;
+            arcFirst[arc] = first;
+            arcSecond[arc] = second;
+            arcWeight[arc] = weight;
+            arcIndex.put(pairKey(u, v), arc);
+            appendArc(outArcs, outSizes, u, arc);
+            appendArc(inArcs, inSizes, v, arc);
+        }
+
+        private static void appendArc(int[][] lists, int[] sizes, int node, int arc) {
+            if (sizes[node] == lists[node].length) {
+                lists[node] = Arrays.copyOf(lists[node], sizes[node] * 2);
+            }
+            lists[node][sizes[node]++] = arc;
+        }
+
+        private static long pairKey(int from, int to) {
+            return ((long) from << 32) | (to & 0xFFFFFFFFL);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.jiaju.springbootinit.algorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 枢纽站点间代价矩阵
+ * 针对一组权重组合，以每个枢纽为起点在紧凑图上执行完整的 Dijkstra（遵循强制区域中转规则），
+ * 记录到其他枢纽的综合代价、距离、时间，以及最短路径树中位于枢纽间路径上的部分，
+ * 跨区域路由时直接查表代替逐对扫描和分段搜索。各起点的计算相互独立，通过 fork-join 并行执行；构建完成后只读
+ */
+public final class HubDistanceMatrix {
+
+    private final CompiledGraph graph;
+
+    // 枢纽序号 -> 节点下标
+    private final int[] hubNodes;
+
+    // 节点下标 -> 枢纽序号，非枢纽为-1
+    private final int[] hubOrdinals;
+
+    private final int hubCount;
+
+    // 按 from * hubCount + to 存放，不可达为正无穷
+    private final double[] costs;
+
+    private final double[] distances;
+
+    private final int[] travelTimes;
+
+    // 每个枢纽出发的最短路径树裁剪到枢纽间路径上的节点：按节点下标升序排列的节点及其前驱边，
+    // 大小与枢纽间路径覆盖的节点数成正比而不是与全图节点数成正比；仅有距离数据时为 null
+    private final int[][] pathTreeNodes;
+
+    private final int[][] pathTreeEdges;
+
+    // 区域下标 -> 区域内枢纽节点下标
+    private final int[][] regionHubs;
+
+    private long buildMillis;
+
+    private HubDistanceMatrix(CompiledGraph graph, boolean withPaths) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        this.hubOrdinals = new int[nodeCount];
+        Arrays.fill(hubOrdinals, -1);
+        int count = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (graph.isHub(node)) {
+                count++;
+            }
+        }
+        this.hubCount = count;
+        this.hubNodes = new int[count];
+        int[] regionSizes = new int[graph.getRegionCount()];
+        for (int node = 0, k = 0; node < nodeCount; node++) {
+            if (graph.isHub(node)) {
+                hubNodes[k] = node;
+                hubOrdinals[node] = k++;
+                int region = graph.getRegionIndex(node);
+                if (region >= 0) {
+                    regionSizes[region]++;
+                }
+            }
+        }
+        this.regionHubs = new int[regionSizes.length][];
+        for (int region = 0; region < regionSizes.length; region++) {
+            regionHubs[region] = new int[regionSizes[region]];
+            regionSizes[region] = 0;
+        }
+        for (int hubNode : hubNodes) {
+            int region = graph.getRegionIndex(hubNode);
+            if (region >= 0) {
+                regionHubs[region][regionSizes[region]++] = hubNode;
+            }
+        }
+        this.costs = new double[count * count];
+        this.distances = new double[count * count];
+        this.travelTimes = new int[count * count];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        this.pathTreeNodes = withPaths ? new int[count][] : null;
+        this.pathTreeEdges = withPaths ? new int[count][] : null;
+    }
+
+    /**
+     * 按权重组合并行计算枢纽间代价矩阵
+     *
+     * @param graph          紧凑图
+     * @param distanceWeight 距离权重
+     * @param timeWeight     时间权重
+     * @param costWeight     成本权重
+     * @param pool           执行计算的 fork-join 线程池
+     * @return 代价矩阵
+     */
+    public static HubDistanceMatrix compute(CompiledGraph graph, double distanceWeight, double timeWeight,
+                                            double costWeight, ForkJoinPool pool) {
+        long startTime = System.currentTimeMillis();
+        HubDistanceMatrix matrix = new HubDistanceMatrix(graph, true);
+        double[] edgeWeights = graph.getEdgeWeights(distanceWeight, timeWeight, costWeight);
+        if (matrix.hubCount > 0) {
+            pool.invoke(matrix.new RowTask(edgeWeights, 0, matrix.hubCount));
+        }
+        matrix.buildMillis = System.currentTimeMillis() - startTime;
+        return matrix;
+    }
+
+    /**
+     * 由持久化的枢纽间距离恢复矩阵（热启动），代价取距离值，不含路径树
+     *
+     * @param graph     紧凑图
+     * @param distances 持久化距离查询
+     * @return 代价矩阵
+     */
+    public static HubDistanceMatrix fromDistances(CompiledGraph graph, DistanceLookup distances) {
+        HubDistanceMatrix matrix = new HubDistanceMatrix(graph, false);
+        int count = matrix.hubCount;
+        for (int from = 0; from < count; from++) {
+            long fromId = graph.getStationId(matrix.hubNodes[from]);
+            for (int to = 0; to < count; to++) {
+                int cell = from * count + to;
+                if (from == to) {
+                    matrix.costs[cell] = 0.0;
+                    matrix.distances[cell] = 0.0;
+                    continue;
+                }
+                double distance = distances.distance(fromId, graph.getStationId(matrix.hubNodes[to]));
+                if (!Double.isNaN(distance)) {
+                    matrix.costs[cell] = distance;
+                    matrix.distances[cell] = distance;
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * 持久化距离查询，不存在时返回 NaN
+     */
+    public interface DistanceLookup {
+        double distance(long fromStationId, long toStationId);
+    }
+
+    /**
+     * 按枢纽区间拆分的并行任务
+     */
+    private final class RowTask extends RecursiveAction {
+
+        private final double[] edgeWeights;
+
+        private final int from;
+
+        private final int to;
+
+        RowTask(double[] edgeWeights, int from, int to) {
+            this.edgeWeights = edgeWeights;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int hub = from; hub < to; hub++) {
+                    computeRow(hub, edgeWeights);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RowTask(edgeWeights, from, mid), new RowTask(edgeWeights, mid, to));
+        }
+    }
+
+    /**
+     * 以一个枢纽为起点执行完整的 Dijkstra，填充矩阵的一行
+     */
+    private void computeRow(int hub, double[] edgeWeights) {
+        int nodeCount = graph.getNodeCount();
+        int source = hubNodes[hub];
+        SearchSpace space = SearchSpace.acquire(nodeCount);
+        IndexedMinHeap openList = space.openList;
+        double[] actualCost = space.actualCost;
+
+        space.visit(source, 0.0, 0.0, -1, -1);
+        openList.insertOrDecrease(source, 0.0);
+        while (!openList.isEmpty()) {
+            int current = openList.poll();
+            space.close(current);
+            int currentRegion = graph.getRegionIndex(current);
+            boolean currentHub = graph.isHub(current);
+            double currentCost = actualCost[current];
+            for (int e = graph.edgeStart(current), end = graph.edgeEnd(current); e < end; e++) {
+                int neighbor = graph.edgeTarget(e);
+                if (space.isClosed(neighbor)) {
+                    continue;
+                }
+                // 与 A* 的强制区域中转规则一致：非枢纽站点不能直接跨区域到达非枢纽站点
+                if (!currentHub) {
+                    int neighborRegion = graph.getRegionIndex(neighbor);
+                    if (currentRegion >= 0 && neighborRegion >= 0 && currentRegion != neighborRegion
+                            && !graph.isHub(neighbor)) {
+                        continue;
+                    }
+                }
+                double newCost = currentCost + edgeWeights[e];
+                if (!space.isVisited(neighbor)) {
+                    space.visit(neighbor, newCost, 0.0, current, e);
+                    openList.insertOrDecrease(neighbor, newCost);
+                } else if (newCost < actualCost[neighbor]) {
+                    actualCost[neighbor] = newCost;
+                    space.previous[neighbor] = current;
+                    space.previousEdge[neighbor] = e;
+                    openList.insertOrDecrease(neighbor, newCost);
+                }
+            }
+        }
+
+        int[] previousEdge = space.previousEdge;
+        for (int target = 0; target < hubCount; target++) {
+            int targetNode = hubNodes[target];
+            if (!space.isVisited(targetNode)) {
+                continue;
+            }
+            double distance = 0.0;
+            int time = 0;
+            for (int e = previousEdge[targetNode]; e >= 0; e = previousEdge[graph.edgeSource(e)]) {
+                distance += graph.edgeDistance(e);
+                time += graph.edgeTravelTime(e);
+            }
+            int cell = hub * hubCount + target;
+            costs[cell] = actualCost[targetNode];
+            distances[cell] = distance;
+            travelTimes[cell] = time;
+        }
+
+        // 只保留到各枢纽路径上的节点，向上回溯到已标记的节点即停止，每个节点最多访问一次
+        boolean[] onPath = new boolean[nodeCount];
+        int pathNodeCount = 0;
+        for (int target = 0; target < hubCount; target++) {
+            int node = hubNodes[target];
+            if (!space.isVisited(node)) {
+                continue;
+            }
+            while (!onPath[node]) {
+                onPath[node] = true;
+                pathNodeCount++;
+                int edge = previousEdge[node];
+                if (edge < 0) {
+                    break;
+                }
+                node = graph.edgeSource(edge);
+            }
+        }
+        int[] treeNodes = new int[pathNodeCount];
+        int[] treeEdges = new int[pathNodeCount];
+        for (int node = 0, k = 0; node < nodeCount; node++) {
+            if (onPath[node]) {
+                treeNodes[k] = node;
+                treeEdges[k++] = previousEdge[node];
+            }
+        }
+        pathTreeNodes[hub] = treeNodes;
+        pathTreeEdges[hub] = treeEdges;
+    }
+
+    public int getHubCount() {
+        return hubCount;
+    }
+
+    /**
+     * 枢纽节点下标
+     */
+    public int getHubNode(int ordinal) {
+        return hubNodes[ordinal];
+    }
+
+    /**
+     * 是否包含最短路径树，热启动恢复的矩阵只有距离数据
+     */
+    public boolean hasPaths() {
+        return pathTreeNodes != null;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * 两个枢纽节点间的综合代价，任一端不是枢纽或不可达时返回正无穷
+     */
+    public double cost(int fromNode, int toNode) {
+        int cell = cell(fromNode, toNode);
+        return cell >= 0 ? costs[cell] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * 两个枢纽节点间最短路径的实际距离，不可达时返回正无穷
+     */
+    public double distance(int fromNode, int toNode) {
+        int cell = cell(fromNode, toNode);
+        return cell >= 0 ? distances[cell] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * 两个枢纽节点间最短路径的预计时间
+     */
+    public int travelTime(int fromNode, int toNode) {
+        int cell = cell(fromNode, toNode);
+        return cell >= 0 ? travelTimes[cell] : 0;
+    }
+
+    /**
+     * 两个枢纽节点间最短路径经过的节点下标（含起终点），不可达或无路径树时返回 null
+     */
+    public int[] path(int fromNode, int toNode) {
+        int cell = cell(fromNode, toNode);
+        if (cell < 0 || pathTreeNodes == null || costs[cell] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        int row = hubOrdinals[fromNode];
+        int length = 1;
+        for (int e = predecessorEdge(row, toNode); e >= 0; e = predecessorEdge(row, graph.edgeSource(e))) {
+            length++;
+        }
+        int[] path = new int[length];
+        int node = toNode;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = node;
+            int edge = predecessorEdge(row, node);
+            if (edge >= 0) {
+                node = graph.edgeSource(edge);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * 裁剪后路径树中节点的前驱边，起点或不在树中时返回-1
+     */
+    private int predecessorEdge(int row, int node) {
+        int index = Arrays.binarySearch(pathTreeNodes[row], node);
+        return index >= 0 ? pathTreeEdges[row][index] : -1;
+    }
+
+    /**
+     * 区域内的枢纽节点下标，返回共享数组，调用方不得修改
+     */
+    public int[] getRegionHubs(int regionIndex) {
+        return regionIndex >= 0 && regionIndex < regionHubs.length ? regionHubs[regionIndex] : new int[0];
+    }
+
+    /**
+     * 两个区域之间代价最小的枢纽对，返回 [起点区域枢纽, 终点区域枢纽]，不存在时返回 null
+     */
+    public int[] bestHubPair(int fromRegion, int toRegion) {
+        int[] bestPair = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int fromHub : getRegionHubs(fromRegion)) {
+            for (int toHub : getRegionHubs(toRegion)) {
+                double cost = cost(fromHub, toHub);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestPair = new int[]{fromHub, toHub};
+                }
+            }
+        }
+        return bestPair;
+    }
+
+    /**
+     * 从指定枢纽出发到目标区域代价最小的枢纽，不存在时返回-1
+     */
+    public int bestHubFrom(int fromNode, int toRegion) {
+        int best = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int toHub : getRegionHubs(toRegion)) {
+            double cost = cost(fromNode, toHub);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = toHub;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 估算矩阵占用的内存（字节）
+     */
+    public long estimateMemoryBytes() {
+        long cells = (long) hubCount * hubCount;
+        long bytes = cells * (8 + 8 + 4) + (long) hubOrdinals.length * 4 + (long) hubNodes.length * 8;
+        if (pathTreeNodes != null) {
+            for (int[] treeNodes : pathTreeNodes) {
+                bytes += treeNodes != null ? (long) treeNodes.length * 8 : 0;
+            }
+        }
+        return bytes;
+    }
+
+    private int cell(int fromNode, int toNode) {
+        int from = hubOrdinals[fromNode];
+        int to = hubOrdinals[toNode];
+        return from >= 0 && to >= 0 ? from * hubCount + to : -1;
+    }
+}
@@ -1,6 +1,7 @@
 package com.jiaju.springbootinit.algorithm;
 
 import com.jiaju.springbootinit.model.entity.DirectDistance;
+import com.jiaju.springbootinit.model.entity.Region;
 import com.jiaju.springbootinit.model.entity.Route;
 import com.jiaju.springbootinit.model.entity.Station;
 import org.slf4j.Logger;
@@ -11,6 +12,7 @@ import java.util.stream.Collectors;
 
 /**
  * 物流网络图结构
+ * 构建阶段通过 add* 方法写入；编译为紧凑图后即成为只读快照，查询方法不再修改任何内部状态，可被多个线程并发读取
  */
 public class LogisticsNetwork {
     private static final Logger log = LoggerFactory.getLogger(LogisticsNetwork.class);
@@ -21,16 +23,29 @@ public class LogisticsNetwork {
     // 站点邻接表
     private final Map<Long, List<Edge>> adjacencyList = new HashMap<>();
     
-    // 直线距离缓存
-    private final Map<String, Double> directDistanceMap = new HashMap<>();
+    // 直线距离表（起点ID -> 终点ID -> 距离），双向存储
+    private final Map<Long, Map<Long, Double>> directDistanceMap = new HashMap<>();
     
-    // 枢纽站点缓存（新增）
+    // 区域表配置的中心点（区域ID -> {纬度, 经度}）
+    private final Map<Long, double[]> regionCenters = new HashMap<>();
+    
+    // 按编码标记的枢纽站点（新增），仅在构建阶段写入
     private final Set<Long> hubStations = new HashSet<>();
     
+    // 快照版本号，由网络管理器在发布时设置
+    private long version;
+    
+    // 紧凑图表示，首次使用时编译
+    private volatile CompiledGraph compiledGraph;
+    
+    // 区域层叠加图，首次使用时构建
+    private volatile RegionOverlayGraph regionOverlay;
+    
     /**
      * 添加站点
      */
     public void addStation(Station station) {
+        ensureMutable();
         if (station != null && station.getId() != null) {
             // 检查站点坐标是否完整
             boolean hasValidCoordinates = station.getLongitude() != null && 
@@ -59,6 +74,21 @@ public class LogisticsNetwork {
         }
     }
     
+    /**
+     * 添加区域，登记其配置的中心点
+     */
+    public void addRegion(Region region) {
+        ensureMutable();
+        if (region != null && region.getId() != null
+                && region.getCenterLatitude() != null && region.getCenterLongitude() != null) {
+            double latitude = region.getCenterLatitude().doubleValue();
+            double longitude = region.getCenterLongitude().doubleValue();
+            if (isValidCoordinate(longitude, latitude)) {
+                regionCenters.put(region.getId(), new double[]{latitude, longitude});
+            }
+        }
+    }
+    
     /**
      * 验证坐标是否在合理范围内
      */
@@ -73,6 +103,7 @@ public class LogisticsNetwork {
      */
     public void addEdge(Long fromStationId, Long toStationId, Double distance, 
                         Integer travelTime, Double transportCost) {
+        ensureMutable();
         if (fromStationId == null || toStationId == null || distance == null) {
             return;
         }
@@ -109,16 +140,13 @@ public class LogisticsNetwork {
      * 添加直线距离
      */
     public void addDirectDistance(Long stationId1, Long stationId2, Double distance) {
+        ensureMutable();
         if (stationId1 == null || stationId2 == null || distance == null) {
             return;
         }
         
-        // 存储两个方向的键
-        String key1 = getDirectDistanceKey(stationId1, stationId2);
-        String key2 = getDirectDistanceKey(stationId2, stationId1);
-        
-        directDistanceMap.put(key1, distance);
-        directDistanceMap.put(key2, distance); // 对称存储
+        directDistanceMap.computeIfAbsent(stationId1, k -> new HashMap<>()).put(stationId2, distance);
+        directDistanceMap.computeIfAbsent(stationId2, k -> new HashMap<>()).put(stationId1, distance); // 对称存储
     }
     
     /**
@@ -158,13 +186,12 @@ public class LogisticsNetwork {
      * 获取两站点间直线距离，并应用校正系数
      */
     public double getDirectDistance(Long fromStationId, Long toStationId) {
-        String key = getDirectDistanceKey(fromStationId, toStationId);
-        
-        // 检查缓存中是否存在
-        if (directDistanceMap.containsKey(key)) {
+        // 检查直线距离表中是否存在
+        Map<Long, Double> targets = directDistanceMap.get(fromStationId);
+        Double recorded = targets != null ? targets.get(toStationId) : null;
+        if (recorded != null) {
             // 应用校正系数 (根据直线距离范围采用不同系数)
-            double directDistance = directDistanceMap.get(key);
-            return applyDistanceCorrection(directDistance);
+            return applyDistanceCorrection(recorded);
         }
         
         // 如果没有直线距离记录，尝试通过经纬度计算
@@ -175,17 +202,13 @@ public class LogisticsNetwork {
             fromStation.getLongitude() != null && fromStation.getLatitude() != null &&
             toStation.getLongitude() != null && toStation.getLatitude() != null) {
             
-            double distance = calculateHaversineDistance(
+            double distance = haversineDistance(
                 fromStation.getLatitude().doubleValue(),
                 fromStation.getLongitude().doubleValue(),
                 toStation.getLatitude().doubleValue(),
                 toStation.getLongitude().doubleValue()
             );
             
-            // 缓存计算结果
-            directDistanceMap.put(key, distance);
-            directDistanceMap.put(getDirectDistanceKey(toStationId, fromStationId), distance);
-            
             return applyDistanceCorrection(distance);
         }
         
@@ -201,7 +224,7 @@ public class LogisticsNetwork {
      * - 中等距离(10-50km): 中等系数
      * - 长距离(>50km): 系数较小，因为高速公路较直
      */
-    private double applyDistanceCorrection(double directDistance) {
+    static double applyDistanceCorrection(double directDistance) {
         if (directDistance < 10.0) {
             return directDistance * 1.4; // 短距离校正系数1.4
         } else if (directDistance < 50.0) {
@@ -211,17 +234,10 @@ public class LogisticsNetwork {
         }
     }
     
-    /**
-     * 生成直线距离的键
-     */
-    private String getDirectDistanceKey(Long stationId1, Long stationId2) {
-        return stationId1 + "-" + stationId2;
-    }
-    
     /**
      * 使用Haversine公式计算两点间的距离（公里）
      */
-    private double calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
+    static double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
         int earthRadius = 6371; // 地球半径，单位：公里
         
         double dLat = Math.toRadians(lat2 - lat1);
@@ -256,9 +272,24 @@ public class LogisticsNetwork {
     
     /**
      * 判断是否为枢纽站点（修改）
+     * 编译后直接读取预先计算的枢纽标记，不再写入缓存
      */
     public boolean isHubStation(Long stationId) {
-        // 首先检查缓存
+        if (stationId == null) {
+            return false;
+        }
+        CompiledGraph graph = compiledGraph;
+        if (graph != null) {
+            int index = graph.indexOf(stationId);
+            return index >= 0 && graph.isHub(index);
+        }
+        return evaluateHubStation(stationId);
+    }
+    
+    /**
+     * 按识别条件判断枢纽站点，编译时对每个站点计算一次
+     */
+    private boolean evaluateHubStation(Long stationId) {
         if (hubStations.contains(stationId)) {
             return true;
         }
@@ -280,16 +311,21 @@ public class LogisticsNetwork {
             int connectionCount = getAdjacentEdges(stationId).size();
             boolean connectionCondition = connectionCount >= 5;  // 连接至少5个其他站点
             
-            if (codeCondition || nameCondition || connectionCondition) {
-                // 添加到缓存
-                hubStations.add(stationId);
-                return true;
-            }
+            return codeCondition || nameCondition || connectionCondition;
         }
         
         return false;
     }
     
+    /**
+     * 编译后禁止修改网络
+     */
+    private void ensureMutable() {
+        if (compiledGraph != null) {
+            throw new IllegalStateException("物流网络已编译为只读快照，不能再修改");
+        }
+    }
+    
     /**
      * 分析物流网络完整性（新增）
      * 用于系统启动时验证网络构建是否正确
@@ -388,6 +424,56 @@ public class LogisticsNetwork {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 获取快照版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * 设置快照版本号
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * 获取紧凑图表示，首次调用时编译
+     * 需在站点、路线和直线距离全部加入后调用，编译后网络不应再修改
+     */
+    public CompiledGraph getCompiledGraph() {
+        CompiledGraph graph = compiledGraph;
+        if (graph == null) {
+            synchronized (this) {
+                graph = compiledGraph;
+                if (graph == null) {
+                    graph = new CompiledGraph(stationMap, adjacencyList, directDistanceMap, this::evaluateHubStation);
+                    compiledGraph = graph;
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * 获取区域层叠加图，首次调用时构建
+     * 与紧凑图一样随快照构建一次，跨区域查询复用其中的区域连通关系和区域间距离
+     */
+    public RegionOverlayGraph getRegionOverlay() {
+        RegionOverlayGraph overlay = regionOverlay;
+        if (overlay == null) {
+            synchronized (this) {
+                overlay = regionOverlay;
+                if (overlay == null) {
+                    overlay = RegionOverlayGraph.build(getCompiledGraph(), regionCenters);
+                    regionOverlay = overlay;
+                }
+            }
+        }
+        return overlay;
+    }
+
     /**
      * 获取所有站点
      */
@@ -400,6 +486,7 @@ public class LogisticsNetwork {
      * 这个方法应在初始化网络后调用，以确保所有区域中转站之间能够直接通行
      */
     public void ensureHubStationsConnectivity() {
+        ensureMutable();
         if (hubStations.isEmpty()) {
             log.warn("系统中没有标记任何枢纽站点，无法确保枢纽站点连通性");
             return;
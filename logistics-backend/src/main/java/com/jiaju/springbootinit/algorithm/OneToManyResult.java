@@ -0,0 +1,48 @@
+package com.jiaju.springbootinit.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * 一对多最短路结果，按目标下标存放综合代价、距离和时间，不可达的目标代价为正无穷
+ */
+public final class OneToManyResult {
+
+    private final double[] costs;
+
+    private final double[] distances;
+
+    private final int[] times;
+
+    OneToManyResult(int targetCount) {
+        this.costs = new double[targetCount];
+        this.distances = new double[targetCount];
+        this.times = new int[targetCount];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+    }
+
+    void set(int index, double cost, double distance, int time) {
+        costs[index] = cost;
+        distances[index] = distance;
+        times[index] = time;
+    }
+
+    public int getTargetCount() {
+        return costs.length;
+    }
+
+    public boolean isReachable(int index) {
+        return !Double.isInfinite(costs[index]);
+    }
+
+    public double getCost(int index) {
+        return costs[index];
+    }
+
+    public double getDistance(int index) {
+        return distances[index];
+    }
+
+    public int getTime(int index) {
+        return times[index];
+    }
+}
@@ -0,0 +1,398 @@
+package com.jiaju.springbootinit.algorithm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 区域层叠加图
+ * 每个区域为一个节点，两区域之间存在跨区域线路且互为地理近邻时连一条弧，弧权为两区域枢纽（无枢纽时为全部站点）间的平均直线距离；
+ * 同时按区域对登记枢纽之间的跨区域边界边。随网络快照构建一次，之后只读，可被多个线程并发查询
+ */
+public final class RegionOverlayGraph {
+    private static final Logger log = LoggerFactory.getLogger(RegionOverlayGraph.class);
+
+    /**
+     * 每个区域参与连通判断的最近邻区域数
+     */
+    private static final int MAX_GEOGRAPHIC_NEIGHBORS = 5;
+
+    /**
+     * 区域搜索中地理启发值的系数
+     */
+    private static final double HEURISTIC_FACTOR = 0.5;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final CompiledGraph graph;
+
+    private final int regionCount;
+
+    /**
+     * 区域中心坐标，优先取区域表配置的中心点，未配置时取区域内站点坐标均值，均无时为 NaN
+     */
+    private final double[] centerLatitudes;
+    private final double[] centerLongitudes;
+
+    /**
+     * 区域下标 -> 区域内站点 / 枢纽节点
+     */
+    private final int[][] regionStations;
+    private final int[][] regionHubs;
+
+    /**
+     * 区域弧（CSR）
+     */
+    private final int[] arcOffsets;
+    private final int[] arcTargets;
+    private final double[] arcWeights;
+
+    /**
+     * (起点区域, 终点区域) -> 两区域枢纽之间的边界边
+     */
+    private final Map<Long, int[]> borderHubEdges = new HashMap<>();
+
+    /**
+     * 区域路径只取决于起止区域，按区域对缓存
+     */
+    private final Map<Long, List<Long>> regionPathCache = new ConcurrentHashMap<>();
+
+    private final long buildMillis;
+
+    private RegionOverlayGraph(CompiledGraph graph, Map<Long, double[]> configuredCenters) {
+        long startTime = System.currentTimeMillis();
+        this.graph = graph;
+        this.regionCount = graph.getRegionCount();
+        int nodeCount = graph.getNodeCount();
+
+        // 按区域归集站点与枢纽
+        int[] stationCounts = new int[regionCount];
+        int[] hubCounts = new int[regionCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int region = graph.getRegionIndex(node);
+            if (region >= 0) {
+                stationCounts[region]++;
+                if (graph.isHub(node)) {
+                    hubCounts[region]++;
+                }
+            }
+        }
+        this.regionStations = new int[regionCount][];
+        this.regionHubs = new int[regionCount][];
+        for (int region = 0; region < regionCount; region++) {
+            regionStations[region] = new int[stationCounts[region]];
+            regionHubs[region] = new int[hubCounts[region]];
+            stationCounts[region] = 0;
+            hubCounts[region] = 0;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            int region = graph.getRegionIndex(node);
+            if (region >= 0) {
+                regionStations[region][stationCounts[region]++] = node;
+                if (graph.isHub(node)) {
+                    regionHubs[region][hubCounts[region]++] = node;
+                }
+            }
+        }
+
+        // 区域中心
+        this.centerLatitudes = new double[regionCount];
+        this.centerLongitudes = new double[regionCount];
+        for (int region = 0; region < regionCount; region++) {
+            double[] center = configuredCenters != null ? configuredCenters.get(graph.getRegionId(region)) : null;
+            if (center != null) {
+                centerLatitudes[region] = center[0];
+                centerLongitudes[region] = center[1];
+                continue;
+            }
+            double totalLat = 0.0;
+            double totalLon = 0.0;
+            int validCount = 0;
+            for (int node : regionStations[region]) {
+                if (!Double.isNaN(graph.getLatitude(node))) {
+                    totalLat += graph.getLatitude(node);
+                    totalLon += graph.getLongitude(node);
+                    validCount++;
+                }
+            }
+            centerLatitudes[region] = validCount > 0 ? totalLat / validCount : Double.NaN;
+            centerLongitudes[region] = validCount > 0 ? totalLon / validCount : Double.NaN;
+        }
+
+        // 一次扫描全部边，得到有线路相连的区域对及枢纽间边界边
+        Set<Long> connectedPairs = new HashSet<>();
+        Map<Long, List<Integer>> borderEdgeLists = new HashMap<>();
+        for (int u = 0; u < nodeCount; u++) {
+            int fromRegion = graph.getRegionIndex(u);
+            if (fromRegion < 0) {
+                continue;
+            }
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.edgeTarget(e);
+                if (v < 0) {
+                    continue;
+                }
+                int toRegion = graph.getRegionIndex(v);
+                if (toRegion < 0 || toRegion == fromRegion) {
+                    continue;
+                }
+                long key = pairKey(fromRegion, toRegion);
+                connectedPairs.add(key);
+                if (graph.isHub(u) && graph.isHub(v)) {
+                    borderEdgeLists.computeIfAbsent(key, k -> new ArrayList<>()).add(e);
+                }
+            }
+        }
+        for (Map.Entry<Long, List<Integer>> entry : borderEdgeLists.entrySet()) {
+            List<Integer> edges = entry.getValue();
+            int[] edgeArray = new int[edges.size()];
+            for (int i = 0; i < edgeArray.length; i++) {
+                edgeArray[i] = edges.get(i);
+            }
+            borderHubEdges.put(entry.getKey(), edgeArray);
+        }
+
+        // 区域弧：只在地理上最近的几个区域中挑选有线路相连的区域，无中心坐标的区域考察全部区域
+        this.arcOffsets = new int[regionCount + 1];
+        List<Integer> targets = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (int from = 0; from < regionCount; from++) {
+            arcOffsets[from] = targets.size();
+            for (int to : candidateNeighbors(from)) {
+                if (connectedPairs.contains(pairKey(from, to))) {
+                    targets.add(to);
+                    weights.add(regionDistance(from, to));
+                }
+            }
+        }
+        arcOffsets[regionCount] = targets.size();
+        this.arcTargets = new int[targets.size()];
+        this.arcWeights = new double[targets.size()];
+        for (int i = 0; i < arcTargets.length; i++) {
+            arcTargets[i] = targets.get(i);
+            arcWeights[i] = weights.get(i);
+        }
+        this.buildMillis = System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * 基于紧凑图构建区域层叠加图
+     *
+     * @param graph             紧凑图
+     * @param configuredCenters 区域ID -> 配置的中心点 {纬度, 经度}，可为 null
+     * @return 区域层叠加图
+     */
+    public static RegionOverlayGraph build(CompiledGraph graph, Map<Long, double[]> configuredCenters) {
+        RegionOverlayGraph overlay = new RegionOverlayGraph(graph, configuredCenters);
+        log.info("区域层叠加图构建完成: 区域数={}, 区域弧数={}, 边界区域对={}, 耗时={}毫秒",
+                overlay.regionCount, overlay.arcTargets.length, overlay.borderHubEdges.size(), overlay.buildMillis);
+        return overlay;
+    }
+
+    /**
+     * 查找区域间的最短路径
+     * 在区域弧上执行带地理启发的Dijkstra；目标区域不可达时退回到最接近目标的可达区域再直达目标
+     *
+     * @param sourceRegionId 起点区域ID
+     * @param targetRegionId 终点区域ID
+     * @return 依次经过的区域ID，返回的列表不可修改
+     */
+    public List<Long> findRegionPath(Long sourceRegionId, Long targetRegionId) {
+        if (sourceRegionId.equals(targetRegionId)) {
+            return Collections.singletonList(sourceRegionId);
+        }
+        int source = graph.regionIndexOf(sourceRegionId);
+        int target = graph.regionIndexOf(targetRegionId);
+        if (source < 0 || target < 0) {
+            return Collections.unmodifiableList(Arrays.asList(sourceRegionId, targetRegionId));
+        }
+        long key = pairKey(source, target);
+        List<Long> path = regionPathCache.get(key);
+        if (path == null) {
+            path = Collections.unmodifiableList(searchRegionPath(source, target));
+            regionPathCache.put(key, path);
+        }
+        return path;
+    }
+
+    private List<Long> searchRegionPath(int source, int target) {
+        double[] distances = new double[regionCount];
+        int[] prev = new int[regionCount];
+        boolean[] settled = new boolean[regionCount];
+        Arrays.fill(distances, Double.MAX_VALUE);
+        Arrays.fill(prev, -1);
+        IndexedMinHeap heap = new IndexedMinHeap(regionCount);
+        distances[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            settled[current] = true;
+            if (current == target) {
+                break;
+            }
+            for (int a = arcOffsets[current]; a < arcOffsets[current + 1]; a++) {
+                int neighbor = arcTargets[a];
+                if (settled[neighbor]) {
+                    continue;
+                }
+                double newDistance = distances[current] + arcWeights[a];
+                if (newDistance < distances[neighbor]) {
+                    distances[neighbor] = newDistance;
+                    prev[neighbor] = current;
+                    heap.insertOrDecrease(neighbor, newDistance + centerDistance(neighbor, target) * HEURISTIC_FACTOR);
+                }
+            }
+        }
+
+        List<Long> path = new ArrayList<>();
+        if (prev[target] < 0) {
+            log.warn("无法找到从区域{}到区域{}的完整路径", graph.getRegionId(source), graph.getRegionId(target));
+            int closest = findClosestReachableRegion(target, distances);
+            if (closest >= 0 && closest != source) {
+                log.info("使用最接近的可达区域: {}", graph.getRegionId(closest));
+                for (int region = closest; region >= 0; region = prev[region]) {
+                    path.add(graph.getRegionId(region));
+                }
+                Collections.reverse(path);
+                path.add(graph.getRegionId(target));
+                return path;
+            }
+            path.add(graph.getRegionId(source));
+            path.add(graph.getRegionId(target));
+            return path;
+        }
+        for (int region = target; region >= 0; region = prev[region]) {
+            path.add(graph.getRegionId(region));
+        }
+        Collections.reverse(path);
+        log.debug("找到区域路径: {} (长度: {})", path, path.size());
+        return path;
+    }
+
+    /**
+     * 找到最接近目标区域的可达区域，综合已知路径距离和到目标的地理距离
+     */
+    private int findClosestReachableRegion(int target, double[] distances) {
+        int closest = -1;
+        double minScore = Double.MAX_VALUE;
+        for (int region = 0; region < regionCount; region++) {
+            if (region == target || distances[region] >= Double.MAX_VALUE) {
+                continue;
+            }
+            double distanceToTarget = hasCenter(region) && hasCenter(target)
+                    ? centerDistance(region, target) : regionDistance(region, target);
+            double score = distances[region] * 0.3 + distanceToTarget * 0.7;
+            if (score < minScore) {
+                minScore = score;
+                closest = region;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * 地理上最近的若干区域；自身无中心坐标时返回其余全部区域
+     */
+    private int[] candidateNeighbors(int region) {
+        if (!hasCenter(region)) {
+            int[] all = new int[Math.max(0, regionCount - 1)];
+            int k = 0;
+            for (int other = 0; other < regionCount; other++) {
+                if (other != region) {
+                    all[k++] = other;
+                }
+            }
+            return all;
+        }
+        List<Integer> others = new ArrayList<>();
+        for (int other = 0; other < regionCount; other++) {
+            if (other != region && hasCenter(other)) {
+                others.add(other);
+            }
+        }
+        others.sort(Comparator.comparingDouble(other -> centerDistance(region, other)));
+        int size = Math.min(MAX_GEOGRAPHIC_NEIGHBORS, others.size());
+        int[] nearest = new int[size];
+        for (int i = 0; i < size; i++) {
+            nearest[i] = others.get(i);
+        }
+        return nearest;
+    }
+
+    /**
+     * 两区域间距离：两区域都有枢纽时取枢纽两两之间的平均直线距离，否则取全部站点
+     */
+    private double regionDistance(int from, int to) {
+        int[] fromNodes = regionHubs[from];
+        int[] toNodes = regionHubs[to];
+        if (fromNodes.length == 0 || toNodes.length == 0) {
+            fromNodes = regionStations[from];
+            toNodes = regionStations[to];
+        }
+        if (fromNodes.length == 0 || toNodes.length == 0) {
+            return Double.MAX_VALUE;
+        }
+        double totalDistance = 0.0;
+        for (int u : fromNodes) {
+            for (int v : toNodes) {
+                totalDistance += graph.directDistance(u, v);
+            }
+        }
+        return totalDistance / ((double) fromNodes.length * toNodes.length);
+    }
+
+    private boolean hasCenter(int region) {
+        return !Double.isNaN(centerLatitudes[region]);
+    }
+
+    /**
+     * 两区域中心的球面距离，任一方无中心坐标时返回 0
+     */
+    private double centerDistance(int from, int to) {
+        if (!hasCenter(from) || !hasCenter(to)) {
+            return 0.0;
+        }
+        return LogisticsNetwork.haversineDistance(centerLatitudes[from], centerLongitudes[from],
+                centerLatitudes[to], centerLongitudes[to]);
+    }
+
+    /**
+     * 区域内的枢纽节点，区域不存在时返回空数组
+     */
+    public int[] getRegionHubs(Long regionId) {
+        int region = regionId != null ? graph.regionIndexOf(regionId) : -1;
+        return region >= 0 ? regionHubs[region] : EMPTY;
+    }
+
+    /**
+     * 从起点区域枢纽直达终点区域枢纽的边界边，没有时返回空数组
+     */
+    public int[] getBorderHubEdges(Long fromRegionId, Long toRegionId) {
+        int from = graph.regionIndexOf(fromRegionId);
+        int to = graph.regionIndexOf(toRegionId);
+        if (from < 0 || to < 0) {
+            return EMPTY;
+        }
+        int[] edges = borderHubEdges.get(pairKey(from, to));
+        return edges != null ? edges : EMPTY;
+    }
+
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    public int getArcCount() {
+        return arcTargets.length;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    private static long pairKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+}
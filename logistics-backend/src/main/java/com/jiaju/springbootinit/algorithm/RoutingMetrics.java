@@ -0,0 +1,108 @@
+package com.jiaju.springbootinit.algorithm;
+
+import com.jiaju.springbootinit.utils.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路径搜索内部指标
+ * 搜索器不是 Spring Bean，按搜索类型在进程内静态汇总；搜索过程中只累加局部变量，结束时写入一次
+ */
+public final class RoutingMetrics {
+
+    /**
+     * 搜索类型
+     */
+    public enum SearchType {
+
+        ASTAR("astar"),
+        BIDIRECTIONAL("bidirectional"),
+        CH("ch"),
+        TREE("tree");
+
+        private final String value;
+
+        SearchType(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private static final SearchStats[] STATS = new SearchStats[SearchType.values().length];
+
+    static {
+        for (int i = 0; i < STATS.length; i++) {
+            STATS[i] = new SearchStats();
+        }
+    }
+
+    private RoutingMetrics() {
+    }
+
+    /**
+     * 记录一次搜索
+     *
+     * @param type         搜索类型
+     * @param iterations   出堆（扩展）的节点数
+     * @param nodesReached 被标记到达的节点数
+     * @param elapsedNanos 耗时（纳秒）
+     * @param found        是否找到路径
+     */
+    public static void recordSearch(SearchType type, int iterations, int nodesReached, long elapsedNanos,
+                                    boolean found) {
+        SearchStats stats = STATS[type.ordinal()];
+        stats.searchCount.increment();
+        if (!found) {
+            stats.failureCount.increment();
+        }
+        stats.iterations.add(iterations);
+        stats.nodesReached.add(nodesReached);
+        stats.latency.record(elapsedNanos / 1000L);
+    }
+
+    /**
+     * 获取指定搜索类型的累计指标
+     */
+    public static SearchStats getStats(SearchType type) {
+        return STATS[type.ordinal()];
+    }
+
+    /**
+     * 单类搜索的累计指标
+     */
+    public static final class SearchStats {
+
+        private final LongAdder searchCount = new LongAdder();
+
+        private final LongAdder failureCount = new LongAdder();
+
+        private final LongAdder iterations = new LongAdder();
+
+        private final LongAdder nodesReached = new LongAdder();
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        public long getSearchCount() {
+            return searchCount.sum();
+        }
+
+        public long getFailureCount() {
+            return failureCount.sum();
+        }
+
+        public long getIterations() {
+            return iterations.sum();
+        }
+
+        public long getNodesReached() {
+            return nodesReached.sum();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+}
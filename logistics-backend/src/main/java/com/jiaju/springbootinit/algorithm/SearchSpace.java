@@ -0,0 +1,132 @@
+package com.jiaju.springbootinit.algorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * 单线程复用的最短路搜索工作区
+ * 按线程缓存 g 值、启发值、前驱和开放列表等数组，通过纪元戳区分本次搜索写入的数据，
+ * 每次搜索无需清空数组，也不产生对象分配。实例只能在获取它的线程内使用。
+ * 路径计算线程池和预计算线程长期持有工作区；Web 请求线程在请求结束后把工作区归还到有界的共享池
+ * （见 SearchSpaceInterceptor），下一个请求线程直接取用，既保留复用，又避免每个容器线程都保留一份
+ * 与节点数同规模的数组
+ */
+public final class SearchSpace {
+
+    private static final ThreadLocal<SearchSpace> LOCAL = new ThreadLocal<>();
+
+    // 双向搜索中反向一侧使用的工作区
+    private static final ThreadLocal<SearchSpace> LOCAL_BACKWARD = new ThreadLocal<>();
+
+    // 已归还的空闲工作区，池满时丢弃；正反两侧共用
+    private static final ArrayBlockingQueue<SearchSpace> IDLE =
+            new ArrayBlockingQueue<>(Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+
+    // 实际代价 g(n)
+    final double[] actualCost;
+
+    // 启发值 h(n)
+    final double[] heuristic;
+
+    // 前驱节点
+    final int[] previous;
+
+    // 到达该节点所经过的边
+    final int[] previousEdge;
+
+    // 开放列表
+    final IndexedMinHeap openList;
+
+    // 节点首次被访问时的纪元戳
+    private final int[] visitedStamps;
+
+    // 节点被关闭时的纪元戳
+    private final int[] closedStamps;
+
+    private int epoch;
+
+    private SearchSpace(int capacity) {
+        this.actualCost = new double[capacity];
+        this.heuristic = new double[capacity];
+        this.previous = new int[capacity];
+        this.previousEdge = new int[capacity];
+        this.openList = new IndexedMinHeap(capacity);
+        this.visitedStamps = new int[capacity];
+        this.closedStamps = new int[capacity];
+    }
+
+    /**
+     * 获取当前线程的工作区并开始一次新的搜索，容量不足时重新分配
+     */
+    static SearchSpace acquire(int nodeCount) {
+        return acquire(LOCAL, nodeCount);
+    }
+
+    /**
+     * 获取当前线程用于双向搜索反向一侧的工作区，可与 acquire 返回的工作区同时使用
+     */
+    static SearchSpace acquireBackward(int nodeCount) {
+        return acquire(LOCAL_BACKWARD, nodeCount);
+    }
+
+    private static SearchSpace acquire(ThreadLocal<SearchSpace> local, int nodeCount) {
+        SearchSpace space = local.get();
+        if (space == null) {
+            space = IDLE.poll();
+        }
+        if (space == null || space.openList.capacity() < nodeCount) {
+            space = new SearchSpace(nodeCount);
+        }
+        local.set(space);
+        space.begin();
+        return space;
+    }
+
+    /**
+     * 把当前线程持有的工作区归还到共享池，池满时直接丢弃
+     */
+    public static void releaseCurrentThread() {
+        release(LOCAL);
+        release(LOCAL_BACKWARD);
+    }
+
+    private static void release(ThreadLocal<SearchSpace> local) {
+        SearchSpace space = local.get();
+        if (space != null) {
+            local.remove();
+            IDLE.offer(space);
+        }
+    }
+
+    private void begin() {
+        openList.clear();
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visitedStamps, 0);
+            Arrays.fill(closedStamps, 0);
+            epoch = 1;
+        }
+    }
+
+    boolean isVisited(int node) {
+        return visitedStamps[node] == epoch;
+    }
+
+    /**
+     * 首次访问节点，初始化其搜索状态
+     */
+    void visit(int node, double cost, double h, int previousNode, int edge) {
+        visitedStamps[node] = epoch;
+        actualCost[node] = cost;
+        heuristic[node] = h;
+        previous[node] = previousNode;
+        previousEdge[node] = edge;
+    }
+
+    boolean isClosed(int node) {
+        return closedStamps[node] == epoch;
+    }
+
+    void close(int node) {
+        closedStamps[node] = epoch;
+    }
+}
@@ -1,28 +1,32 @@
 package com.jiaju.springbootinit.aop;
 
 import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.config.RequestLogConfig;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.RequestMetricsManager;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.StopWatch;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import javax.annotation.Resource;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
-import java.util.Arrays;
-import java.util.List;
-import java.util.UUID;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.jiaju.springbootinit.constant.UserConstant.USER_LOGIN_STATE;
 
 /**
  * 请求响应日志和登录校验 AOP
+ * 耗时按接口记入延迟直方图，不再逐请求输出 INFO 日志；参数仅在 DEBUG 级别渲染并截断，慢请求输出 WARN
  **/
 @Aspect
 @Component
@@ -30,105 +34,70 @@ import static com.jiaju.springbootinit.constant.UserConstant.USER_LOGIN_STATE;
 public class LogInterceptor {
 
     /**
-     * 允许未登录访问的接口列表
+     * 允许未登录访问的接口路径后缀（已包含 /api 等上下文前缀的情况）
      */
-    private static final List<String> WHITE_LIST = Arrays.asList(
+    private static final String[] WHITE_LIST_SUFFIXES = {
             "/user/login",
             "/user/register",
-            "/api/user/login",
-            "/api/user/register",
-            "/**/user/login",
-            "/**/user/register",
-            "/",
-            "/welcome"
-    );
-    
+            "/welcome",
+            "/metrics"
+    };
+
+    /**
+     * 请求ID前缀，取启动时间，区分不同进程生成的序号
+     */
+    private static final String REQUEST_ID_PREFIX = Long.toString(System.currentTimeMillis(), 36) + "-";
+
     /**
-     * 路径匹配器
+     * 请求序号，单调递增
      */
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private static final AtomicLong REQUEST_SEQUENCE = new AtomicLong();
+
+    @Resource
+    private RequestMetricsManager requestMetricsManager;
+
+    @Resource
+    private RequestLogConfig requestLogConfig;
 
     /**
      * 执行拦截
      */
     @Around("execution(* com.jiaju.springbootinit.controller.*.*(..))")
     public Object doInterceptor(ProceedingJoinPoint point) throws Throwable {
-        // 计时
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
-        
+        long startNanos = System.nanoTime();
+        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest httpServletRequest = ((ServletRequestAttributes) requestAttributes).getRequest();
+        String url = httpServletRequest.getRequestURI();
+        long requestId = REQUEST_SEQUENCE.incrementAndGet();
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        requestMetricsManager.requestStarted(method);
+
+        boolean error = true;
         try {
-            // 获取请求路径
-            RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
-            HttpServletRequest httpServletRequest = ((ServletRequestAttributes) requestAttributes).getRequest();
-            // 生成请求唯一 id
-            String requestId = UUID.randomUUID().toString();
-            
-            // 获取请求的完整信息
-            String url = httpServletRequest.getRequestURI();
-            String contextPath = httpServletRequest.getContextPath();
-            String servletPath = httpServletRequest.getServletPath();
-            String method = httpServletRequest.getMethod();
-            
-            // 输出请求URI，帮助调试
-            log.info("Received request: {} {} with URI: {}", requestId, method, url);
-            log.info("Context Path: {}, Servlet Path: {}", contextPath, servletPath);
-            
-            // 尝试所有可能的路径格式
-            String[] pathsToCheck = new String[] {
-                url,
-                servletPath,
-                url.startsWith("/") ? url.substring(1) : url,
-                servletPath.startsWith("/") ? servletPath.substring(1) : servletPath,
-                contextPath + (servletPath.startsWith("/") ? servletPath : "/" + servletPath)
-            };
-            
-            // 检查是否在白名单中
-            boolean isInWhiteList = false;
-            for (String path : pathsToCheck) {
-                if (StringUtils.isNotBlank(path)) {
-                    if (isWhiteListUrl(path)) {
-                        isInWhiteList = true;
-                        log.info("Path {} is in whitelist", path);
-                        break;
-                    }
-                }
+            // 登录校验 - 如果不是白名单接口，检查是否已登录
+            if (!isWhiteListUrl(url)
+                    && httpServletRequest.getSession().getAttribute(USER_LOGIN_STATE) == null) {
+                throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
             }
-            
-            // 登录校验逻辑 - 如果不是白名单接口，检查是否已登录
-            if (!isInWhiteList) {
-                log.info("URI not in whitelist, checking login state");
-                Object userObj = httpServletRequest.getSession().getAttribute(USER_LOGIN_STATE);
-                log.info("Session user object exists: {}", userObj != null);
-                if (userObj == null) {
-                    log.error("User not logged in, throwing exception");
-                    throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
-                }
-            } else {
-                log.info("URI in whitelist, skipping login check");
+            if (log.isDebugEnabled()) {
+                log.debug("Request start, id: {}{}, {} {}, ip: {}, params: {}", REQUEST_ID_PREFIX, requestId,
+                        httpServletRequest.getMethod(), url, httpServletRequest.getRemoteAddr(),
+                        renderArgs(point.getArgs()));
             }
-    
-            // 获取请求参数
-            Object[] args = point.getArgs();
-            String reqParam = "[" + StringUtils.join(args, ", ") + "]";
-            // 输出请求日志
-            log.info("Request proceeding, id: {}, path: {}, ip: {}, params: {}", requestId, url,
-                    httpServletRequest.getRemoteHost(), reqParam);
-            // 执行原方法
             Object result = point.proceed();
-            // 输出响应日志
-            stopWatch.stop();
-            long totalTimeMillis = stopWatch.getTotalTimeMillis();
-            log.info("Request completed, id: {}, cost: {}ms", requestId, totalTimeMillis);
+            error = false;
             return result;
-        } catch (BusinessException e) {
-            stopWatch.stop();
-            log.error("Business exception during request processing: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            stopWatch.stop();
-            log.error("Exception during request processing", e);
-            throw e;
+        } finally {
+            // 异常由全局异常处理器记录，这里只统计耗时和异常次数
+            long elapsedNanos = System.nanoTime() - startNanos;
+            requestMetricsManager.requestCompleted(method, elapsedNanos, error);
+            long costMillis = elapsedNanos / 1_000_000L;
+            if (costMillis >= requestLogConfig.getSlowThresholdMillis()) {
+                log.warn("Slow request, id: {}{}, path: {}, cost: {}ms", REQUEST_ID_PREFIX, requestId, url, costMillis);
+            } else if (log.isDebugEnabled()) {
+                log.debug("Request completed, id: {}{}, cost: {}ms, error: {}", REQUEST_ID_PREFIX, requestId,
+                        costMillis, error);
+            }
         }
     }
 
@@ -142,36 +111,42 @@ public class LogInterceptor {
         if (requestURI == null) {
             return false;
         }
-        
-        // 清理URI
-        String cleanUri = requestURI;
-        // 移除查询参数
-        int queryIdx = cleanUri.indexOf('?');
-        if (queryIdx > 0) {
-            cleanUri = cleanUri.substring(0, queryIdx);
+        if ("/".equals(requestURI)) {
+            return true;
         }
-        
-        log.info("Checking if URI is in whitelist: {}", cleanUri);
-        
-        // 遍历白名单，检查每个白名单路径是否匹配
-        for (String whiteUrl : WHITE_LIST) {
-            // 使用Spring的路径匹配器进行匹配
-            boolean matches = pathMatcher.match(whiteUrl, cleanUri);
-            log.info("Checking pattern: {} against URI: {}, matches: {}", whiteUrl, cleanUri, matches);
-            
-            if (matches) {
-                return true;
-            }
-            
-            // 额外检查是否是结尾部分匹配
-            if (cleanUri.endsWith(whiteUrl)) {
-                log.info("URI ends with whitelist pattern: {}", whiteUrl);
+        for (String suffix : WHITE_LIST_SUFFIXES) {
+            if (requestURI.endsWith(suffix)) {
                 return true;
             }
         }
-        
-        log.info("URI did not match any whitelist pattern");
         return false;
     }
-}
 
+    /**
+     * 渲染请求参数，跳过请求/响应和文件对象，单个参数按配置长度截断
+     *
+     * @param args 控制器方法参数
+     * @return 参数描述
+     */
+    private String renderArgs(Object[] args) {
+        int maxLength = Math.max(16, requestLogConfig.getMaxParamLength());
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            Object arg = args[i];
+            if (arg instanceof ServletRequest || arg instanceof ServletResponse || arg instanceof InputStreamSource) {
+                sb.append('<').append(arg.getClass().getSimpleName()).append('>');
+                continue;
+            }
+            String text = String.valueOf(arg);
+            if (text.length() > maxLength) {
+                sb.append(text, 0, maxLength).append("...(").append(text.length()).append(" chars)");
+            } else {
+                sb.append(text);
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
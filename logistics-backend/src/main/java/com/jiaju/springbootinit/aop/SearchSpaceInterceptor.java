@@ -0,0 +1,28 @@
+package com.jiaju.springbootinit.aop;
+
+import com.jiaju.springbootinit.algorithm.SearchSpace;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 路径搜索工作区释放拦截器
+ * 请求处理结束（或转入异步处理）后把容器线程上的搜索工作区归还到共享池，供后续请求复用
+ */
+@Component
+public class SearchSpaceInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SearchSpace.releaseCurrentThread();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        SearchSpace.releaseCurrentThread();
+    }
+}
@@ -0,0 +1,32 @@
+package com.jiaju.springbootinit.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 收缩层次索引与路径引擎配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "routing.ch")
+@Data
+public class ContractionHierarchyConfig {
+
+    /**
+     * 是否在网络快照发布后构建收缩层次索引
+     */
+    private boolean enabled = false;
+
+    /**
+     * 请求未指定时使用的路径引擎：astar / ch
+     */
+    private String defaultEngine = "astar";
+
+    /**
+     * 需要构建索引的权重组合，格式为“距离权重,时间权重,成本权重”，每组分别构建强制与不强制区域中转两份索引
+     */
+    private List<String> profiles = new ArrayList<>(Arrays.asList("0.5,0.4,0.1", "0.7,0.2,0.1", "0.5,0.3,0.2"));
+}
@@ -0,0 +1,65 @@
+package com.jiaju.springbootinit.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 自动调度（任务与车辆、司机匹配）配置
+ * 候选组合的代价 = 空驶距离 × 每公里代价 × 距离因子 + (空驶时间 + 迟到时间 × 迟到系数) × 每分钟代价 × 时间因子
+ * + 闲置运力代价 × 载重因子，其中各因子取自所选调度规则，未指定规则时为 1
+ */
+@Configuration
+@ConfigurationProperties(prefix = "dispatch")
+@Data
+public class DispatchConfig {
+
+    /**
+     * 单次调度处理的最大待分配任务数（不超过批量分配上限）
+     */
+    private int maxTasks = 500;
+
+    /**
+     * 单次调度参与匹配的最大空闲车辆数
+     */
+    private int maxVehicles = 1000;
+
+    /**
+     * 空驶路径矩阵计算超时时间（毫秒）
+     */
+    private long routeTimeoutMillis = 3000;
+
+    /**
+     * 空驶每公里代价
+     */
+    private double distanceCostPerKm = 1.0;
+
+    /**
+     * 空驶每分钟代价
+     */
+    private double timeCostPerMinute = 0.5;
+
+    /**
+     * 到达起点晚于任务计划开始时间时，每迟到一分钟相对空驶时间的倍数
+     */
+    private double latenessMultiplier = 4.0;
+
+    /**
+     * 车辆运力完全闲置时的代价，按载重与体积中利用率较高者线性折减，避免大车装小货
+     */
+    private double idleCapacityCost = 50.0;
+
+    /**
+     * 最大空驶距离（公里），超过的车辆不参与该任务的匹配，0 表示不限制
+     */
+    private double maxDeadheadKm = 0;
+
+    /**
+     * 车型可接受的准驾车型，格式为“车型=准驾车型,准驾车型”，准驾车型按前缀匹配；未列出的车型不限制
+     */
+    private List<String> vehicleLicenseTypes = new ArrayList<>(Arrays.asList(
+            "牵引车=A2", "厢式货车=A1,A2,B2", "平板车=A1,A2,B2", "冷藏车=A1,A2,B2", "高栏车=A1,A2,B2"));
+}
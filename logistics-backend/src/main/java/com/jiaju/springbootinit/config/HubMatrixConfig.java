@@ -0,0 +1,42 @@
+package com.jiaju.springbootinit.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 枢纽间代价矩阵预计算配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "routing.hub-matrix")
+@Data
+public class HubMatrixConfig {
+
+    /**
+     * 是否在网络快照发布后预计算
+     */
+    private boolean enabled = true;
+
+    /**
+     * 需要预计算的权重组合，格式为“距离权重,时间权重,成本权重”，第一组会持久化
+     */
+    private List<String> profiles = new ArrayList<>(Arrays.asList("0.5,0.4,0.1", "0.7,0.2,0.1", "0.5,0.3,0.2"));
+
+    /**
+     * 并行计算线程数
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 枢纽数上限，矩阵内存随枢纽数平方增长，超过时不预计算，跨区域路由退回逐段搜索
+     */
+    private int maxHubs = 1000;
+
+    /**
+     * 是否将第一组权重的枢纽间距离写入 station_distance_cache，供重启后热启动
+     */
+    private boolean persist = true;
+}
@@ -0,0 +1,24 @@
+package com.jiaju.springbootinit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 登录用户快照本地缓存配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "user.login-cache")
+@Data
+public class LoginUserCacheConfig {
+
+    /**
+     * 最大缓存用户数，超出后按最近最少使用淘汰
+     */
+    private int maximumSize = 10000;
+
+    /**
+     * 缓存有效期（秒），多实例部署时其他实例的修改最多延迟该时长生效
+     */
+    private long ttlSeconds = 60;
+}
@@ -0,0 +1,24 @@
+package com.jiaju.springbootinit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 基础资料（站点、区域、客户、车辆、司机）本地缓存配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "reference.cache")
+@Data
+public class ReferenceCacheConfig {
+
+    /**
+     * 每类基础资料的最大缓存条目数，超出后按最近最少使用淘汰
+     */
+    private int maximumSize = 20000;
+
+    /**
+     * 缓存有效期（秒），作为主动失效之外的兜底
+     */
+    private long ttlSeconds = 300;
+}
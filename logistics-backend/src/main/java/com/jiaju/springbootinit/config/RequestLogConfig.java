@@ -0,0 +1,24 @@
+package com.jiaju.springbootinit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 请求日志配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "request-log")
+@Data
+public class RequestLogConfig {
+
+    /**
+     * 慢请求阈值（毫秒），超过时输出一条 WARN 日志
+     */
+    private long slowThresholdMillis = 1000;
+
+    /**
+     * DEBUG 日志中单个参数的最大输出长度
+     */
+    private int maxParamLength = 256;
+}
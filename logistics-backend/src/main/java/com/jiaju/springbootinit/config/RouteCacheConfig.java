@@ -0,0 +1,29 @@
+package com.jiaju.springbootinit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 路径本地缓存配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "routing.cache")
+@Data
+public class RouteCacheConfig {
+
+    /**
+     * 最大缓存条目数，超出后按最近最少使用淘汰
+     */
+    private int maximumSize = 10000;
+
+    /**
+     * 缓存有效期（秒）
+     */
+    private long ttlSeconds = 600;
+
+    /**
+     * 缓存命中次数写回数据库的间隔（毫秒）
+     */
+    private long hitFlushIntervalMillis = 5000;
+}
@@ -0,0 +1,29 @@
+package com.jiaju.springbootinit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 路径计算线程池配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "routing.executor")
+@Data
+public class RoutingExecutorConfig {
+
+    /**
+     * 工作线程数，默认为CPU核数
+     */
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 等待队列容量，队列满时拒绝新任务
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * 批量路径计算的默认超时时间（毫秒）
+     */
+    private long batchTimeoutMillis = 30000;
+}
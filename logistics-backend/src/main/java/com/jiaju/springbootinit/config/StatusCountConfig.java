@@ -0,0 +1,19 @@
+package com.jiaju.springbootinit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 任务、订单、车辆、司机状态计数配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "status-count")
+@Data
+public class StatusCountConfig {
+
+    /**
+     * 与数据库分组统计结果对账的间隔（毫秒）
+     */
+    private long reconcileIntervalMillis = 60000;
+}
@@ -0,0 +1,39 @@
+package com.jiaju.springbootinit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 任务/订单状态变更推送（SSE）配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "status-event")
+@Data
+public class StatusEventConfig {
+
+    /**
+     * 最大订阅连接数
+     */
+    private int maxSubscribers = 200;
+
+    /**
+     * 每个订阅者待推送事件的上限（合并后的对象数），超出时丢弃最早的事件并通知客户端重新拉取
+     */
+    private int bufferSize = 256;
+
+    /**
+     * 推送周期（毫秒），周期内同一对象的多次变更合并为一条
+     */
+    private long flushIntervalMillis = 200;
+
+    /**
+     * 无事件时发送心跳的间隔（毫秒）
+     */
+    private long heartbeatIntervalMillis = 15000;
+
+    /**
+     * 单个连接的最长保持时间（毫秒），到期后由客户端自动重连
+     */
+    private long connectionTimeoutMillis = 1800000;
+}
@@ -7,6 +7,7 @@ import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.jiaju.springbootinit.aop.SearchSpaceInterceptor;
 import com.jiaju.springbootinit.manager.LocalFileManager;
 import java.io.File;
 import lombok.extern.slf4j.Slf4j;
@@ -24,10 +25,14 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Resource
     private LocalFileManager localFileManager;
 
+    @Resource
+    private SearchSpaceInterceptor searchSpaceInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         // 登录校验和日志记录已通过LogInterceptor的AOP方式实现
-        // 不需要在此注册拦截器
+        // 请求结束后释放容器线程上的路径搜索工作区
+        registry.addInterceptor(searchSpaceInterceptor);
     }
     
     @Override
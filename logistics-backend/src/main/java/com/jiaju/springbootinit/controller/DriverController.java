@@ -10,6 +10,7 @@ import com.jiaju.springbootinit.common.ResultUtils;
 import com.jiaju.springbootinit.constant.CommonConstant;
 import com.jiaju.springbootinit.constant.UserConstant;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.StatusCountManager;
 import com.jiaju.springbootinit.exception.ThrowUtils;
 import com.jiaju.springbootinit.model.dto.driver.DriverAddRequest;
 import com.jiaju.springbootinit.model.dto.driver.DriverQueryRequest;
@@ -47,6 +48,9 @@ public class DriverController {
     @Resource
     private VehicleService vehicleService;
 
+    @Resource
+    private StatusCountManager statusCountManager;
+
     // region 增删改查
 
     /**
@@ -219,30 +223,15 @@ public class DriverController {
      */
     @GetMapping("/statistics")
     public BaseResponse<DriverStatisticsVO> getDriverStatistics() {
-        // 统计各状态司机数量
-        long total = driverService.count();
-        
-        // 获取空闲状态的司机数量
-        QueryWrapper<Driver> idleQuery = new QueryWrapper<>();
-        idleQuery.eq("status", 1);
-        long idle = driverService.count(idleQuery);
-        
-        // 获取任务中状态的司机数量
-        QueryWrapper<Driver> inTaskQuery = new QueryWrapper<>();
-        inTaskQuery.eq("status", 2);
-        long inTask = driverService.count(inTaskQuery);
-        
-        // 获取停用状态的司机数量
-        QueryWrapper<Driver> disabledQuery = new QueryWrapper<>();
-        disabledQuery.eq("status", 0);
-        long disabled = driverService.count(disabledQuery);
+        // 读取内存中的状态计数，不再逐状态执行 COUNT 查询
+        StatusCountManager.Snapshot counts = statusCountManager.drivers().snapshot();
         
         // 封装结果
         DriverStatisticsVO statisticsVO = new DriverStatisticsVO();
-        statisticsVO.setTotal(total);
-        statisticsVO.setIdle(idle);
-        statisticsVO.setInTask(inTask);
-        statisticsVO.setDisabled(disabled);
+        statisticsVO.setTotal(counts.getTotal());
+        statisticsVO.setIdle(counts.get(1));
+        statisticsVO.setInTask(counts.get(2));
+        statisticsVO.setDisabled(counts.get(0));
         
         return ResultUtils.success(statisticsVO);
     }
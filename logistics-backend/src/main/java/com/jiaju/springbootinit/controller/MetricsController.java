@@ -0,0 +1,85 @@
+package com.jiaju.springbootinit.controller;
+
+import com.jiaju.springbootinit.annotation.AuthCheck;
+import com.jiaju.springbootinit.common.BaseResponse;
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.common.ResultUtils;
+import com.jiaju.springbootinit.constant.UserConstant;
+import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.PrometheusMetricsManager;
+import com.jiaju.springbootinit.manager.RequestMetricsManager;
+import com.jiaju.springbootinit.model.vo.EndpointLatencyVO;
+import com.jiaju.springbootinit.service.UserService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * 运行指标接口
+ */
+@RestController
+@RequestMapping("/metrics")
+@Api(tags = "运行指标接口")
+public class MetricsController {
+
+    /**
+     * Prometheus 文本格式的内容类型
+     */
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    @Resource
+    private RequestMetricsManager requestMetricsManager;
+
+    @Resource
+    private PrometheusMetricsManager prometheusMetricsManager;
+
+    @Resource
+    private UserService userService;
+
+    /**
+     * Prometheus 抓取接口
+     * 无需登录，但仅允许本机直连（不经过反向代理）或管理员访问
+     *
+     * @param request
+     * @return
+     */
+    @GetMapping
+    @ApiOperation("Prometheus 文本格式运行指标（本机或管理员）")
+    public ResponseEntity<String> scrape(HttpServletRequest request) {
+        if (!isLocalRequest(request) && !userService.isAdmin(request)) {
+            throw new BusinessException(ErrorCode.FORBIDDEN_ERROR, "仅允许本机访问运行指标");
+        }
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(prometheusMetricsManager.scrape());
+    }
+
+    @GetMapping("/endpoints")
+    @ApiOperation("各接口耗时分位数与异常次数（管理员功能）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<List<EndpointLatencyVO>> getEndpointStats() {
+        return ResultUtils.success(requestMetricsManager.getStats());
+    }
+
+    /**
+     * 是否为本机直连请求：来源为回环地址且没有代理转发头
+     */
+    private boolean isLocalRequest(HttpServletRequest request) {
+        if (request.getHeader("X-Forwarded-For") != null || request.getHeader("X-Real-IP") != null) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package com.jiaju.springbootinit.controller;
 
+import com.jiaju.springbootinit.annotation.AuthCheck;
 import com.jiaju.springbootinit.common.BaseResponse;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.common.ResultUtils;
+import com.jiaju.springbootinit.constant.UserConstant;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.ContractionHierarchyManager;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
+import com.jiaju.springbootinit.manager.RouteCacheManager;
+import com.jiaju.springbootinit.manager.RoutingExecutorManager;
 import com.jiaju.springbootinit.model.dto.route.BatchRouteRequest;
 import com.jiaju.springbootinit.model.dto.route.RouteAdvancedRequest;
+import com.jiaju.springbootinit.model.dto.route.RouteEngineBenchmarkRequest;
+import com.jiaju.springbootinit.model.dto.route.RouteMatrixRequest;
 import com.jiaju.springbootinit.model.vo.BatchRouteVO;
+import com.jiaju.springbootinit.model.vo.CacheStatsVO;
+import com.jiaju.springbootinit.model.vo.ContractionHierarchyStatsVO;
 import com.jiaju.springbootinit.model.vo.OptimalRouteVO;
+import com.jiaju.springbootinit.model.vo.RouteEngineBenchmarkVO;
+import com.jiaju.springbootinit.model.vo.RoutingExecutorStatsVO;
 import com.jiaju.springbootinit.service.RouteService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.alibaba.fastjson.JSON;
 
 import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
 @RequestMapping("/route")
@@ -26,8 +46,25 @@ public class RouteController {
     
     private static final Logger log = LoggerFactory.getLogger(RouteController.class);
 
+    /**
+     * 路径矩阵起点、终点数量上限
+     */
+    private static final int MAX_MATRIX_SIZE = 1000;
+
     @Resource
     private RouteService routeService;
+
+    @Resource
+    private RoutingExecutorManager routingExecutorManager;
+
+    @Resource
+    private RouteCacheManager routeCacheManager;
+
+    @Resource
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Resource
+    private ContractionHierarchyManager contractionHierarchyManager;
     
     @GetMapping("/optimal")
     @ApiOperation("获取最优路径")
@@ -105,6 +142,92 @@ public class RouteController {
         }
     }
 
+    @PostMapping("/network/refresh")
+    @ApiOperation("重建物流网络快照（管理员功能）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Long> refreshNetwork() {
+        long version = routeService.refreshNetwork();
+        log.info("物流网络快照已重建，当前版本={}", version);
+        return ResultUtils.success(version);
+    }
+
+    @GetMapping("/executor/stats")
+    @ApiOperation("路径计算线程池运行指标（管理员功能）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<RoutingExecutorStatsVO> getExecutorStats() {
+        return ResultUtils.success(routingExecutorManager.getStats());
+    }
+
+    @GetMapping("/cache/stats")
+    @ApiOperation("路径本地缓存命中统计（管理员功能）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<CacheStatsVO> getRouteCacheStats() {
+        return ResultUtils.success(routeCacheManager.getStats());
+    }
+
+    @GetMapping("/cache/reference/stats")
+    @ApiOperation("基础资料本地缓存命中统计（管理员功能）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<List<CacheStatsVO>> getReferenceCacheStats() {
+        return ResultUtils.success(referenceDataCacheManager.getStats());
+    }
+
+    @GetMapping("/ch/stats")
+    @ApiOperation("收缩层次索引预处理耗时与内存统计（管理员功能）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<List<ContractionHierarchyStatsVO>> getContractionHierarchyStats() {
+        return ResultUtils.success(contractionHierarchyManager.getStats());
+    }
+
+    @PostMapping("/matrix")
+    @ApiOperation("多对多路径矩阵（NDJSON流式返回，每行一个起点）")
+    public ResponseEntity<StreamingResponseBody> routeMatrix(@RequestBody RouteMatrixRequest request) {
+        if (request == null || request.getOriginStationIds() == null || request.getOriginStationIds().isEmpty()
+                || request.getDestinationStationIds() == null || request.getDestinationStationIds().isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "起点和终点列表不能为空");
+        }
+        if (request.getOriginStationIds().size() > MAX_MATRIX_SIZE
+                || request.getDestinationStationIds().size() > MAX_MATRIX_SIZE) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "起点和终点数量均不能超过" + MAX_MATRIX_SIZE);
+        }
+        if (request.getOriginStationIds().contains(null) || request.getDestinationStationIds().contains(null)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "站点ID不能为空");
+        }
+        
+        log.info("路径矩阵请求: 起点数={}, 终点数={}",
+                request.getOriginStationIds().size(), request.getDestinationStationIds().size());
+        
+        StreamingResponseBody body = outputStream -> {
+            try {
+                routeService.streamRouteMatrix(request, row -> writeLine(outputStream, JSON.toJSONString(row)));
+            } catch (UncheckedIOException e) {
+                // 客户端断开连接
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+    
+    private static void writeLine(OutputStream outputStream, String line) {
+        try {
+            outputStream.write(line.getBytes(StandardCharsets.UTF_8));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PostMapping("/engine/benchmark")
+    @ApiOperation("在同一批随机站点对上对比各路径引擎（管理员功能）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<List<RouteEngineBenchmarkVO>> benchmarkEngines(@RequestBody RouteEngineBenchmarkRequest request) {
+        if (request == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        return ResultUtils.success(routeService.benchmarkEngines(request));
+    }
+
     @PostMapping("/optimal-advanced")
     @ApiOperation("获取最优路径(高级参数)")
     public BaseResponse<OptimalRouteVO> findOptimalRouteAdvanced(@RequestBody RouteAdvancedRequest request) {
@@ -127,11 +250,34 @@ public class RouteController {
                 request.getTimeWeight(),
                 request.getCostWeight(),
                 request.getTrafficFactor(),
-                request.getEnforceTransfer());
+                request.getEnforceTransfer(),
+                request.getEngine());
         
         return ResultUtils.success(optimalRoute);
     }
 
+    @PostMapping("/batch-optimal/stream")
+    @ApiOperation("批量获取最优路径（NDJSON流式返回，每行一个结果项，最后一行为汇总）")
+    public ResponseEntity<StreamingResponseBody> streamBatchOptimalRoutes(@RequestBody BatchRouteRequest request) {
+        if (request == null || request.getRoutes() == null || request.getRoutes().isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "批量路径请求不能为空");
+        }
+        
+        log.info("流式批量路径计算请求: {} 条路径请求", request.getRoutes().size());
+        
+        StreamingResponseBody body = outputStream -> {
+            try {
+                BatchRouteVO summary = routeService.streamBatchOptimalRoutes(request,
+                        item -> writeLine(outputStream, JSON.toJSONString(item)));
+                writeLine(outputStream, JSON.toJSONString(summary));
+            } catch (UncheckedIOException e) {
+                // 客户端断开连接
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+    
     @PostMapping("/batch-optimal")
     @ApiOperation("批量获取最优路径")
     public BaseResponse<BatchRouteVO> batchOptimalRoutes(@RequestBody BatchRouteRequest request) {
@@ -0,0 +1,49 @@
+package com.jiaju.springbootinit.controller;
+
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.StatusEventManager;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.Resource;
+
+/**
+ * 状态变更推送接口
+ */
+@RestController
+@RequestMapping("/events")
+@Api(tags = "状态变更推送接口")
+public class StatusEventController {
+
+    @Resource
+    private StatusEventManager statusEventManager;
+
+    /**
+     * 订阅任务/订单状态变更（Server-Sent Events）
+     * 事件 status-change 的数据为合并后的事件数组；事件 resync 表示有事件因积压被丢弃，客户端应重新拉取列表和统计
+     *
+     * @param type      对象类型：task / order，不传表示全部
+     * @param stationId 只接收起点或终点为该站点的变更
+     * @param regionId  只接收起点或终点位于该区域的变更
+     * @return SSE 连接
+     */
+    @GetMapping(value = "/status", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiOperation("订阅任务/订单状态变更")
+    public SseEmitter subscribeStatusEvents(@RequestParam(required = false) String type,
+                                            @RequestParam(required = false) Long stationId,
+                                            @RequestParam(required = false) Long regionId) {
+        if (StringUtils.isNotBlank(type) && !StatusEventManager.TYPE_TASK.equals(type)
+                && !StatusEventManager.TYPE_ORDER.equals(type)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "对象类型只能为 task 或 order");
+        }
+        return statusEventManager.subscribe(StringUtils.trimToNull(type), stationId, regionId);
+    }
+}
@@ -8,6 +8,7 @@ import com.jiaju.springbootinit.constant.CommonConstant;
 import com.jiaju.springbootinit.constant.UserConstant;
 import com.jiaju.springbootinit.exception.BusinessException;
 import com.jiaju.springbootinit.exception.ThrowUtils;
+import com.jiaju.springbootinit.manager.StatusCountManager;
 import com.jiaju.springbootinit.model.dto.order.TransportOrderAddRequest;
 import com.jiaju.springbootinit.model.dto.order.TransportOrderQueryRequest;
 import com.jiaju.springbootinit.model.dto.order.TransportOrderUpdateRequest;
@@ -23,7 +24,9 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 运输订单接口
@@ -39,6 +42,9 @@ public class TransportOrderController {
     @Resource
     private UserService userService;
 
+    @Resource
+    private StatusCountManager statusCountManager;
+
     // region 增删改查
 
     /**
@@ -203,6 +209,24 @@ public class TransportOrderController {
         return ResultUtils.success(result);
     }
 
+    /**
+     * 获取订单统计信息
+     *
+     * @return 各状态订单的统计数据
+     */
+    @GetMapping("/statistics")
+    public BaseResponse<Map<String, Object>> getOrderStatistics() {
+        StatusCountManager.Snapshot counts = statusCountManager.orders().snapshot();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("total", counts.getTotal());
+        statistics.put("pending", counts.get(0));
+        statistics.put("assigned", counts.get(1));
+        statistics.put("inTransit", counts.get(2));
+        statistics.put("completed", counts.get(3));
+        statistics.put("cancelled", counts.get(4));
+        return ResultUtils.success(statistics);
+    }
+
     // endregion
     
     // region 公共方法
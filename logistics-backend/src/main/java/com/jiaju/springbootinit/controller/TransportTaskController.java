@@ -8,11 +8,17 @@ import com.jiaju.springbootinit.constant.CommonConstant;
 import com.jiaju.springbootinit.constant.UserConstant;
 import com.jiaju.springbootinit.exception.BusinessException;
 import com.jiaju.springbootinit.exception.ThrowUtils;
+import com.jiaju.springbootinit.manager.StatusCountManager;
+import com.jiaju.springbootinit.model.dto.task.TaskAssignBatchRequest;
+import com.jiaju.springbootinit.model.dto.task.TaskAutoDispatchRequest;
 import com.jiaju.springbootinit.model.dto.task.TransportTaskAddRequest;
 import com.jiaju.springbootinit.model.dto.task.TransportTaskQueryRequest;
 import com.jiaju.springbootinit.model.dto.task.TransportTaskUpdateRequest;
 import com.jiaju.springbootinit.model.entity.TransportTask;
+import com.jiaju.springbootinit.model.vo.TaskAssignBatchVO;
+import com.jiaju.springbootinit.model.vo.TaskAutoDispatchVO;
 import com.jiaju.springbootinit.model.vo.TransportTaskVO;
+import com.jiaju.springbootinit.service.DispatchService;
 import com.jiaju.springbootinit.service.TransportTaskService;
 import com.jiaju.springbootinit.service.UserService;
 import com.jiaju.springbootinit.utils.SqlUtils;
@@ -40,9 +46,15 @@ public class TransportTaskController {
     @Resource
     private TransportTaskService transportTaskService;
 
+    @Resource
+    private DispatchService dispatchService;
+
     @Resource
     private UserService userService;
 
+    @Resource
+    private StatusCountManager statusCountManager;
+
     // region 增删改查
 
     /**
@@ -197,6 +209,37 @@ public class TransportTaskController {
         return ResultUtils.success(result);
     }
     
+    /**
+     * 批量分配任务车辆和司机
+     * 一个事务内完成，单项失败不影响其他项，逐项返回结果
+     *
+     * @param taskAssignBatchRequest 分配项列表
+     * @return 逐项分配结果
+     */
+    @PostMapping("/assign/batch")
+    public BaseResponse<TaskAssignBatchVO> assignTasks(@RequestBody TaskAssignBatchRequest taskAssignBatchRequest) {
+        if (taskAssignBatchRequest == null || taskAssignBatchRequest.getItems() == null
+                || taskAssignBatchRequest.getItems().isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "分配项不能为空");
+        }
+        TaskAssignBatchVO result = transportTaskService.assignTasks(taskAssignBatchRequest.getItems());
+        return ResultUtils.success(result);
+    }
+    
+    /**
+     * 自动调度：为待分配任务匹配空闲车辆和司机并执行分配
+     *
+     * @param taskAutoDispatchRequest 调度范围、调度规则及是否只计算方案
+     * @return 分配方案及执行结果
+     */
+    @PostMapping("/dispatch/auto")
+    public BaseResponse<TaskAutoDispatchVO> autoDispatch(@RequestBody(required = false) TaskAutoDispatchRequest taskAutoDispatchRequest) {
+        if (taskAutoDispatchRequest == null) {
+            taskAutoDispatchRequest = new TaskAutoDispatchRequest();
+        }
+        return ResultUtils.success(dispatchService.autoDispatch(taskAutoDispatchRequest));
+    }
+    
     /**
      * 取消任务
      *
@@ -387,13 +430,14 @@ public class TransportTaskController {
     public BaseResponse<Map<String, Object>> getTaskStatistics() {
         Map<String, Object> statistics = new HashMap<>();
         
-        // 查询各状态的任务数量
-        long total = transportTaskService.count(new QueryWrapper<TransportTask>().eq("is_delete", 0));
-        long pending = transportTaskService.count(new QueryWrapper<TransportTask>().eq("status", 0).eq("is_delete", 0));
-        long assigned = transportTaskService.count(new QueryWrapper<TransportTask>().eq("status", 1).eq("is_delete", 0));
-        long inProgress = transportTaskService.count(new QueryWrapper<TransportTask>().eq("status", 2).eq("is_delete", 0));
-        long completed = transportTaskService.count(new QueryWrapper<TransportTask>().eq("status", 3).eq("is_delete", 0));
-        long cancelled = transportTaskService.count(new QueryWrapper<TransportTask>().eq("status", 4).eq("is_delete", 0));
+        // 读取内存中的状态计数，不再逐状态执行 COUNT 查询
+        StatusCountManager.Snapshot counts = statusCountManager.tasks().snapshot();
+        long total = counts.getTotal();
+        long pending = counts.get(0);
+        long assigned = counts.get(1);
+        long inProgress = counts.get(2);
+        long completed = counts.get(3);
+        long cancelled = counts.get(4);
         
         // 添加到统计结果中
         statistics.put("total", total);
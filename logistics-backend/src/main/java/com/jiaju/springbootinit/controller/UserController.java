@@ -10,6 +10,7 @@ import com.jiaju.springbootinit.config.WxOpenConfig;
 import com.jiaju.springbootinit.constant.UserConstant;
 import com.jiaju.springbootinit.exception.BusinessException;
 import com.jiaju.springbootinit.exception.ThrowUtils;
+import com.jiaju.springbootinit.manager.LoginUserCacheManager;
 import com.jiaju.springbootinit.model.dto.user.UserAddRequest;
 import com.jiaju.springbootinit.model.dto.user.UserLoginRequest;
 import com.jiaju.springbootinit.model.dto.user.UserQueryRequest;
@@ -17,6 +18,7 @@ import com.jiaju.springbootinit.model.dto.user.UserRegisterRequest;
 import com.jiaju.springbootinit.model.dto.user.UserUpdateMyRequest;
 import com.jiaju.springbootinit.model.dto.user.UserUpdateRequest;
 import com.jiaju.springbootinit.model.entity.User;
+import com.jiaju.springbootinit.model.vo.CacheStatsVO;
 import com.jiaju.springbootinit.model.vo.LoginUserVO;
 import com.jiaju.springbootinit.model.vo.UserVO;
 import com.jiaju.springbootinit.service.UserService;
@@ -59,6 +61,9 @@ public class UserController {
     @Resource
     private WxOpenConfig wxOpenConfig;
 
+    @Resource
+    private LoginUserCacheManager loginUserCacheManager;
+
     // region 登录相关
 
     /**
@@ -237,6 +242,17 @@ public class UserController {
         return ResultUtils.success(user);
     }
 
+    /**
+     * 登录用户缓存命中统计（仅管理员）
+     *
+     * @return
+     */
+    @GetMapping("/cache/stats")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<CacheStatsVO> getLoginUserCacheStats() {
+        return ResultUtils.success(loginUserCacheManager.getStats());
+    }
+
     /**
      * 根据 id 获取包装类
      *
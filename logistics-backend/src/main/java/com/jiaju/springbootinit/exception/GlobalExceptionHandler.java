@@ -3,10 +3,13 @@ package com.jiaju.springbootinit.exception;
 import com.jiaju.springbootinit.common.BaseResponse;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.common.ResultUtils;
+import com.jiaju.springbootinit.manager.RequestMetricsManager;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.annotation.Resource;
+
 /**
  * 全局异常处理器
  */
@@ -14,15 +17,20 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    @Resource
+    private RequestMetricsManager requestMetricsManager;
+
     @ExceptionHandler(BusinessException.class)
     public BaseResponse<?> businessExceptionHandler(BusinessException e) {
         log.error("BusinessException", e);
+        requestMetricsManager.recordErrorCode(e.getCode());
         return ResultUtils.error(e.getCode(), e.getMessage());
     }
 
     @ExceptionHandler(RuntimeException.class)
     public BaseResponse<?> runtimeExceptionHandler(RuntimeException e) {
         log.error("RuntimeException", e);
+        requestMetricsManager.recordErrorCode(ErrorCode.SYSTEM_ERROR.getCode());
         return ResultUtils.error(ErrorCode.SYSTEM_ERROR, "系统错误");
     }
 }
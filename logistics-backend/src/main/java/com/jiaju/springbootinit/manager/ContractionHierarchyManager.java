@@ -0,0 +1,140 @@
+package com.jiaju.springbootinit.manager;
+
+import com.jiaju.springbootinit.algorithm.CompiledGraph;
+import com.jiaju.springbootinit.algorithm.ContractionHierarchy;
+import com.jiaju.springbootinit.algorithm.LogisticsNetwork;
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.config.ContractionHierarchyConfig;
+import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.model.enums.RoutingEngineEnum;
+import com.jiaju.springbootinit.model.vo.ContractionHierarchyStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 收缩层次索引管理
+ * 启用后在每次网络快照发布后于后台按配置的权重组合构建索引，并负责解析请求指定的路径引擎；
+ * 索引构建完成前选择收缩层次引擎的请求自动退回 A*
+ */
+@Component
+@Slf4j
+public class ContractionHierarchyManager {
+
+    @Resource
+    private ContractionHierarchyConfig contractionHierarchyConfig;
+
+    private ExecutorService builder;
+
+    /**
+     * 最近一次提交构建的网络快照
+     */
+    private volatile LogisticsNetwork latestNetwork;
+
+    @PostConstruct
+    public void init() {
+        builder = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ch-index-builder");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * 解析请求指定的路径引擎，未指定时使用配置的默认引擎
+     *
+     * @param engine 引擎取值
+     * @return 路径引擎
+     */
+    public RoutingEngineEnum resolveEngine(String engine) {
+        String value = engine != null ? engine : contractionHierarchyConfig.getDefaultEngine();
+        RoutingEngineEnum engineEnum = RoutingEngineEnum.getEnumByValue(value);
+        if (engineEnum == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "不支持的路径引擎: " + value);
+        }
+        return engineEnum;
+    }
+
+    /**
+     * 提交快照的收缩层次索引构建任务
+     *
+     * @param network 新发布的网络快照
+     */
+    public void buildAsync(LogisticsNetwork network) {
+        if (!contractionHierarchyConfig.isEnabled()) {
+            return;
+        }
+        latestNetwork = network;
+        try {
+            builder.execute(() -> build(network));
+        } catch (RejectedExecutionException e) {
+            log.warn("收缩层次索引构建任务提交失败: {}", e.getMessage());
+        }
+    }
+
+    private void build(LogisticsNetwork network) {
+        CompiledGraph graph = network.getCompiledGraph();
+        try {
+            for (double[] profile : HubMatrixManager.parseProfiles(contractionHierarchyConfig.getProfiles())) {
+                for (boolean enforceTransfer : new boolean[]{false, true}) {
+                    if (network != latestNetwork) {
+                        log.info("快照版本{}已过期，停止构建收缩层次索引", network.getVersion());
+                        return;
+                    }
+                    ContractionHierarchy hierarchy = ContractionHierarchy.build(graph,
+                            profile[0], profile[1], profile[2], enforceTransfer);
+                    graph.putContractionHierarchy(hierarchy);
+                    log.info("收缩层次索引构建完成: 版本={}, 权重={}, 强制中转={}, 捷径数={}, 耗时={}毫秒, 内存约{}KB",
+                            network.getVersion(), Arrays.toString(profile), enforceTransfer,
+                            hierarchy.getShortcutCount(), hierarchy.getBuildMillis(),
+                            hierarchy.estimateMemoryBytes() / 1024);
+                }
+            }
+        } catch (Exception e) {
+            log.error("收缩层次索引构建失败，相关请求将使用A*", e);
+        }
+    }
+
+    /**
+     * 获取当前快照已构建索引的预处理耗时与内存统计
+     */
+    public List<ContractionHierarchyStatsVO> getStats() {
+        List<ContractionHierarchyStatsVO> statsList = new ArrayList<>();
+        LogisticsNetwork network = latestNetwork;
+        if (network == null) {
+            return statsList;
+        }
+        for (ContractionHierarchy hierarchy : network.getCompiledGraph().getContractionHierarchies()) {
+            ContractionHierarchyStatsVO stats = new ContractionHierarchyStatsVO();
+            stats.setNetworkVersion(network.getVersion());
+            stats.setDistanceWeight(hierarchy.getDistanceWeight());
+            stats.setTimeWeight(hierarchy.getTimeWeight());
+            stats.setCostWeight(hierarchy.getCostWeight());
+            stats.setEnforceTransfer(hierarchy.isEnforceRegionalTransfer());
+            stats.setNodeCount(hierarchy.getNodeCount());
+            stats.setArcCount(hierarchy.getArcCount());
+            stats.setShortcutCount(hierarchy.getShortcutCount());
+            stats.setPreprocessMillis(hierarchy.getBuildMillis());
+            stats.setMemoryBytes(hierarchy.estimateMemoryBytes());
+            statsList.add(stats);
+        }
+        return statsList;
+    }
+}
@@ -0,0 +1,234 @@
+package com.jiaju.springbootinit.manager;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.jiaju.springbootinit.algorithm.CompiledGraph;
+import com.jiaju.springbootinit.algorithm.HubDistanceMatrix;
+import com.jiaju.springbootinit.algorithm.LogisticsNetwork;
+import com.jiaju.springbootinit.config.HubMatrixConfig;
+import com.jiaju.springbootinit.mapper.StationDistanceCacheMapper;
+import com.jiaju.springbootinit.model.entity.StationDistanceCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 枢纽间代价矩阵预计算
+ * 每次网络快照发布后在后台按配置的权重组合计算枢纽间代价矩阵并挂到快照的紧凑图上；
+ * 第一组权重的枢纽间距离写入 station_distance_cache，进程重启后首个快照先用它热启动枢纽对选择
+ */
+@Component
+@Slf4j
+public class HubMatrixManager {
+
+    /**
+     * 单条批量写入语句的最大记录数
+     */
+    private static final int PERSIST_BATCH_SIZE = 500;
+
+    @Resource
+    private HubMatrixConfig hubMatrixConfig;
+
+    @Resource
+    private StationDistanceCacheMapper stationDistanceCacheMapper;
+
+    private ForkJoinPool pool;
+
+    private ExecutorService builder;
+
+    /**
+     * 最近一次请求预计算的快照版本，旧版本的计算任务据此提前结束
+     */
+    private volatile long latestVersion;
+
+    private volatile boolean warmStarted;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(Math.max(1, hubMatrixConfig.getParallelism()));
+        // 单线程顺序执行，队列中只保留最新快照的任务即可
+        builder = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hub-matrix-builder");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        builder.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * 提交快照的枢纽间代价矩阵预计算任务
+     *
+     * @param network 新发布的网络快照
+     */
+    public void precomputeAsync(LogisticsNetwork network) {
+        if (!hubMatrixConfig.isEnabled()) {
+            return;
+        }
+        latestVersion = network.getVersion();
+        try {
+            builder.execute(() -> precompute(network));
+        } catch (RejectedExecutionException e) {
+            log.warn("枢纽间代价矩阵预计算任务提交失败: {}", e.getMessage());
+        }
+    }
+
+    private void precompute(LogisticsNetwork network) {
+        List<double[]> profiles = parseProfiles(hubMatrixConfig.getProfiles());
+        if (profiles.isEmpty()) {
+            return;
+        }
+        CompiledGraph graph = network.getCompiledGraph();
+        int hubCount = 0;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.isHub(node)) {
+                hubCount++;
+            }
+        }
+        if (hubCount > hubMatrixConfig.getMaxHubs()) {
+            log.warn("枢纽数{}超过上限{}，跳过枢纽间代价矩阵预计算", hubCount, hubMatrixConfig.getMaxHubs());
+            return;
+        }
+        try {
+            if (!warmStarted) {
+                warmStarted = true;
+                if (hubMatrixConfig.isPersist()) {
+                    warmStart(graph, profiles.get(0));
+                }
+            }
+            for (int i = 0; i < profiles.size(); i++) {
+                if (network.getVersion() != latestVersion) {
+                    log.info("快照版本{}已过期，停止枢纽间代价矩阵预计算", network.getVersion());
+                    return;
+                }
+                double[] profile = profiles.get(i);
+                HubDistanceMatrix matrix = HubDistanceMatrix.compute(graph, profile[0], profile[1], profile[2], pool);
+                graph.putHubMatrix(profile[0], profile[1], profile[2], matrix);
+                log.info("枢纽间代价矩阵计算完成: 版本={}, 权重={}, 枢纽数={}, 耗时={}毫秒, 内存约{}KB",
+                        network.getVersion(), Arrays.toString(profile), matrix.getHubCount(),
+                        matrix.getBuildMillis(), matrix.estimateMemoryBytes() / 1024);
+                if (i == 0 && hubMatrixConfig.isPersist()) {
+                    persist(graph, matrix);
+                }
+            }
+        } catch (Exception e) {
+            log.error("枢纽间代价矩阵预计算失败，跨区域路由将退回逐段搜索", e);
+        }
+    }
+
+    /**
+     * 用已持久化的枢纽间距离构建只含距离的矩阵，完整矩阵计算完成前用于枢纽对选择
+     */
+    private void warmStart(CompiledGraph graph, double[] profile) {
+        List<Long> hubIds = new ArrayList<>();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.isHub(node)) {
+                hubIds.add(graph.getStationId(node));
+            }
+        }
+        if (hubIds.size() < 2) {
+            return;
+        }
+        LambdaQueryWrapper<StationDistanceCache> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.in(StationDistanceCache::getFromStationId, hubIds)
+                .in(StationDistanceCache::getToStationId, hubIds);
+        List<StationDistanceCache> rows = stationDistanceCacheMapper.selectList(queryWrapper);
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<Long, Double>> distances = new HashMap<>();
+        for (StationDistanceCache row : rows) {
+            if (row.getDistance() != null) {
+                distances.computeIfAbsent(row.getFromStationId(), id -> new HashMap<>())
+                        .put(row.getToStationId(), row.getDistance().doubleValue());
+            }
+        }
+        HubDistanceMatrix matrix = HubDistanceMatrix.fromDistances(graph, (fromId, toId) -> {
+            Map<Long, Double> targets = distances.get(fromId);
+            Double distance = targets != null ? targets.get(toId) : null;
+            return distance != null ? distance : Double.NaN;
+        });
+        // 完整矩阵计算完成后会覆盖
+        graph.putHubMatrix(profile[0], profile[1], profile[2], matrix);
+        log.info("已从持久化数据热启动枢纽间距离: {}条记录", rows.size());
+    }
+
+    /**
+     * 将枢纽间最短路径距离批量写入 station_distance_cache
+     */
+    private void persist(CompiledGraph graph, HubDistanceMatrix matrix) {
+        long startTime = System.currentTimeMillis();
+        int hubCount = matrix.getHubCount();
+        List<StationDistanceCache> batch = new ArrayList<>(PERSIST_BATCH_SIZE);
+        int total = 0;
+        for (int from = 0; from < hubCount; from++) {
+            int fromNode = matrix.getHubNode(from);
+            for (int to = 0; to < hubCount; to++) {
+                int toNode = matrix.getHubNode(to);
+                double distance = matrix.distance(fromNode, toNode);
+                if (from == to || Double.isInfinite(distance)) {
+                    continue;
+                }
+                StationDistanceCache row = new StationDistanceCache();
+                row.setFromStationId(graph.getStationId(fromNode));
+                row.setToStationId(graph.getStationId(toNode));
+                row.setDistance(BigDecimal.valueOf(distance).setScale(2, RoundingMode.HALF_UP));
+                batch.add(row);
+                if (batch.size() >= PERSIST_BATCH_SIZE) {
+                    total += flushBatch(batch);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += flushBatch(batch);
+        }
+        log.info("枢纽间距离已持久化: {}条记录, 耗时={}毫秒", total, System.currentTimeMillis() - startTime);
+    }
+
+    private int flushBatch(List<StationDistanceCache> batch) {
+        int size = batch.size();
+        stationDistanceCacheMapper.upsertBatch(new ArrayList<>(batch));
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * 解析“距离权重,时间权重,成本权重”格式的权重组合配置，忽略格式错误的项
+     */
+    static List<double[]> parseProfiles(List<String> texts) {
+        List<double[]> profiles = new ArrayList<>();
+        if (texts == null) {
+            return profiles;
+        }
+        for (String text : texts) {
+            String[] parts = text.split(",");
+            if (parts.length != 3) {
+                log.warn("忽略格式错误的权重组合配置: {}", text);
+                continue;
+            }
+            try {
+                profiles.add(new double[]{Double.parseDouble(parts[0].trim()),
+                        Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[2].trim())});
+            } catch (NumberFormatException e) {
+                log.warn("忽略格式错误的权重组合配置: {}", text);
+            }
+        }
+        return profiles;
+    }
+}
@@ -0,0 +1,142 @@
+package com.jiaju.springbootinit.manager;
+
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.convert.Convert;
+import com.jiaju.springbootinit.config.LoginUserCacheConfig;
+import com.jiaju.springbootinit.model.entity.User;
+import com.jiaju.springbootinit.model.vo.CacheStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 登录用户快照本地缓存
+ * 每个需要登录的请求都要按 session 中的用户ID取最新的用户信息（角色、封号状态），
+ * 这里按用户ID缓存短时间的快照，稳态下鉴权不再查库；用户修改、删除时主动失效，
+ * 事务提交后再失效一次，并按失效版本丢弃回源期间被失效的旧快照
+ */
+@Component
+@Slf4j
+public class LoginUserCacheManager {
+
+    private static final int VERSION_STRIPES = 64;
+
+    @Resource
+    private LoginUserCacheConfig loginUserCacheConfig;
+
+    private LRUCache<Long, User> cache;
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * 按用户ID分段的失效版本，每次失效递增
+     */
+    private final AtomicLongArray invalidationVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    @PostConstruct
+    public void init() {
+        int capacity = Math.max(1, loginUserCacheConfig.getMaximumSize());
+        long timeoutMillis = Math.max(0L, loginUserCacheConfig.getTtlSeconds()) * 1000L;
+        cache = new LRUCache<>(capacity, timeoutMillis);
+        cache.setListener((key, value) -> evictionCount.increment());
+        log.info("登录用户缓存初始化完成: 容量={}, 有效期={}秒", capacity, loginUserCacheConfig.getTtlSeconds());
+    }
+
+    /**
+     * 读取用户快照，未命中时通过 loader 回源
+     *
+     * @param userId 用户ID
+     * @param loader 回源查询
+     * @return 用户，不存在返回 null
+     */
+    public User get(Long userId, Function<Long, User> loader) {
+        if (userId == null) {
+            return null;
+        }
+        User user = cache.get(userId, false);
+        if (user != null) {
+            return user;
+        }
+        // 回源期间被失效时，读到的可能是失效前的旧数据，不写入缓存
+        long version = invalidationVersions.get(stripe(userId));
+        user = loader.apply(userId);
+        if (user != null && invalidationVersions.get(stripe(userId)) == version) {
+            cache.put(userId, user);
+            // 写入与失效并发时撤销本次写入
+            if (invalidationVersions.get(stripe(userId)) != version) {
+                cache.remove(userId);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * 写入最新的用户快照（如登录时刚从数据库读出）
+     *
+     * @param user 用户
+     */
+    public void put(User user) {
+        if (user != null && user.getId() != null) {
+            cache.put(user.getId(), user);
+        }
+    }
+
+    /**
+     * 失效指定用户，处于事务中时提交后再失效一次
+     *
+     * @param userId 用户ID，为空时失效全部
+     */
+    public void invalidate(Serializable userId) {
+        Long key = Convert.toLong(userId);
+        doInvalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate(key);
+                }
+            });
+        }
+    }
+
+    private void doInvalidate(Long key) {
+        if (key == null) {
+            for (int i = 0; i < VERSION_STRIPES; i++) {
+                invalidationVersions.incrementAndGet(i);
+            }
+            cache.clear();
+            return;
+        }
+        invalidationVersions.incrementAndGet(stripe(key));
+        cache.remove(key);
+    }
+
+    private static int stripe(Long userId) {
+        return (Long.hashCode(userId) & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+
+    /**
+     * 获取缓存统计
+     */
+    public CacheStatsVO getStats() {
+        CacheStatsVO stats = new CacheStatsVO();
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        stats.setName("loginUser");
+        stats.setSize(cache.size());
+        stats.setCapacity(cache.capacity());
+        stats.setHitCount(hits);
+        stats.setMissCount(misses);
+        stats.setEvictionCount(evictionCount.sum());
+        stats.setHitRate(hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,224 @@
+package com.jiaju.springbootinit.manager;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.jiaju.springbootinit.algorithm.CompiledGraph;
+import com.jiaju.springbootinit.algorithm.LogisticsNetwork;
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.mapper.DirectDistanceMapper;
+import com.jiaju.springbootinit.mapper.RegionMapper;
+import com.jiaju.springbootinit.mapper.RouteMapper;
+import com.jiaju.springbootinit.mapper.StationMapper;
+import com.jiaju.springbootinit.model.entity.DirectDistance;
+import com.jiaju.springbootinit.model.entity.Region;
+import com.jiaju.springbootinit.model.entity.Route;
+import com.jiaju.springbootinit.model.entity.Station;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 物流网络快照管理
+ * 常驻内存持有一份构建完成的物流网络，站点、路线或直线距离变更时重新构建并整体替换（写时复制），
+ * 读取方始终拿到一份完整且不再变化的快照，版本号可作为路径缓存键的一部分
+ */
+@Component
+@Slf4j
+public class LogisticsNetworkManager {
+
+    @Resource
+    private StationMapper stationMapper;
+
+    @Resource
+    private RouteMapper routeMapper;
+
+    @Resource
+    private DirectDistanceMapper directDistanceMapper;
+
+    @Resource
+    private RegionMapper regionMapper;
+
+    @Resource
+    private HubMatrixManager hubMatrixManager;
+
+    @Resource
+    private ContractionHierarchyManager contractionHierarchyManager;
+
+    /**
+     * 当前生效的网络快照
+     */
+    private final AtomicReference<LogisticsNetwork> current = new AtomicReference<>();
+
+    /**
+     * 快照版本号，每次重建递增
+     */
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    /**
+     * 快照构建次数、失败次数和累计耗时（毫秒）
+     */
+    private final LongAdder buildCount = new LongAdder();
+
+    private final LongAdder buildFailureCount = new LongAdder();
+
+    private final LongAdder totalBuildMillis = new LongAdder();
+
+    /**
+     * 最近一次成功构建的耗时（毫秒）
+     */
+    private volatile long lastBuildMillis;
+
+    /**
+     * 获取当前网络快照，首次访问时从数据库构建
+     *
+     * @return 物流网络快照
+     */
+    public LogisticsNetwork getNetwork() {
+        LogisticsNetwork network = current.get();
+        if (network != null) {
+            return network;
+        }
+        synchronized (this) {
+            network = current.get();
+            if (network == null) {
+                network = rebuild();
+            }
+            return network;
+        }
+    }
+
+    /**
+     * 获取当前快照版本号，尚未构建时返回 0
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        LogisticsNetwork network = current.get();
+        return network != null ? network.getVersion() : 0L;
+    }
+
+    /**
+     * 获取当前快照（不触发构建），尚未构建时返回 null
+     */
+    public LogisticsNetwork peekNetwork() {
+        return current.get();
+    }
+
+    public long getBuildCount() {
+        return buildCount.sum();
+    }
+
+    public long getBuildFailureCount() {
+        return buildFailureCount.sum();
+    }
+
+    public long getTotalBuildMillis() {
+        return totalBuildMillis.sum();
+    }
+
+    public long getLastBuildMillis() {
+        return lastBuildMillis;
+    }
+
+    /**
+     * 站点、路线或直线距离发生变更后调用，重新构建快照并原子替换
+     * 重建期间读取方继续使用旧快照
+     */
+    public void refresh() {
+        synchronized (this) {
+            try {
+                rebuild();
+            } catch (BusinessException e) {
+                // 数据暂不完整时丢弃旧快照，下次访问重新构建
+                log.warn("物流网络重建失败，丢弃当前快照: {}", e.getMessage());
+                current.set(null);
+            }
+        }
+    }
+
+    /**
+     * 从数据库构建新快照并发布，调用方需持有锁
+     */
+    private LogisticsNetwork rebuild() {
+        long startTime = System.currentTimeMillis();
+        LogisticsNetwork network;
+        try {
+            network = buildNetwork();
+        } catch (RuntimeException e) {
+            buildFailureCount.increment();
+            throw e;
+        }
+        // 发布前编译紧凑图并构建区域层叠加图，避免首个查询承担构建开销
+        CompiledGraph graph = network.getCompiledGraph();
+        network.getRegionOverlay();
+        network.setVersion(versionSequence.incrementAndGet());
+        current.set(network);
+        long costMillis = System.currentTimeMillis() - startTime;
+        buildCount.increment();
+        totalBuildMillis.add(costMillis);
+        lastBuildMillis = costMillis;
+        log.info("物流网络快照已发布: 版本={}, 节点数={}, 边数={}, 耗时={}毫秒", network.getVersion(),
+                graph.getNodeCount(), graph.getEdgeCount(), costMillis);
+        // 后台预计算枢纽间代价矩阵，完成前跨区域路由按原方式逐段搜索
+        hubMatrixManager.precomputeAsync(network);
+        contractionHierarchyManager.buildAsync(network);
+        return network;
+    }
+
+    /**
+     * 初始化物流网络
+     */
+    private LogisticsNetwork buildNetwork() {
+        LogisticsNetwork network = new LogisticsNetwork();
+
+        // 加载所有站点
+        List<Station> stations = stationMapper.selectList(null);
+        if (stations.isEmpty()) {
+            log.error("站点数据为空，无法构建物流网络");
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "站点数据为空");
+        }
+        log.info("加载了{}个站点到物流网络", stations.size());
+
+        for (Station station : stations) {
+            network.addStation(station);
+        }
+
+        // 加载所有路线
+        LambdaQueryWrapper<Route> routeQuery = new LambdaQueryWrapper<>();
+        routeQuery.eq(Route::getStatus, 1) // 只加载启用的路线
+                 .eq(Route::getIsDelete, 0); // 确保未被逻辑删除
+        List<Route> routes = routeMapper.selectList(routeQuery);
+        if (routes.isEmpty()) {
+            log.error("路线数据为空，物流网络将不完整");
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "路线数据为空");
+        }
+        log.info("加载了{}条路线到物流网络", routes.size());
+
+        for (Route route : routes) {
+            network.addEdge(route);
+        }
+
+        // 加载直线距离数据
+        List<DirectDistance> distances = directDistanceMapper.selectList(null);
+        for (DirectDistance distance : distances) {
+            network.addDirectDistance(distance);
+        }
+        log.info("加载了{}条直线距离记录", distances.size());
+
+        // 加载区域中心点，用于区域层路由
+        List<Region> regions = regionMapper.selectList(null);
+        for (Region region : regions) {
+            network.addRegion(region);
+        }
+
+        // 确保所有枢纽站点间有连接
+        network.ensureHubStationsConnectivity();
+
+        return network;
+    }
+}
@@ -0,0 +1,258 @@
+package com.jiaju.springbootinit.manager;
+
+import com.jiaju.springbootinit.algorithm.CompiledGraph;
+import com.jiaju.springbootinit.algorithm.LogisticsNetwork;
+import com.jiaju.springbootinit.algorithm.RoutingMetrics;
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.model.vo.CacheStatsVO;
+import com.jiaju.springbootinit.model.vo.RoutingExecutorStatsVO;
+import com.jiaju.springbootinit.utils.LatencyHistogram;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prometheus 文本格式指标导出
+ * 汇总接口耗时、错误码、路径搜索内部指标、各级缓存、路径计算线程池和网络快照构建指标，
+ * 每次抓取时即时生成，不依赖外部组件
+ */
+@Component
+public class PrometheusMetricsManager {
+
+    private static final String PREFIX = "logistics_";
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    @Resource
+    private RequestMetricsManager requestMetricsManager;
+
+    @Resource
+    private RouteCacheManager routeCacheManager;
+
+    @Resource
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Resource
+    private LoginUserCacheManager loginUserCacheManager;
+
+    @Resource
+    private RoutingExecutorManager routingExecutorManager;
+
+    @Resource
+    private LogisticsNetworkManager logisticsNetworkManager;
+
+    @Resource
+    private StatusEventManager statusEventManager;
+
+    /**
+     * 生成 Prometheus 文本格式（0.0.4）的全部指标
+     */
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(16 * 1024);
+        writeHttpMetrics(sb);
+        writeRoutingMetrics(sb);
+        writeCacheMetrics(sb);
+        writeExecutorMetrics(sb);
+        writeNetworkMetrics(sb);
+        writeStatusEventMetrics(sb);
+        return sb.toString();
+    }
+
+    private void writeHttpMetrics(StringBuilder sb) {
+        header(sb, "http_requests_in_flight", "gauge", "当前处理中的请求数");
+        sample(sb, "http_requests_in_flight", null, requestMetricsManager.getInFlight());
+
+        header(sb, "http_request_duration_seconds", "summary", "接口耗时");
+        for (RequestMetricsManager.EndpointMetrics endpoint : requestMetricsManager.getEndpoints()) {
+            summary(sb, "http_request_duration_seconds", "endpoint", endpoint.getName(), endpoint.getLatency());
+        }
+        header(sb, "http_request_duration_seconds_max", "gauge", "接口最大耗时");
+        for (RequestMetricsManager.EndpointMetrics endpoint : requestMetricsManager.getEndpoints()) {
+            sample(sb, "http_request_duration_seconds_max", labels("endpoint", endpoint.getName()),
+                    endpoint.getLatency().getMaxMicros() / 1e6);
+        }
+        header(sb, "http_request_errors_total", "counter", "接口异常结束次数");
+        for (RequestMetricsManager.EndpointMetrics endpoint : requestMetricsManager.getEndpoints()) {
+            sample(sb, "http_request_errors_total", labels("endpoint", endpoint.getName()),
+                    endpoint.getErrorCount());
+        }
+        header(sb, "http_endpoint_requests_in_flight", "gauge", "各接口处理中的请求数");
+        for (RequestMetricsManager.EndpointMetrics endpoint : requestMetricsManager.getEndpoints()) {
+            sample(sb, "http_endpoint_requests_in_flight", labels("endpoint", endpoint.getName()),
+                    endpoint.getInFlight());
+        }
+
+        header(sb, "http_error_responses_total", "counter", "按错误码统计的异常响应次数");
+        for (Map.Entry<Integer, Long> entry : requestMetricsManager.getErrorCodeCounts().entrySet()) {
+            sample(sb, "http_error_responses_total",
+                    labels("code", String.valueOf(entry.getKey()), "error", errorName(entry.getKey())),
+                    entry.getValue());
+        }
+    }
+
+    private void writeRoutingMetrics(StringBuilder sb) {
+        RoutingMetrics.SearchType[] types = RoutingMetrics.SearchType.values();
+        header(sb, "routing_searches_total", "counter", "路径搜索次数");
+        for (RoutingMetrics.SearchType type : types) {
+            sample(sb, "routing_searches_total", labels("type", type.getValue()),
+                    RoutingMetrics.getStats(type).getSearchCount());
+        }
+        header(sb, "routing_search_failures_total", "counter", "未找到路径的搜索次数");
+        for (RoutingMetrics.SearchType type : types) {
+            sample(sb, "routing_search_failures_total", labels("type", type.getValue()),
+                    RoutingMetrics.getStats(type).getFailureCount());
+        }
+        header(sb, "routing_iterations_total", "counter", "搜索扩展（出堆）的节点数");
+        for (RoutingMetrics.SearchType type : types) {
+            sample(sb, "routing_iterations_total", labels("type", type.getValue()),
+                    RoutingMetrics.getStats(type).getIterations());
+        }
+        header(sb, "routing_nodes_reached_total", "counter", "搜索到达（入堆）的节点数");
+        for (RoutingMetrics.SearchType type : types) {
+            sample(sb, "routing_nodes_reached_total", labels("type", type.getValue()),
+                    RoutingMetrics.getStats(type).getNodesReached());
+        }
+        header(sb, "routing_search_duration_seconds", "summary", "单次路径搜索耗时");
+        for (RoutingMetrics.SearchType type : types) {
+            summary(sb, "routing_search_duration_seconds", "type", type.getValue(),
+                    RoutingMetrics.getStats(type).getLatency());
+        }
+    }
+
+    private void writeCacheMetrics(StringBuilder sb) {
+        List<CacheStatsVO> caches = new ArrayList<>();
+        caches.add(routeCacheManager.getStats());
+        caches.addAll(referenceDataCacheManager.getStats());
+        caches.add(loginUserCacheManager.getStats());
+
+        header(sb, "cache_hits_total", "counter", "本地缓存命中次数");
+        for (CacheStatsVO cache : caches) {
+            sample(sb, "cache_hits_total", labels("cache", cache.getName()), cache.getHitCount());
+        }
+        header(sb, "cache_misses_total", "counter", "本地缓存未命中次数");
+        for (CacheStatsVO cache : caches) {
+            sample(sb, "cache_misses_total", labels("cache", cache.getName()), cache.getMissCount());
+        }
+        header(sb, "cache_evictions_total", "counter", "本地缓存移除次数");
+        for (CacheStatsVO cache : caches) {
+            sample(sb, "cache_evictions_total", labels("cache", cache.getName()), cache.getEvictionCount());
+        }
+        header(sb, "cache_size", "gauge", "本地缓存当前条目数");
+        for (CacheStatsVO cache : caches) {
+            sample(sb, "cache_size", labels("cache", cache.getName()), cache.getSize());
+        }
+    }
+
+    private void writeExecutorMetrics(StringBuilder sb) {
+        RoutingExecutorStatsVO stats = routingExecutorManager.getStats();
+        header(sb, "routing_executor_active_threads", "gauge", "路径计算线程池执行中的任务数");
+        sample(sb, "routing_executor_active_threads", null, stats.getActiveCount());
+        header(sb, "routing_executor_queue_depth", "gauge", "路径计算线程池排队任务数");
+        sample(sb, "routing_executor_queue_depth", null, stats.getQueueDepth());
+        header(sb, "routing_executor_submitted_total", "counter", "路径计算线程池已提交任务数");
+        sample(sb, "routing_executor_submitted_total", null, stats.getSubmittedCount());
+        header(sb, "routing_executor_completed_total", "counter", "路径计算线程池已完成任务数");
+        sample(sb, "routing_executor_completed_total", null, stats.getCompletedCount());
+        header(sb, "routing_executor_rejected_total", "counter", "路径计算线程池拒绝任务数");
+        sample(sb, "routing_executor_rejected_total", null, stats.getRejectedCount());
+    }
+
+    private void writeNetworkMetrics(StringBuilder sb) {
+        header(sb, "network_builds_total", "counter", "物流网络快照构建次数");
+        sample(sb, "network_builds_total", null, logisticsNetworkManager.getBuildCount());
+        header(sb, "network_build_failures_total", "counter", "物流网络快照构建失败次数");
+        sample(sb, "network_build_failures_total", null, logisticsNetworkManager.getBuildFailureCount());
+        header(sb, "network_build_seconds_total", "counter", "物流网络快照累计构建耗时");
+        sample(sb, "network_build_seconds_total", null, logisticsNetworkManager.getTotalBuildMillis() / 1e3);
+        header(sb, "network_last_build_seconds", "gauge", "最近一次物流网络快照构建耗时");
+        sample(sb, "network_last_build_seconds", null, logisticsNetworkManager.getLastBuildMillis() / 1e3);
+
+        LogisticsNetwork network = logisticsNetworkManager.peekNetwork();
+        if (network != null) {
+            CompiledGraph graph = network.getCompiledGraph();
+            header(sb, "network_version", "gauge", "当前物流网络快照版本");
+            sample(sb, "network_version", null, network.getVersion());
+            header(sb, "network_nodes", "gauge", "当前物流网络站点数");
+            sample(sb, "network_nodes", null, graph.getNodeCount());
+            header(sb, "network_edges", "gauge", "当前物流网络边数");
+            sample(sb, "network_edges", null, graph.getEdgeCount());
+        }
+    }
+
+    private void writeStatusEventMetrics(StringBuilder sb) {
+        header(sb, "status_event_subscribers", "gauge", "状态变更推送连接数");
+        sample(sb, "status_event_subscribers", null, statusEventManager.getSubscriberCount());
+        header(sb, "status_events_published_total", "counter", "已发布的状态变更事件数");
+        sample(sb, "status_events_published_total", null, statusEventManager.getPublishedCount());
+        header(sb, "status_events_coalesced_total", "counter", "推送前被合并的状态变更事件数");
+        sample(sb, "status_events_coalesced_total", null, statusEventManager.getCoalescedCount());
+        header(sb, "status_events_dropped_total", "counter", "因订阅者缓冲区满被丢弃的事件数");
+        sample(sb, "status_events_dropped_total", null, statusEventManager.getDroppedCount());
+    }
+
+    private static void summary(StringBuilder sb, String name, String labelName, String labelValue,
+                                LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            sample(sb, name, labels(labelName, labelValue, "quantile", String.valueOf(quantile)),
+                    histogram.getPercentileMicros(quantile * 100) / 1e6);
+        }
+        sample(sb, name + "_sum", labels(labelName, labelValue), histogram.getTotalMicros() / 1e6);
+        sample(sb, name + "_count", labels(labelName, labelValue), histogram.getCount());
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, Number value) {
+        sb.append(PREFIX).append(name);
+        if (labels != null) {
+            sb.append(labels);
+        }
+        sb.append(' ');
+        if (value == null) {
+            sb.append("NaN");
+        } else if (value instanceof Double || value instanceof Float) {
+            sb.append(value.doubleValue());
+        } else {
+            sb.append(value.longValue());
+        }
+        sb.append('\n');
+    }
+
+    private static String labels(String... pairs) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(pairs[i]).append("=\"");
+            String value = pairs[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') {
+                    sb.append('\\').append(c);
+                } else if (c == '\n') {
+                    sb.append("\\n");
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String errorName(int code) {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            if (errorCode.getCode() == code) {
+                return errorCode.name();
+            }
+        }
+        return "UNKNOWN";
+    }
+}
@@ -0,0 +1,259 @@
+package com.jiaju.springbootinit.manager;
+
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.convert.Convert;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.jiaju.springbootinit.config.ReferenceCacheConfig;
+import com.jiaju.springbootinit.mapper.CustomerMapper;
+import com.jiaju.springbootinit.mapper.DriverMapper;
+import com.jiaju.springbootinit.mapper.RegionMapper;
+import com.jiaju.springbootinit.mapper.StationMapper;
+import com.jiaju.springbootinit.mapper.VehicleMapper;
+import com.jiaju.springbootinit.model.entity.Customer;
+import com.jiaju.springbootinit.model.entity.Driver;
+import com.jiaju.springbootinit.model.entity.Region;
+import com.jiaju.springbootinit.model.entity.Station;
+import com.jiaju.springbootinit.model.entity.Vehicle;
+import com.jiaju.springbootinit.model.vo.CacheStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 基础资料本地读穿缓存
+ * 列表页和校验逻辑按ID反复查询站点、区域、客户、车辆、司机，这里按实体类型各维护一个 LRU + 有效期缓存，
+ * 未命中时回源数据库（批量查询合并为一条 IN 语句）；对应服务的新增、修改、删除会主动失效，有效期仅作兜底。
+ * 返回的实体为缓存中的共享对象，调用方只读不改
+ */
+@Component
+@Slf4j
+public class ReferenceDataCacheManager {
+
+    @Resource
+    private ReferenceCacheConfig referenceCacheConfig;
+
+    @Resource
+    private StationMapper stationMapper;
+
+    @Resource
+    private RegionMapper regionMapper;
+
+    @Resource
+    private CustomerMapper customerMapper;
+
+    @Resource
+    private VehicleMapper vehicleMapper;
+
+    @Resource
+    private DriverMapper driverMapper;
+
+    private EntityCache<Station> stations;
+
+    private EntityCache<Region> regions;
+
+    private EntityCache<Customer> customers;
+
+    private EntityCache<Vehicle> vehicles;
+
+    private EntityCache<Driver> drivers;
+
+    @PostConstruct
+    public void init() {
+        int capacity = Math.max(1, referenceCacheConfig.getMaximumSize());
+        long timeoutMillis = Math.max(0L, referenceCacheConfig.getTtlSeconds()) * 1000L;
+        stations = new EntityCache<>("station", stationMapper, Station::getId, capacity, timeoutMillis);
+        regions = new EntityCache<>("region", regionMapper, Region::getId, capacity, timeoutMillis);
+        customers = new EntityCache<>("customer", customerMapper, Customer::getId, capacity, timeoutMillis);
+        vehicles = new EntityCache<>("vehicle", vehicleMapper, Vehicle::getId, capacity, timeoutMillis);
+        drivers = new EntityCache<>("driver", driverMapper, Driver::getId, capacity, timeoutMillis);
+        log.info("基础资料本地缓存初始化完成: 每类容量={}, 有效期={}秒", capacity, referenceCacheConfig.getTtlSeconds());
+    }
+
+    public EntityCache<Station> stations() {
+        return stations;
+    }
+
+    public EntityCache<Region> regions() {
+        return regions;
+    }
+
+    public EntityCache<Customer> customers() {
+        return customers;
+    }
+
+    public EntityCache<Vehicle> vehicles() {
+        return vehicles;
+    }
+
+    public EntityCache<Driver> drivers() {
+        return drivers;
+    }
+
+    /**
+     * 清空全部基础资料缓存
+     */
+    public void clear() {
+        stations.invalidateAll();
+        regions.invalidateAll();
+        customers.invalidateAll();
+        vehicles.invalidateAll();
+        drivers.invalidateAll();
+    }
+
+    /**
+     * 获取各类基础资料缓存的命中统计
+     */
+    public List<CacheStatsVO> getStats() {
+        List<CacheStatsVO> statsList = new ArrayList<>();
+        statsList.add(stations.getStats());
+        statsList.add(regions.getStats());
+        statsList.add(customers.getStats());
+        statsList.add(vehicles.getStats());
+        statsList.add(drivers.getStats());
+        return statsList;
+    }
+
+    /**
+     * 单类实体的读穿缓存
+     *
+     * @param <T> 实体类型
+     */
+    public static final class EntityCache<T> {
+
+        private final String name;
+
+        private final BaseMapper<T> mapper;
+
+        private final Function<T, Long> idGetter;
+
+        private final LRUCache<Long, T> cache;
+
+        /**
+         * 移除次数，包含过期、容量淘汰和主动失效
+         */
+        private final LongAdder evictionCount = new LongAdder();
+
+        private EntityCache(String name, BaseMapper<T> mapper, Function<T, Long> idGetter,
+                            int capacity, long timeoutMillis) {
+            this.name = name;
+            this.mapper = mapper;
+            this.idGetter = idGetter;
+            this.cache = new LRUCache<>(capacity, timeoutMillis);
+            this.cache.setListener((key, value) -> evictionCount.increment());
+        }
+
+        /**
+         * 按ID读取，未命中时回源数据库
+         *
+         * @param id 实体ID
+         * @return 实体，不存在返回 null
+         */
+        public T get(Long id) {
+            if (id == null) {
+                return null;
+            }
+            T entity = cache.get(id, false);
+            if (entity != null) {
+                return entity;
+            }
+            entity = mapper.selectById(id);
+            if (entity != null) {
+                cache.put(id, entity);
+            }
+            return entity;
+        }
+
+        /**
+         * 批量读取，未命中的ID合并为一次批量查询
+         *
+         * @param ids 实体ID集合，允许包含 null 和重复值
+         * @return ID -> 实体，不存在的ID不出现在结果中
+         */
+        public Map<Long, T> getAll(Collection<Long> ids) {
+            Map<Long, T> result = new HashMap<>();
+            if (ids == null || ids.isEmpty()) {
+                return result;
+            }
+            Set<Long> missingIds = new LinkedHashSet<>();
+            for (Long id : ids) {
+                if (id == null || result.containsKey(id) || missingIds.contains(id)) {
+                    continue;
+                }
+                T entity = cache.get(id, false);
+                if (entity != null) {
+                    result.put(id, entity);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+            if (!missingIds.isEmpty()) {
+                for (T entity : mapper.selectBatchIds(missingIds)) {
+                    Long id = idGetter.apply(entity);
+                    cache.put(id, entity);
+                    result.put(id, entity);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * 失效指定ID；处于事务中时提交后再失效一次，避免并发读取在提交前回填旧值
+         *
+         * @param id 实体ID
+         */
+        public void invalidate(Serializable id) {
+            Long key = Convert.toLong(id);
+            if (key == null) {
+                invalidateAll();
+                return;
+            }
+            cache.remove(key);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        cache.remove(key);
+                    }
+                });
+            }
+        }
+
+        /**
+         * 清空本类缓存
+         */
+        public void invalidateAll() {
+            cache.clear();
+        }
+
+        /**
+         * 获取缓存统计
+         */
+        public CacheStatsVO getStats() {
+            CacheStatsVO stats = new CacheStatsVO();
+            long hits = cache.getHitCount();
+            long misses = cache.getMissCount();
+            stats.setName(name);
+            stats.setSize(cache.size());
+            stats.setCapacity(cache.capacity());
+            stats.setHitCount(hits);
+            stats.setMissCount(misses);
+            stats.setEvictionCount(evictionCount.sum());
+            stats.setHitRate(hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.jiaju.springbootinit.manager;
+
+import com.jiaju.springbootinit.model.vo.EndpointLatencyVO;
+import com.jiaju.springbootinit.utils.LatencyHistogram;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 接口耗时指标
+ * 按控制器方法聚合延迟直方图、异常次数和处理中的请求数，替代逐请求的耗时日志；
+ * 以 Method 为键，记录时不拼接字符串。另按错误码统计异常响应次数
+ */
+@Component
+public class RequestMetricsManager {
+
+    private final ConcurrentHashMap<Method, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Integer, LongAdder> errorCodeCounts = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 请求开始处理
+     *
+     * @param method 控制器方法
+     */
+    public void requestStarted(Method method) {
+        inFlight.incrementAndGet();
+        getEndpoint(method).inFlight.incrementAndGet();
+    }
+
+    /**
+     * 请求处理结束，需与 requestStarted 成对调用
+     *
+     * @param method       控制器方法
+     * @param elapsedNanos 耗时（纳秒）
+     * @param error        是否异常结束
+     */
+    public void requestCompleted(Method method, long elapsedNanos, boolean error) {
+        inFlight.decrementAndGet();
+        EndpointMetrics metrics = getEndpoint(method);
+        metrics.inFlight.decrementAndGet();
+        metrics.latency.record(elapsedNanos / 1000L);
+        if (error) {
+            metrics.errorCount.increment();
+        }
+    }
+
+    /**
+     * 记录一次异常响应的错误码
+     *
+     * @param code 错误码
+     */
+    public void recordErrorCode(int code) {
+        LongAdder counter = errorCodeCounts.get(code);
+        if (counter == null) {
+            counter = errorCodeCounts.computeIfAbsent(code, c -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * 当前处理中的请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 各错误码的异常响应次数，按错误码排序
+     */
+    public Map<Integer, Long> getErrorCodeCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        errorCodeCounts.forEach((code, counter) -> counts.put(code, counter.sum()));
+        return counts;
+    }
+
+    /**
+     * 全部接口的指标
+     */
+    public Collection<EndpointMetrics> getEndpoints() {
+        return endpoints.values();
+    }
+
+    /**
+     * 获取各接口耗时统计，按请求次数降序
+     */
+    public List<EndpointLatencyVO> getStats() {
+        List<EndpointLatencyVO> statsList = new ArrayList<>();
+        for (EndpointMetrics metrics : endpoints.values()) {
+            LatencyHistogram latency = metrics.latency;
+            EndpointLatencyVO stats = new EndpointLatencyVO();
+            stats.setEndpoint(metrics.name);
+            stats.setCount(latency.getCount());
+            stats.setErrorCount(metrics.errorCount.sum());
+            stats.setInFlight(metrics.inFlight.get());
+            stats.setMeanMillis(latency.getMeanMicros() / 1000.0);
+            stats.setP50Millis(latency.getPercentileMicros(50) / 1000.0);
+            stats.setP95Millis(latency.getPercentileMicros(95) / 1000.0);
+            stats.setP99Millis(latency.getPercentileMicros(99) / 1000.0);
+            stats.setMaxMillis(latency.getMaxMicros() / 1000.0);
+            statsList.add(stats);
+        }
+        statsList.sort(Comparator.comparing(EndpointLatencyVO::getCount).reversed());
+        return statsList;
+    }
+
+    private EndpointMetrics getEndpoint(Method method) {
+        EndpointMetrics metrics = endpoints.get(method);
+        if (metrics == null) {
+            metrics = endpoints.computeIfAbsent(method,
+                    m -> new EndpointMetrics(m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+        }
+        return metrics;
+    }
+
+    /**
+     * 单个接口的指标
+     */
+    public static final class EndpointMetrics {
+
+        private final String name;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder errorCount = new LongAdder();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private EndpointMetrics(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getErrorCount() {
+            return errorCount.sum();
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+    }
+}
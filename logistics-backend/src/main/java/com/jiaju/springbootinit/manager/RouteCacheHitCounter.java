@@ -0,0 +1,121 @@
+package com.jiaju.springbootinit.manager;
+
+import com.jiaju.springbootinit.mapper.OptimalRouteCacheMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路径缓存命中次数异步计数器
+ * 命中时只在内存中累加（每条缓存记录一个 LongAdder），由定时任务周期性地合并为一条批量 UPDATE 写回，
+ * 避免热点路径的每次读取都变成一次行锁更新；应用关闭前执行最后一次写回
+ */
+@Component
+@Slf4j
+public class RouteCacheHitCounter {
+
+    /**
+     * 单条 UPDATE 语句最多包含的记录数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    @Resource
+    private OptimalRouteCacheMapper optimalRouteCacheMapper;
+
+    /**
+     * 缓存记录ID -> 待写回的命中次数
+     */
+    private final ConcurrentHashMap<Long, LongAdder> pendingHits = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次缓存命中
+     *
+     * @param cacheId 缓存记录ID
+     */
+    public void record(Long cacheId) {
+        if (cacheId == null) {
+            return;
+        }
+        // 在映射的原子操作内累加：写回时移除空闲计数器与此处互斥，不会累加到已移除的计数器上
+        pendingHits.compute(cacheId, (id, counter) -> {
+            if (counter == null) {
+                counter = new LongAdder();
+            }
+            counter.increment();
+            return counter;
+        });
+    }
+
+    /**
+     * 定时将累计的命中次数写回数据库
+     */
+    @Scheduled(fixedDelayString = "${routing.cache.hit-flush-interval-millis:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * 写回累计的命中次数
+     *
+     * @return 本次写回的记录数
+     */
+    public synchronized int flush() {
+        Map<Long, Long> increments = new LinkedHashMap<>();
+        List<Long> idleIds = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingHits.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                increments.put(entry.getKey(), delta);
+            } else {
+                idleIds.add(entry.getKey());
+            }
+        }
+        // 上个周期以来没有命中的记录移除计数器，避免计数表无限增长；移除时再次确认期间没有新的命中
+        for (Long id : idleIds) {
+            pendingHits.computeIfPresent(id, (key, counter) -> counter.sum() == 0 ? null : counter);
+        }
+        if (increments.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : increments.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= FLUSH_BATCH_SIZE) {
+                flushBatch(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+        log.debug("路径缓存命中次数已写回: 记录数={}", increments.size());
+        return increments.size();
+    }
+
+    private void flushBatch(Map<Long, Long> batch) {
+        try {
+            optimalRouteCacheMapper.incrementHitCounts(batch);
+        } catch (Exception e) {
+            // 写回失败时把增量加回计数器，等待下个周期重试
+            log.warn("路径缓存命中次数写回失败，将在下个周期重试: {}", e.getMessage());
+            for (Map.Entry<Long, Long> entry : batch.entrySet()) {
+                pendingHits.computeIfAbsent(entry.getKey(), id -> new LongAdder()).add(entry.getValue());
+            }
+        }
+    }
+}
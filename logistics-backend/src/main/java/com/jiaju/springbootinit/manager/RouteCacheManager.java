@@ -0,0 +1,184 @@
+package com.jiaju.springbootinit.manager;
+
+import cn.hutool.cache.impl.LRUCache;
+import com.jiaju.springbootinit.config.RouteCacheConfig;
+import com.jiaju.springbootinit.model.enums.RoutingEngineEnum;
+import com.jiaju.springbootinit.model.vo.CacheStatsVO;
+import com.jiaju.springbootinit.model.vo.OptimalRouteVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路径计算结果本地一级缓存
+ * 位于 optimal_route_cache 表之前，缓存已组装完成的路径视图，按容量（LRU）和写入后有效期淘汰；
+ * 缓存键包含网络快照版本号，网络变更后旧条目自然失效，无需主动清理。
+ * 路径视图是可变对象，写入和读取时各复制一份，调用方修改返回结果不会影响缓存和其他请求
+ */
+@Component
+@Slf4j
+public class RouteCacheManager {
+
+    @Resource
+    private RouteCacheConfig routeCacheConfig;
+
+    @Resource
+    private LogisticsNetworkManager logisticsNetworkManager;
+
+    @Resource
+    private RouteCacheHitCounter routeCacheHitCounter;
+
+    private LRUCache<String, CachedRoute> cache;
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int capacity = Math.max(1, routeCacheConfig.getMaximumSize());
+        long timeoutMillis = Math.max(0L, routeCacheConfig.getTtlSeconds()) * 1000L;
+        cache = new LRUCache<>(capacity, timeoutMillis);
+        cache.setListener((key, value) -> evictionCount.increment());
+        log.info("路径本地缓存初始化完成: 容量={}, 有效期={}秒", capacity, routeCacheConfig.getTtlSeconds());
+    }
+
+    /**
+     * 生成自适应模式（按距离和区域自动选择权重）的缓存键
+     *
+     * @param fromStationId 起点站ID
+     * @param toStationId   终点站ID
+     * @return 缓存键
+     */
+    public String buildKey(Long fromStationId, Long toStationId) {
+        return currentVersion() + ":" + fromStationId + ":" + toStationId + ":auto";
+    }
+
+    /**
+     * 生成指定参数的缓存键
+     *
+     * @param fromStationId  起点站ID
+     * @param toStationId    终点站ID
+     * @param distanceWeight 距离权重
+     * @param timeWeight     时间权重
+     * @param costWeight     成本权重
+     * @param trafficFactor  交通因子
+     * @param enforceRegional 是否强制区域中转
+     * @param engine         路径引擎
+     * @return 缓存键
+     */
+    public String buildKey(Long fromStationId, Long toStationId, double distanceWeight, double timeWeight,
+                           double costWeight, double trafficFactor, boolean enforceRegional,
+                           RoutingEngineEnum engine) {
+        return currentVersion() + ":" + fromStationId + ":" + toStationId + ":"
+                + distanceWeight + ":" + timeWeight + ":" + costWeight + ":" + trafficFactor + ":"
+                + (enforceRegional ? 1 : 0) + ":" + engine.getValue();
+    }
+
+    private long currentVersion() {
+        // 确保快照已构建，避免首次请求以版本 0 写入缓存
+        return logisticsNetworkManager.getNetwork().getVersion();
+    }
+
+    /**
+     * 读取缓存，不刷新有效期；命中持久化路径时异步累加其数据库命中次数
+     *
+     * @param key 缓存键
+     * @return 路径视图，未命中返回 null
+     */
+    public OptimalRouteVO get(String key) {
+        CachedRoute cached = cache.get(key, false);
+        if (cached == null) {
+            return null;
+        }
+        routeCacheHitCounter.record(cached.cacheId);
+        return copyOf(cached.route);
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param key   缓存键
+     * @param route 路径视图
+     */
+    public void put(String key, OptimalRouteVO route) {
+        put(key, route, null);
+    }
+
+    /**
+     * 写入缓存，并关联对应的 optimal_route_cache 记录
+     *
+     * @param key     缓存键
+     * @param route   路径视图
+     * @param cacheId 数据库缓存记录ID，未持久化时为 null
+     */
+    public void put(String key, OptimalRouteVO route, Long cacheId) {
+        if (route != null) {
+            cache.put(key, new CachedRoute(copyOf(route), cacheId));
+        }
+    }
+
+    /**
+     * 复制路径视图及其路径点
+     */
+    private static OptimalRouteVO copyOf(OptimalRouteVO route) {
+        OptimalRouteVO copy = new OptimalRouteVO();
+        BeanUtils.copyProperties(route, copy);
+        if (route.getPathPoints() != null) {
+            List<OptimalRouteVO.PathPointVO> pathPoints = new ArrayList<>(route.getPathPoints().size());
+            for (OptimalRouteVO.PathPointVO pathPoint : route.getPathPoints()) {
+                OptimalRouteVO.PathPointVO pointCopy = null;
+                if (pathPoint != null) {
+                    pointCopy = new OptimalRouteVO.PathPointVO();
+                    BeanUtils.copyProperties(pathPoint, pointCopy);
+                }
+                pathPoints.add(pointCopy);
+            }
+            copy.setPathPoints(pathPoints);
+        }
+        return copy;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 获取缓存统计
+     */
+    public CacheStatsVO getStats() {
+        CacheStatsVO stats = new CacheStatsVO();
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        stats.setName("route");
+        stats.setSize(cache.size());
+        stats.setCapacity(cache.capacity());
+        stats.setHitCount(hits);
+        stats.setMissCount(misses);
+        stats.setEvictionCount(evictionCount.sum());
+        stats.setHitRate(hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        return stats;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class CachedRoute {
+
+        private final OptimalRouteVO route;
+
+        private final Long cacheId;
+
+        private CachedRoute(OptimalRouteVO route, Long cacheId) {
+            this.route = route;
+            this.cacheId = cacheId;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.jiaju.springbootinit.manager;
+
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.config.RoutingExecutorConfig;
+import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.model.vo.RoutingExecutorStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 全局共享的路径计算线程池
+ * 固定线程数加有界队列，队列满时直接拒绝并返回系统繁忙，避免并发批量请求无限制地创建线程；
+ * 同时统计队列深度、排队时间和执行时间
+ */
+@Component
+@Slf4j
+public class RoutingExecutorManager {
+
+    @Resource
+    private RoutingExecutorConfig routingExecutorConfig;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder submittedCount = new LongAdder();
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+
+    private final LongAdder totalExecutionNanos = new LongAdder();
+
+    private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = Math.max(1, routingExecutorConfig.getPoolSize());
+        int queueCapacity = Math.max(1, routingExecutorConfig.getQueueCapacity());
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "routing-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+        log.info("路径计算线程池初始化完成: 线程数={}, 队列容量={}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 工作线程数，调用方据此决定一次请求拆分为多少个任务
+     */
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    /**
+     * 批量计算默认超时时间（毫秒）
+     */
+    public long getDefaultTimeoutMillis() {
+        return routingExecutorConfig.getBatchTimeoutMillis();
+    }
+
+    /**
+     * 请求实际使用的超时时间：未指定时取默认值，指定值不超过默认值，
+     * 保证流式响应在 spring.mvc.async.request-timeout 之前结束
+     *
+     * @param requestedMillis 请求指定的超时时间（毫秒），可为空
+     */
+    public long resolveTimeoutMillis(Long requestedMillis) {
+        long defaultMillis = getDefaultTimeoutMillis();
+        return requestedMillis != null && requestedMillis > 0 ? Math.min(requestedMillis, defaultMillis) : defaultMillis;
+    }
+
+    /**
+     * 提交路径计算任务，队列已满时抛出系统繁忙异常
+     *
+     * @param task 任务
+     * @return 任务结果
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        long enqueueTime = System.nanoTime();
+        try {
+            Future<T> future = executor.submit(() -> {
+                long startTime = System.nanoTime();
+                totalQueueWaitNanos.add(startTime - enqueueTime);
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - startTime;
+                    totalExecutionNanos.add(elapsed);
+                    completedCount.increment();
+                    maxExecutionNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+            submittedCount.increment();
+            return future;
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            log.warn("路径计算线程池已满，拒绝任务: 队列深度={}", executor.getQueue().size());
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, "路径计算任务繁忙，请稍后重试");
+        }
+    }
+
+    /**
+     * 获取线程池运行指标
+     */
+    public RoutingExecutorStatsVO getStats() {
+        RoutingExecutorStatsVO stats = new RoutingExecutorStatsVO();
+        long completed = completedCount.sum();
+        stats.setPoolSize(executor.getCorePoolSize());
+        stats.setActiveCount(executor.getActiveCount());
+        stats.setQueueDepth(executor.getQueue().size());
+        stats.setQueueRemainingCapacity(executor.getQueue().remainingCapacity());
+        stats.setSubmittedCount(submittedCount.sum());
+        stats.setCompletedCount(completed);
+        stats.setRejectedCount(rejectedCount.sum());
+        stats.setAvgQueueWaitMillis(completed > 0 ? totalQueueWaitNanos.sum() / 1e6 / completed : 0.0);
+        stats.setAvgExecutionMillis(completed > 0 ? totalExecutionNanos.sum() / 1e6 / completed : 0.0);
+        stats.setMaxExecutionMillis(maxExecutionNanos.get() / 1e6);
+        return stats;
+    }
+}
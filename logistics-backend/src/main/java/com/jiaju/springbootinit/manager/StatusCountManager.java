@@ -0,0 +1,292 @@
+package com.jiaju.springbootinit.manager;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.jiaju.springbootinit.mapper.DriverMapper;
+import com.jiaju.springbootinit.mapper.TransportOrderMapper;
+import com.jiaju.springbootinit.mapper.TransportTaskMapper;
+import com.jiaju.springbootinit.mapper.VehicleMapper;
+import com.jiaju.springbootinit.model.entity.Driver;
+import com.jiaju.springbootinit.model.entity.TransportOrder;
+import com.jiaju.springbootinit.model.entity.TransportTask;
+import com.jiaju.springbootinit.model.entity.Vehicle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 任务、订单、车辆、司机的按状态计数
+ * 首次读取时每张表执行一次 GROUP BY status 初始化，之后由状态流转逻辑在事务提交后增量更新，
+ * 统计接口直接读取内存计数；无法得知旧状态的通用修改只把计数标记为过期，下次读取时重新统计。
+ * 定时与数据库对账，修正并发提交与重新统计交错等情况造成的偏差
+ */
+@Component
+@Slf4j
+public class StatusCountManager {
+
+    @Resource
+    private TransportTaskMapper transportTaskMapper;
+
+    @Resource
+    private TransportOrderMapper transportOrderMapper;
+
+    @Resource
+    private VehicleMapper vehicleMapper;
+
+    @Resource
+    private DriverMapper driverMapper;
+
+    private StatusCounter<TransportTask> tasks;
+
+    private StatusCounter<TransportOrder> orders;
+
+    private StatusCounter<Vehicle> vehicles;
+
+    private StatusCounter<Driver> drivers;
+
+    @PostConstruct
+    public void init() {
+        tasks = new StatusCounter<>("task", transportTaskMapper);
+        orders = new StatusCounter<>("order", transportOrderMapper);
+        vehicles = new StatusCounter<>("vehicle", vehicleMapper);
+        drivers = new StatusCounter<>("driver", driverMapper);
+    }
+
+    public StatusCounter<TransportTask> tasks() {
+        return tasks;
+    }
+
+    public StatusCounter<TransportOrder> orders() {
+        return orders;
+    }
+
+    public StatusCounter<Vehicle> vehicles() {
+        return vehicles;
+    }
+
+    public StatusCounter<Driver> drivers() {
+        return drivers;
+    }
+
+    /**
+     * 定时对账，只处理已经初始化过的计数
+     */
+    @Scheduled(fixedDelayString = "${status-count.reconcile-interval-millis:60000}")
+    public void scheduledReconcile() {
+        for (StatusCounter<?> counter : new StatusCounter<?>[]{tasks, orders, vehicles, drivers}) {
+            if (!counter.isSeeded()) {
+                continue;
+            }
+            try {
+                counter.reconcile();
+            } catch (Exception e) {
+                log.warn("状态计数对账失败: {}, {}", counter.name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 单张表的状态计数
+     *
+     * @param <T> 实体类型
+     */
+    public static final class StatusCounter<T> {
+
+        private final String name;
+
+        private final BaseMapper<T> mapper;
+
+        /**
+         * 状态 -> 数量，由 this 保护
+         */
+        private final Map<Integer, Long> counts = new HashMap<>();
+
+        private long total;
+
+        private boolean seeded;
+
+        private volatile boolean stale;
+
+        private StatusCounter(String name, BaseMapper<T> mapper) {
+            this.name = name;
+            this.mapper = mapper;
+        }
+
+        /**
+         * 记录状态流转，处于事务中时在提交后生效
+         *
+         * @param fromStatus 原状态
+         * @param toStatus   新状态
+         */
+        public void transition(Integer fromStatus, Integer toStatus) {
+            transition(fromStatus, toStatus, 1L);
+        }
+
+        /**
+         * 记录多条记录的相同状态流转，处于事务中时在提交后生效
+         *
+         * @param fromStatus 原状态
+         * @param toStatus   新状态
+         * @param count      记录数
+         */
+        public void transition(Integer fromStatus, Integer toStatus, long count) {
+            if (count <= 0 || Objects.equals(fromStatus, toStatus)) {
+                return;
+            }
+            if (fromStatus == null || toStatus == null) {
+                markStale();
+                return;
+            }
+            afterCommit(() -> apply(fromStatus, -count, toStatus, count));
+        }
+
+        /**
+         * 记录新增一条记录
+         *
+         * @param status 新记录状态，为空（取数据库默认值）时标记过期
+         */
+        public void created(Integer status) {
+            if (status == null) {
+                markStale();
+                return;
+            }
+            afterCommit(() -> apply(null, 0L, status, 1L));
+        }
+
+        /**
+         * 记录删除一条记录
+         *
+         * @param status 被删除记录的状态
+         */
+        public void removed(Integer status) {
+            if (status == null) {
+                markStale();
+                return;
+            }
+            afterCommit(() -> apply(status, -1L, null, 0L));
+        }
+
+        /**
+         * 标记计数过期，下次读取时重新统计；用于无法得知旧状态的通用修改
+         */
+        public void markStale() {
+            stale = true;
+            afterCommit(() -> stale = true);
+        }
+
+        /**
+         * 读取当前计数，未初始化或已过期时先查询数据库
+         */
+        public synchronized Snapshot snapshot() {
+            if (!seeded || stale) {
+                reload();
+            }
+            return new Snapshot(new HashMap<>(counts), total);
+        }
+
+        /**
+         * 与数据库分组统计结果对账
+         */
+        public synchronized void reconcile() {
+            Map<Integer, Long> before = seeded && !stale ? new HashMap<>(counts) : null;
+            reload();
+            if (before != null && !before.equals(counts)) {
+                log.warn("状态计数与数据库不一致，已按数据库修正: {}, 内存={}, 数据库={}", name, before, counts);
+            }
+        }
+
+        public synchronized boolean isSeeded() {
+            return seeded;
+        }
+
+        private void reload() {
+            // 先清除过期标记，查询期间到达的通用修改会重新标记
+            stale = false;
+            QueryWrapper<T> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("status", "COUNT(*) AS cnt").groupBy("status");
+            List<Map<String, Object>> rows = mapper.selectMaps(queryWrapper);
+            counts.clear();
+            total = 0;
+            for (Map<String, Object> row : rows) {
+                Object status = row.get("status");
+                Object count = row.get("cnt");
+                long value = count instanceof Number ? ((Number) count).longValue() : 0L;
+                total += value;
+                if (status instanceof Number) {
+                    counts.merge(((Number) status).intValue(), value, Long::sum);
+                }
+            }
+            seeded = true;
+            log.debug("状态计数已重新统计: {}, 总数={}, 分布={}", name, total, counts);
+        }
+
+        private synchronized void apply(Integer decStatus, long decrement, Integer incStatus, long increment) {
+            // 未初始化时不必维护，首次读取会直接统计
+            if (!seeded) {
+                return;
+            }
+            if (decStatus != null) {
+                counts.merge(decStatus, decrement, Long::sum);
+                total += decrement;
+            }
+            if (incStatus != null) {
+                counts.merge(incStatus, increment, Long::sum);
+                total += increment;
+            }
+        }
+
+        private static void afterCommit(Runnable action) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+            } else {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * 某一时刻的状态计数
+     */
+    public static final class Snapshot {
+
+        private final Map<Integer, Long> counts;
+
+        private final long total;
+
+        private Snapshot(Map<Integer, Long> counts, long total) {
+            this.counts = Collections.unmodifiableMap(counts);
+            this.total = total;
+        }
+
+        /**
+         * 指定状态的数量
+         */
+        public long get(int status) {
+            Long count = counts.get(status);
+            return count != null ? count : 0L;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public Map<Integer, Long> getCounts() {
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.jiaju.springbootinit.manager;
+
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.config.StatusEventConfig;
+import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.model.entity.Station;
+import com.jiaju.springbootinit.model.entity.TransportOrder;
+import com.jiaju.springbootinit.model.entity.TransportTask;
+import com.jiaju.springbootinit.model.vo.StatusChangeEventVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 任务/订单状态变更事件总线与 SSE 推送
+ * 服务层在事务提交后发布状态变更，事件按订阅者的站点/区域/类型条件分发到各自的有界缓冲区；
+ * 推送线程按固定周期批量发送，周期内同一对象的多次变更合并为一条。缓冲区满时丢弃最早的事件，
+ * 并在下次推送时发送 resync 事件，提示客户端重新拉取列表和统计
+ */
+@Component
+@Slf4j
+public class StatusEventManager {
+
+    public static final String TYPE_TASK = "task";
+
+    public static final String TYPE_ORDER = "order";
+
+    /**
+     * SSE 事件名：状态变更（数据为事件数组）
+     */
+    private static final String EVENT_STATUS_CHANGE = "status-change";
+
+    /**
+     * SSE 事件名：有事件被丢弃，需要重新拉取
+     */
+    private static final String EVENT_RESYNC = "resync";
+
+    @Resource
+    private StatusEventConfig statusEventConfig;
+
+    @Resource
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder publishedCount = new LongAdder();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private ScheduledExecutorService dispatcher;
+
+    @PostConstruct
+    public void init() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-event-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(10L, statusEventConfig.getFlushIntervalMillis());
+        dispatcher.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * 建立订阅
+     *
+     * @param type      对象类型过滤（task / order），为空表示全部
+     * @param stationId 站点过滤，匹配起点或终点，为空表示全部
+     * @param regionId  区域过滤，匹配起点或终点所属区域，为空表示全部
+     * @return SSE 连接
+     */
+    public SseEmitter subscribe(String type, Long stationId, Long regionId) {
+        if (subscribers.size() >= statusEventConfig.getMaxSubscribers()) {
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, "状态推送连接数已达上限");
+        }
+        SseEmitter emitter = new SseEmitter(statusEventConfig.getConnectionTimeoutMillis());
+        Subscriber subscriber = new Subscriber(emitter, type, stationId, regionId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (Exception e) {
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * 发布任务状态变更，处于事务中时在提交后分发
+     *
+     * @param task       任务（变更后）
+     * @param fromStatus 原状态，新建时为空
+     * @param toStatus   新状态，删除时为空
+     */
+    public void taskChanged(TransportTask task, Integer fromStatus, Integer toStatus) {
+        if (subscribers.isEmpty() || task == null) {
+            return;
+        }
+        StatusChangeEventVO event = new StatusChangeEventVO();
+        event.setType(TYPE_TASK);
+        event.setId(task.getId());
+        event.setNo(task.getTaskNo());
+        event.setFromStatus(fromStatus);
+        event.setToStatus(toStatus);
+        event.setSourceStationId(task.getSourceId());
+        event.setTargetStationId(task.getTargetId());
+        publish(event);
+    }
+
+    /**
+     * 发布订单状态变更，处于事务中时在提交后分发
+     *
+     * @param order      订单（变更后）
+     * @param fromStatus 原状态，新建时为空
+     * @param toStatus   新状态，删除时为空
+     */
+    public void orderChanged(TransportOrder order, Integer fromStatus, Integer toStatus) {
+        if (subscribers.isEmpty() || order == null) {
+            return;
+        }
+        StatusChangeEventVO event = new StatusChangeEventVO();
+        event.setType(TYPE_ORDER);
+        event.setId(order.getId());
+        event.setNo(order.getOrderNo());
+        event.setFromStatus(fromStatus);
+        event.setToStatus(toStatus);
+        event.setSourceStationId(order.getSourceStationId());
+        event.setTargetStationId(order.getTargetStationId());
+        publish(event);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    private void publish(StatusChangeEventVO event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    /**
+     * 补全区域信息后放入匹配的订阅者缓冲区；事件对象在订阅者之间共享，之后不再修改
+     */
+    private void dispatch(StatusChangeEventVO event) {
+        try {
+            Map<Long, Station> stations = referenceDataCacheManager.stations()
+                    .getAll(Arrays.asList(event.getSourceStationId(), event.getTargetStationId()));
+            Station source = stations.get(event.getSourceStationId());
+            Station target = stations.get(event.getTargetStationId());
+            event.setSourceRegionId(source != null ? source.getRegionId() : null);
+            event.setTargetRegionId(target != null ? target.getRegionId() : null);
+        } catch (Exception e) {
+            // 在事务提交后执行，不能让查询失败影响已提交的业务操作；区域缺失时只影响按区域过滤
+            log.warn("状态变更事件补全区域失败: {}:{}, {}", event.getType(), event.getId(), e.getMessage());
+        }
+        event.setChangeTime(new Date());
+        event.setSequence(sequence.incrementAndGet());
+        publishedCount.increment();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * 推送线程：发送各订阅者缓冲的事件，空闲连接发送心跳
+     */
+    private void flushAll() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.flush(now);
+            } catch (Exception e) {
+                // 客户端已断开或写出失败，移除订阅
+                log.debug("状态推送连接已失效，移除订阅: {}", e.getMessage());
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * 单个订阅连接
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final String type;
+
+        private final Long stationId;
+
+        private final Long regionId;
+
+        /**
+         * 类型:ID -> 待推送事件，按首次到达顺序排列，由 this 保护
+         */
+        private final LinkedHashMap<String, StatusChangeEventVO> pending = new LinkedHashMap<>();
+
+        private boolean overflow;
+
+        private long lastSendMillis = System.currentTimeMillis();
+
+        private Subscriber(SseEmitter emitter, String type, Long stationId, Long regionId) {
+            this.emitter = emitter;
+            this.type = type;
+            this.stationId = stationId;
+            this.regionId = regionId;
+        }
+
+        private boolean matches(StatusChangeEventVO event) {
+            if (type != null && !type.equals(event.getType())) {
+                return false;
+            }
+            if (stationId != null && !stationId.equals(event.getSourceStationId())
+                    && !stationId.equals(event.getTargetStationId())) {
+                return false;
+            }
+            return regionId == null || regionId.equals(event.getSourceRegionId())
+                    || regionId.equals(event.getTargetRegionId());
+        }
+
+        private synchronized void offer(StatusChangeEventVO event) {
+            String key = event.getType() + ":" + event.getId();
+            StatusChangeEventVO previous = pending.get(key);
+            if (previous != null) {
+                // 合并为一条：保留首次变更前的状态，其余取最新
+                StatusChangeEventVO merged = new StatusChangeEventVO();
+                BeanUtils.copyProperties(event, merged);
+                merged.setFromStatus(previous.getFromStatus());
+                pending.put(key, merged);
+                coalescedCount.increment();
+                return;
+            }
+            if (pending.size() >= Math.max(1, statusEventConfig.getBufferSize())) {
+                Iterator<StatusChangeEventVO> iterator = pending.values().iterator();
+                iterator.next();
+                iterator.remove();
+                overflow = true;
+                droppedCount.increment();
+            }
+            pending.put(key, event);
+        }
+
+        private void flush(long now) throws Exception {
+            List<StatusChangeEventVO> events;
+            boolean resync;
+            synchronized (this) {
+                events = pending.isEmpty() ? null : new ArrayList<>(pending.values());
+                pending.clear();
+                resync = overflow;
+                overflow = false;
+            }
+            if (resync) {
+                emitter.send(SseEmitter.event().name(EVENT_RESYNC).data("{}", MediaType.APPLICATION_JSON));
+            }
+            if (events != null) {
+                long lastSequence = 0;
+                for (StatusChangeEventVO event : events) {
+                    lastSequence = Math.max(lastSequence, event.getSequence());
+                }
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(lastSequence))
+                        .name(EVENT_STATUS_CHANGE)
+                        .data(events, MediaType.APPLICATION_JSON));
+            }
+            if (resync || events != null) {
+                lastSendMillis = now;
+            } else if (now - lastSendMillis >= statusEventConfig.getHeartbeatIntervalMillis()) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                lastSendMillis = now;
+            }
+        }
+    }
+}
@@ -2,10 +2,22 @@ package com.jiaju.springbootinit.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jiaju.springbootinit.model.entity.Driver;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * 司机数据库操作
  */
 public interface DriverMapper extends BaseMapper<Driver> {
 
+    /**
+     * 按预期状态修改司机状态，司机当前状态不是预期状态时不修改
+     *
+     * @param id         司机ID
+     * @param fromStatus 预期的当前状态
+     * @param toStatus   新状态
+     * @return 影响行数，0 表示状态已被其他操作修改
+     */
+    @Update("UPDATE driver SET status = #{toStatus} WHERE id = #{id} AND status = #{fromStatus} AND is_delete = 0")
+    int compareAndSetStatus(@Param("id") Long id, @Param("fromStatus") int fromStatus, @Param("toStatus") int toStatus);
 } 
\ No newline at end of file
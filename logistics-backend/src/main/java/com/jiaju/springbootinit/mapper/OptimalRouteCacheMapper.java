@@ -3,7 +3,25 @@ package com.jiaju.springbootinit.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jiaju.springbootinit.model.entity.OptimalRouteCache;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Map;
 
 @Mapper
 public interface OptimalRouteCacheMapper extends BaseMapper<OptimalRouteCache> {
-}
\ No newline at end of file
+
+    /**
+     * 批量累加缓存命中次数，一条语句完成多行更新
+     *
+     * @param increments 缓存记录ID -> 命中次数增量
+     * @return 影响行数
+     */
+    @Update({"<script>",
+            "UPDATE optimal_route_cache SET hit_count = COALESCE(hit_count, 0) + CASE id",
+            "<foreach collection='increments' index='id' item='delta'>WHEN #{id} THEN #{delta} </foreach>",
+            "ELSE 0 END WHERE id IN",
+            "<foreach collection='increments' index='id' item='delta' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    int incrementHitCounts(@Param("increments") Map<Long, Long> increments);
+}
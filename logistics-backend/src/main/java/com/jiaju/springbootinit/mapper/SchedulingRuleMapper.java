@@ -0,0 +1,11 @@
+package com.jiaju.springbootinit.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.jiaju.springbootinit.model.entity.SchedulingRule;
+
+/**
+ * 调度规则数据库操作
+ */
+public interface SchedulingRuleMapper extends BaseMapper<SchedulingRule> {
+
+}
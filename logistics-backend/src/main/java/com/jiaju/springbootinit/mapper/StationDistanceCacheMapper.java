@@ -0,0 +1,30 @@
+package com.jiaju.springbootinit.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.jiaju.springbootinit.model.entity.StationDistanceCache;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 站点间距离缓存数据库操作
+ */
+public interface StationDistanceCacheMapper extends BaseMapper<StationDistanceCache> {
+
+    /**
+     * 批量写入站点间距离，已存在的站点对覆盖距离
+     * 依赖 (from_station_id, to_station_id) 唯一键，见 db/update_station_distance_cache_unique.sql
+     *
+     * @param distances 距离记录
+     * @return 影响行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO station_distance_cache (from_station_id, to_station_id, distance) VALUES",
+            "<foreach collection='distances' item='item' separator=','>",
+            "(#{item.fromStationId}, #{item.toStationId}, #{item.distance})",
+            "</foreach>",
+            "ON DUPLICATE KEY UPDATE distance = VALUES(distance)",
+            "</script>"})
+    int upsertBatch(@Param("distances") List<StationDistanceCache> distances);
+}
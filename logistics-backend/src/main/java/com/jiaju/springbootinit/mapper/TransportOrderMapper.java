@@ -2,10 +2,23 @@ package com.jiaju.springbootinit.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jiaju.springbootinit.model.entity.TransportOrder;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Date;
 
 /**
  * 运输订单Mapper
  */
 public interface TransportOrderMapper extends BaseMapper<TransportOrder> {
 
-} 
\ No newline at end of file
+    /**
+     * 仅当订单仍处于待分配状态时更新为已分配
+     *
+     * @param id         订单ID
+     * @param assignTime 分配时间
+     * @return 影响行数，0 表示订单已不处于待分配状态
+     */
+    @Update("UPDATE transport_order SET status = 1, assign_time = #{assignTime} WHERE id = #{id} AND status = 0 AND is_delete = 0")
+    int assignIfPending(@Param("id") Long id, @Param("assignTime") Date assignTime);
+}
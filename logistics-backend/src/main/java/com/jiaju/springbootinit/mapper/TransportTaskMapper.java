@@ -2,10 +2,27 @@ package com.jiaju.springbootinit.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jiaju.springbootinit.model.entity.TransportTask;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Date;
 
 /**
  * 运输任务Mapper
  */
 public interface TransportTaskMapper extends BaseMapper<TransportTask> {
 
-} 
\ No newline at end of file
+    /**
+     * 分配待分配的任务：仅当任务仍处于待分配状态时更新为待执行并写入车辆和司机
+     *
+     * @param id         任务ID
+     * @param vehicleId  车辆ID
+     * @param driverId   司机ID
+     * @param assignTime 分配时间
+     * @return 影响行数，0 表示任务已不处于待分配状态
+     */
+    @Update("UPDATE transport_task SET status = 1, vehicle_id = #{vehicleId}, driver_id = #{driverId}, assign_time = #{assignTime} "
+            + "WHERE id = #{id} AND status = 0 AND is_delete = 0")
+    int assignIfPending(@Param("id") Long id, @Param("vehicleId") Long vehicleId,
+                        @Param("driverId") Long driverId, @Param("assignTime") Date assignTime);
+}
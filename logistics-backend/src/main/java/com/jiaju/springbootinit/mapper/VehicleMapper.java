@@ -2,7 +2,9 @@ package com.jiaju.springbootinit.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.jiaju.springbootinit.model.entity.Vehicle;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
 
@@ -18,4 +20,15 @@ public interface VehicleMapper extends BaseMapper<Vehicle> {
      */
     @Select("SELECT DISTINCT vehicle_type FROM vehicle WHERE is_delete = 0 AND vehicle_type IS NOT NULL")
     List<String> selectAllVehicleTypes();
-} 
\ No newline at end of file
+
+    /**
+     * 按预期状态修改车辆状态，车辆当前状态不是预期状态时不修改
+     *
+     * @param id         车辆ID
+     * @param fromStatus 预期的当前状态
+     * @param toStatus   新状态
+     * @return 影响行数，0 表示状态已被其他操作修改
+     */
+    @Update("UPDATE vehicle SET status = #{toStatus} WHERE id = #{id} AND status = #{fromStatus} AND is_delete = 0")
+    int compareAndSetStatus(@Param("id") Long id, @Param("fromStatus") int fromStatus, @Param("toStatus") int toStatus);
+}
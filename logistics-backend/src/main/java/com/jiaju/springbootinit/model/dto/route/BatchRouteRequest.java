@@ -24,6 +24,12 @@ public class BatchRouteRequest {
     @ApiModelProperty("是否强制区域中转")
     private Boolean enforceTransfer;
     
+    @ApiModelProperty("超时时间(毫秒)，不填使用系统默认值，不能超过系统默认值")
+    private Long timeoutMillis;
+    
+    @ApiModelProperty("路径引擎 (astar/bidirectional/ch, 默认取配置)")
+    private String engine;
+    
     @Data
     public static class RouteItem {
         @ApiModelProperty("起点站点ID")
@@ -26,5 +26,8 @@ public class RouteAdvancedRequest {
     @ApiModelProperty("是否强制区域中转")
     private Boolean enforceTransfer;
     
+    @ApiModelProperty("路径引擎 (astar/bidirectional/ch, 默认取配置)")
+    private String engine;
+    
     // getters and setters
 }
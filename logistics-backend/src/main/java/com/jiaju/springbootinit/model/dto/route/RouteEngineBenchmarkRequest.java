@@ -0,0 +1,25 @@
+package com.jiaju.springbootinit.model.dto.route;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+@Data
+public class RouteEngineBenchmarkRequest {
+    @ApiModelProperty("抽样站点对数量 (默认200, 最大2000)")
+    private Integer sampleSize;
+    
+    @ApiModelProperty("随机种子，相同种子抽取相同的站点对")
+    private Long seed;
+    
+    @ApiModelProperty("距离权重 (0-1)")
+    private Double distanceWeight;
+    
+    @ApiModelProperty("时间权重 (0-1)")
+    private Double timeWeight;
+    
+    @ApiModelProperty("成本权重 (0-1)")
+    private Double costWeight;
+    
+    @ApiModelProperty("是否强制区域中转")
+    private Boolean enforceTransfer;
+}
@@ -0,0 +1,32 @@
+package com.jiaju.springbootinit.model.dto.route;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class RouteMatrixRequest {
+    @ApiModelProperty("起点站点ID列表")
+    private List<Long> originStationIds;
+    
+    @ApiModelProperty("终点站点ID列表")
+    private List<Long> destinationStationIds;
+    
+    @ApiModelProperty("距离权重 (0-1)")
+    private Double distanceWeight;
+    
+    @ApiModelProperty("时间权重 (0-1)")
+    private Double timeWeight;
+    
+    @ApiModelProperty("成本权重 (0-1)")
+    private Double costWeight;
+    
+    @ApiModelProperty("交通因子 (0.8-2.0, 默认1.0)")
+    private Double trafficFactor;
+    
+    @ApiModelProperty("是否强制区域中转")
+    private Boolean enforceTransfer;
+    
+    @ApiModelProperty("超时时间(毫秒)，不填使用系统默认值，不能超过系统默认值")
+    private Long timeoutMillis;
+}
@@ -0,0 +1,44 @@
+package com.jiaju.springbootinit.model.dto.task;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量分配任务请求
+ */
+@Data
+public class TaskAssignBatchRequest implements Serializable {
+
+    /**
+     * 分配项，同一批次中任务、车辆、司机均不能重复
+     */
+    private List<AssignItem> items;
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 单个任务的分配
+     */
+    @Data
+    public static class AssignItem implements Serializable {
+
+        /**
+         * 任务ID
+         */
+        private Long taskId;
+
+        /**
+         * 车辆ID
+         */
+        private Long vehicleId;
+
+        /**
+         * 司机ID
+         */
+        private Long driverId;
+
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,30 @@
+package com.jiaju.springbootinit.model.dto.task;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 自动调度请求
+ */
+@Data
+public class TaskAutoDispatchRequest implements Serializable {
+
+    /**
+     * 参与调度的任务ID，不传表示按计划开始时间取全部待分配任务
+     */
+    private List<Long> taskIds;
+
+    /**
+     * 调度规则代码，不传表示不使用规则约束，各因子取 1
+     */
+    private String ruleCode;
+
+    /**
+     * 是否只计算方案而不执行分配
+     */
+    private Boolean dryRun;
+
+    private static final long serialVersionUID = 1L;
+}
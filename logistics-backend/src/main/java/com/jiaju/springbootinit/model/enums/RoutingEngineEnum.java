@@ -0,0 +1,60 @@
+package com.jiaju.springbootinit.model.enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.ObjectUtils;
+
+/**
+ * 路径计算引擎枚举
+ */
+public enum RoutingEngineEnum {
+
+    ASTAR("A*搜索", "astar"),
+    BIDIRECTIONAL("双向A*搜索", "bidirectional"),
+    CH("收缩层次", "ch");
+
+    private final String text;
+
+    private final String value;
+
+    RoutingEngineEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 获取值列表
+     *
+     * @return
+     */
+    public static List<String> getValues() {
+        return Arrays.stream(values()).map(item -> item.value).collect(Collectors.toList());
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value
+     * @return
+     */
+    public static RoutingEngineEnum getEnumByValue(String value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (RoutingEngineEnum anEnum : RoutingEngineEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -15,6 +15,12 @@ public class BatchRouteVO {
     @ApiModelProperty("失败的路径数量")
     private Integer failedCount;
     
+    @ApiModelProperty("去重后的不同站点对数量")
+    private Integer distinctPairCount;
+    
+    @ApiModelProperty("实际执行的路径搜索次数（同一起点的多个终点共用一次最短路径树搜索）")
+    private Integer searchCount;
+    
     @ApiModelProperty("路径结果列表")
     private List<BatchRouteResultItem> results;
     
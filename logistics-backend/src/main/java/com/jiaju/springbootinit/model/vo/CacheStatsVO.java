@@ -0,0 +1,48 @@
+package com.jiaju.springbootinit.model.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 本地缓存统计视图
+ */
+@Data
+public class CacheStatsVO implements Serializable {
+
+    /**
+     * 缓存名称
+     */
+    private String name;
+
+    /**
+     * 当前条目数
+     */
+    private Integer size;
+
+    /**
+     * 最大条目数
+     */
+    private Integer capacity;
+
+    /**
+     * 命中次数
+     */
+    private Long hitCount;
+
+    /**
+     * 未命中次数
+     */
+    private Long missCount;
+
+    /**
+     * 淘汰（过期或容量淘汰）次数
+     */
+    private Long evictionCount;
+
+    /**
+     * 命中率
+     */
+    private Double hitRate;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,63 @@
+package com.jiaju.springbootinit.model.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 收缩层次索引统计视图
+ */
+@Data
+public class ContractionHierarchyStatsVO implements Serializable {
+
+    /**
+     * 网络快照版本
+     */
+    private Long networkVersion;
+
+    /**
+     * 距离权重
+     */
+    private Double distanceWeight;
+
+    /**
+     * 时间权重
+     */
+    private Double timeWeight;
+
+    /**
+     * 成本权重
+     */
+    private Double costWeight;
+
+    /**
+     * 是否强制区域中转
+     */
+    private Boolean enforceTransfer;
+
+    /**
+     * 节点数
+     */
+    private Integer nodeCount;
+
+    /**
+     * 弧数（原始边 + 捷径）
+     */
+    private Integer arcCount;
+
+    /**
+     * 捷径数
+     */
+    private Integer shortcutCount;
+
+    /**
+     * 预处理耗时（毫秒）
+     */
+    private Long preprocessMillis;
+
+    /**
+     * 索引内存估算（字节）
+     */
+    private Long memoryBytes;
+
+    private static final long serialVersionUID = 1L;
+}
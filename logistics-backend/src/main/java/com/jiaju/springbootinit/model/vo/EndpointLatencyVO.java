@@ -0,0 +1,58 @@
+package com.jiaju.springbootinit.model.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 接口耗时统计视图
+ */
+@Data
+public class EndpointLatencyVO implements Serializable {
+
+    /**
+     * 接口（控制器类名.方法名）
+     */
+    private String endpoint;
+
+    /**
+     * 请求次数
+     */
+    private Long count;
+
+    /**
+     * 异常结束的请求次数
+     */
+    private Long errorCount;
+
+    /**
+     * 处理中的请求数
+     */
+    private Integer inFlight;
+
+    /**
+     * 平均耗时（毫秒）
+     */
+    private Double meanMillis;
+
+    /**
+     * P50 耗时（毫秒）
+     */
+    private Double p50Millis;
+
+    /**
+     * P95 耗时（毫秒）
+     */
+    private Double p95Millis;
+
+    /**
+     * P99 耗时（毫秒）
+     */
+    private Double p99Millis;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    private Double maxMillis;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,58 @@
+package com.jiaju.springbootinit.model.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 路径引擎基准测试结果视图（各引擎使用同一批站点对）
+ */
+@Data
+public class RouteEngineBenchmarkVO implements Serializable {
+
+    /**
+     * 引擎取值
+     */
+    private String engine;
+
+    /**
+     * 引擎名称
+     */
+    private String engineName;
+
+    /**
+     * 查询次数
+     */
+    private Integer queryCount;
+
+    /**
+     * 找到路径的次数
+     */
+    private Integer foundCount;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private Double totalMillis;
+
+    /**
+     * 平均单次耗时（微秒）
+     */
+    private Double avgMicros;
+
+    /**
+     * 最大单次耗时（微秒）
+     */
+    private Double maxMicros;
+
+    /**
+     * 找到路径的平均总距离（公里）
+     */
+    private Double avgDistance;
+
+    /**
+     * 找到路径的平均预计时间（分钟）
+     */
+    private Double avgTime;
+
+    private static final long serialVersionUID = 1L;
+}
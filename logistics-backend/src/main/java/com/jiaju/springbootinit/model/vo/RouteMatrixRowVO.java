@@ -0,0 +1,29 @@
+package com.jiaju.springbootinit.model.vo;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class RouteMatrixRowVO {
+    @ApiModelProperty("起点在请求列表中的下标")
+    private Integer originIndex;
+    
+    @ApiModelProperty("起点站点ID")
+    private Long originStationId;
+    
+    @ApiModelProperty("是否成功")
+    private Boolean success;
+    
+    @ApiModelProperty("错误信息")
+    private String errorMessage;
+    
+    @ApiModelProperty("到各终点的综合代价，按请求终点顺序，不可达为null")
+    private List<Double> costs;
+    
+    @ApiModelProperty("到各终点的总距离(公里)，不可达为null")
+    private List<Double> distances;
+    
+    @ApiModelProperty("到各终点的预计时间(分钟)，已应用交通因子，不可达为null")
+    private List<Integer> times;
+}
@@ -0,0 +1,63 @@
+package com.jiaju.springbootinit.model.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 路径计算线程池运行指标视图
+ */
+@Data
+public class RoutingExecutorStatsVO implements Serializable {
+
+    /**
+     * 工作线程数
+     */
+    private Integer poolSize;
+
+    /**
+     * 正在执行的任务数
+     */
+    private Integer activeCount;
+
+    /**
+     * 等待队列中的任务数
+     */
+    private Integer queueDepth;
+
+    /**
+     * 等待队列剩余容量
+     */
+    private Integer queueRemainingCapacity;
+
+    /**
+     * 已提交任务数
+     */
+    private Long submittedCount;
+
+    /**
+     * 已完成任务数
+     */
+    private Long completedCount;
+
+    /**
+     * 因队列已满被拒绝的任务数
+     */
+    private Long rejectedCount;
+
+    /**
+     * 平均排队时间（毫秒）
+     */
+    private Double avgQueueWaitMillis;
+
+    /**
+     * 平均执行时间（毫秒）
+     */
+    private Double avgExecutionMillis;
+
+    /**
+     * 最长执行时间（毫秒）
+     */
+    private Double maxExecutionMillis;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,70 @@
+package com.jiaju.springbootinit.model.vo;
+
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * 任务/订单状态变更事件视图
+ * 同一对象在一个推送周期内的多次变更合并为一条，原状态取首次变更前，新状态取最后一次变更后
+ */
+@Data
+public class StatusChangeEventVO implements Serializable {
+
+    /**
+     * 事件序号，全局递增
+     */
+    private Long sequence;
+
+    /**
+     * 对象类型：task / order
+     */
+    private String type;
+
+    /**
+     * 任务或订单ID
+     */
+    private Long id;
+
+    /**
+     * 任务编号或订单编号
+     */
+    private String no;
+
+    /**
+     * 原状态，新建时为空
+     */
+    private Integer fromStatus;
+
+    /**
+     * 新状态，删除时为空
+     */
+    private Integer toStatus;
+
+    /**
+     * 起点站点ID
+     */
+    private Long sourceStationId;
+
+    /**
+     * 终点站点ID
+     */
+    private Long targetStationId;
+
+    /**
+     * 起点站点所属区域ID
+     */
+    private Long sourceRegionId;
+
+    /**
+     * 终点站点所属区域ID
+     */
+    private Long targetRegionId;
+
+    /**
+     * 最后一次变更时间
+     */
+    private Date changeTime;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,63 @@
+package com.jiaju.springbootinit.model.vo;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 批量分配任务结果视图
+ */
+@Data
+public class TaskAssignBatchVO implements Serializable {
+
+    /**
+     * 分配成功的数量
+     */
+    private Integer successCount;
+
+    /**
+     * 分配失败的数量
+     */
+    private Integer failedCount;
+
+    /**
+     * 逐项结果，顺序与请求一致
+     */
+    private List<TaskAssignResultItem> results;
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 单个任务的分配结果
+     */
+    @Data
+    public static class TaskAssignResultItem implements Serializable {
+
+        /**
+         * 任务ID
+         */
+        private Long taskId;
+
+        /**
+         * 车辆ID
+         */
+        private Long vehicleId;
+
+        /**
+         * 司机ID
+         */
+        private Long driverId;
+
+        /**
+         * 是否成功
+         */
+        private Boolean success;
+
+        /**
+         * 失败原因
+         */
+        private String errorMessage;
+
+        private static final long serialVersionUID = 1L;
+    }
+}
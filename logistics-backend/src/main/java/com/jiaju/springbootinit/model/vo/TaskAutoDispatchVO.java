@@ -0,0 +1,162 @@
+package com.jiaju.springbootinit.model.vo;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 自动调度结果视图
+ */
+@Data
+public class TaskAutoDispatchVO implements Serializable {
+
+    /**
+     * 使用的调度规则代码，未使用规则时为空
+     */
+    private String ruleCode;
+
+    /**
+     * 是否只计算了方案
+     */
+    private Boolean dryRun;
+
+    /**
+     * 参与调度的待分配任务数
+     */
+    private Integer taskCount;
+
+    /**
+     * 参与调度的空闲车辆数（已按车型约束过滤）
+     */
+    private Integer vehicleCount;
+
+    /**
+     * 参与调度的空闲司机数（已按司机要求过滤）
+     */
+    private Integer driverCount;
+
+    /**
+     * 方案中的分配数
+     */
+    private Integer plannedCount;
+
+    /**
+     * 实际分配成功数，只计算方案时为 0
+     */
+    private Integer assignedCount;
+
+    /**
+     * 方案总代价
+     */
+    private Double totalCost;
+
+    /**
+     * 计算方案耗时（毫秒），含路径矩阵与指派求解
+     */
+    private Long planMillis;
+
+    /**
+     * 执行分配耗时（毫秒）
+     */
+    private Long assignMillis;
+
+    /**
+     * 分配方案及执行结果
+     */
+    private List<DispatchAssignment> assignments;
+
+    /**
+     * 未能分配的任务
+     */
+    private List<UnassignedTask> unassignedTasks;
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 单个任务的分配方案
+     */
+    @Data
+    public static class DispatchAssignment implements Serializable {
+
+        /**
+         * 任务ID
+         */
+        private Long taskId;
+
+        /**
+         * 任务编号
+         */
+        private String taskNo;
+
+        /**
+         * 车辆ID
+         */
+        private Long vehicleId;
+
+        /**
+         * 车牌号
+         */
+        private String vehicleNo;
+
+        /**
+         * 司机ID
+         */
+        private Long driverId;
+
+        /**
+         * 司机姓名
+         */
+        private String driverName;
+
+        /**
+         * 车辆所在站点到任务起点的空驶距离（公里）
+         */
+        private Double deadheadDistance;
+
+        /**
+         * 空驶时间（分钟）
+         */
+        private Integer deadheadTime;
+
+        /**
+         * 该组合的代价
+         */
+        private Double cost;
+
+        /**
+         * 是否分配成功，只计算方案时为空
+         */
+        private Boolean success;
+
+        /**
+         * 分配失败原因
+         */
+        private String errorMessage;
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * 未能分配的任务
+     */
+    @Data
+    public static class UnassignedTask implements Serializable {
+
+        /**
+         * 任务ID
+         */
+        private Long taskId;
+
+        /**
+         * 任务编号
+         */
+        private String taskNo;
+
+        /**
+         * 原因
+         */
+        private String reason;
+
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,19 @@
+package com.jiaju.springbootinit.service;
+
+import com.jiaju.springbootinit.model.dto.task.TaskAutoDispatchRequest;
+import com.jiaju.springbootinit.model.vo.TaskAutoDispatchVO;
+
+/**
+ * 自动调度服务
+ */
+public interface DispatchService {
+
+    /**
+     * 为待分配任务自动匹配空闲车辆和司机
+     * 按空驶路径、载重体积与调度规则计算每个任务与车辆组合的代价，整体求最小代价指派，再通过批量分配执行
+     *
+     * @param request 调度请求
+     * @return 分配方案及执行结果
+     */
+    TaskAutoDispatchVO autoDispatch(TaskAutoDispatchRequest request);
+}
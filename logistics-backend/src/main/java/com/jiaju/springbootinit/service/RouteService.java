@@ -4,9 +4,14 @@ import com.jiaju.springbootinit.model.entity.Route;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.jiaju.springbootinit.model.vo.OptimalRouteVO;
 import com.jiaju.springbootinit.model.dto.route.BatchRouteRequest;
+import com.jiaju.springbootinit.model.dto.route.RouteEngineBenchmarkRequest;
+import com.jiaju.springbootinit.model.dto.route.RouteMatrixRequest;
 import com.jiaju.springbootinit.model.vo.BatchRouteVO;
+import com.jiaju.springbootinit.model.vo.RouteEngineBenchmarkVO;
+import com.jiaju.springbootinit.model.vo.RouteMatrixRowVO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface RouteService extends IService<Route> {
 
@@ -45,11 +50,63 @@ public interface RouteService extends IService<Route> {
             Double costWeight,
             Double trafficFactor,
             Boolean enforceTransfer);
+
+    /**
+     * 使用高级参数并指定路径引擎计算两站点间最优路径
+     * @param fromStationId 起点站点ID
+     * @param toStationId 终点站点ID
+     * @param distanceWeight 距离权重
+     * @param timeWeight 时间权重
+     * @param costWeight 成本权重
+     * @param trafficFactor 交通因子
+     * @param enforceTransfer 是否强制区域中转
+     * @param engine 路径引擎（astar / ch），为空时使用配置的默认引擎
+     * @return 最优路径视图对象
+     */
+    OptimalRouteVO calculateOptimalRouteAdvanced(
+            Long fromStationId,
+            Long toStationId,
+            Double distanceWeight,
+            Double timeWeight,
+            Double costWeight,
+            Double trafficFactor,
+            Boolean enforceTransfer,
+            String engine);
             
+    /**
+     * 重新构建物流网络快照（直线距离等数据在系统外变更后调用）
+     * @return 新快照版本号
+     */
+    long refreshNetwork();
+
     /**
      * 批量计算最优路径
      * @param request 批量路径请求
      * @return 批量路径结果
      */
     BatchRouteVO calculateBatchOptimalRoutes(BatchRouteRequest request);
+
+    /**
+     * 批量计算最优路径，结果项完成后立即交给 itemConsumer（在调用线程中按完成顺序执行）
+     * @param request 批量路径请求
+     * @param itemConsumer 结果项处理，消费速度决定计算线程的推进速度
+     * @return 汇总结果（不含结果列表）
+     */
+    BatchRouteVO streamBatchOptimalRoutes(BatchRouteRequest request,
+                                          Consumer<BatchRouteVO.BatchRouteResultItem> itemConsumer);
+
+    /**
+     * 在同一批随机站点对上对比各路径引擎的耗时与结果
+     * @param request 基准测试参数
+     * @return 各引擎的测试结果，收缩层次索引未就绪时不包含该引擎
+     */
+    List<RouteEngineBenchmarkVO> benchmarkEngines(RouteEngineBenchmarkRequest request);
+
+    /**
+     * 计算多对多路径矩阵，每个起点执行一次一对多搜索，各起点在共享线程池中并行计算
+     * 行在调用线程中按完成顺序交给 rowConsumer，超时未完成的起点以失败行结束
+     * @param request 矩阵请求
+     * @param rowConsumer 行结果处理
+     */
+    void streamRouteMatrix(RouteMatrixRequest request, Consumer<RouteMatrixRowVO> rowConsumer);
 }
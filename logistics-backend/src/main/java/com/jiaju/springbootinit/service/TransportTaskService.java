@@ -1,7 +1,9 @@
 package com.jiaju.springbootinit.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.jiaju.springbootinit.model.dto.task.TaskAssignBatchRequest;
 import com.jiaju.springbootinit.model.entity.TransportTask;
+import com.jiaju.springbootinit.model.vo.TaskAssignBatchVO;
 import com.jiaju.springbootinit.model.vo.TransportTaskVO;
 
 import java.util.List;
@@ -11,6 +13,11 @@ import java.util.List;
  */
 public interface TransportTaskService extends IService<TransportTask> {
 
+    /**
+     * 单次批量分配的最大任务数
+     */
+    int MAX_BATCH_ASSIGN_SIZE = 500;
+
     /**
      * 校验运输任务是否合法
      * 
@@ -44,6 +51,14 @@ public interface TransportTaskService extends IService<TransportTask> {
      * @return 是否分配成功
      */
     boolean assignTask(Long id, Long vehicleId, Long driverId);
+
+    /**
+     * 批量分配车辆和司机，在一个事务中完成；单项校验失败或状态冲突只影响该项，其余照常分配
+     *
+     * @param items 分配项
+     * @return 逐项分配结果
+     */
+    TaskAssignBatchVO assignTasks(List<TaskAssignBatchRequest.AssignItem> items);
     
     /**
      * 取消任务
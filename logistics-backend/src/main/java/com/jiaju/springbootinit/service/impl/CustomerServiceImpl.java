@@ -4,8 +4,8 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
 import com.jiaju.springbootinit.mapper.CustomerMapper;
-import com.jiaju.springbootinit.mapper.RegionMapper;
 import com.jiaju.springbootinit.model.entity.Customer;
 import com.jiaju.springbootinit.model.entity.Region;
 import com.jiaju.springbootinit.model.vo.CustomerVO;
@@ -14,7 +14,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -26,7 +28,34 @@ import java.util.stream.Collectors;
 public class CustomerServiceImpl extends ServiceImpl<CustomerMapper, Customer> implements CustomerService {
 
     @Resource
-    private RegionMapper regionMapper;
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Override
+    public boolean save(Customer entity) {
+        boolean result = super.save(entity);
+        if (result) {
+            referenceDataCacheManager.customers().invalidate(entity.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean updateById(Customer entity) {
+        boolean result = super.updateById(entity);
+        if (result) {
+            referenceDataCacheManager.customers().invalidate(entity.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (result) {
+            referenceDataCacheManager.customers().invalidate(id);
+        }
+        return result;
+    }
 
     @Override
     public void validCustomer(Customer customer, boolean add) {
@@ -82,7 +111,7 @@ public class CustomerServiceImpl extends ServiceImpl<CustomerMapper, Customer> i
         
         // 设置区域名称
         if (customer.getRegionId() != null) {
-            Region region = regionMapper.selectById(customer.getRegionId());
+            Region region = referenceDataCacheManager.regions().get(customer.getRegionId());
             if (region != null) {
                 customerVO.setRegionName(region.getName());
             }
@@ -107,7 +136,7 @@ public class CustomerServiceImpl extends ServiceImpl<CustomerMapper, Customer> i
         // 如果有区域ID，批量查询区域信息
         Map<Long, String> regionIdNameMap = new java.util.HashMap<>();
         if (!regionIds.isEmpty()) {
-            List<Region> regions = regionMapper.selectBatchIds(regionIds);
+            Collection<Region> regions = referenceDataCacheManager.regions().getAll(regionIds).values();
             regionIdNameMap = regions.stream()
                     .collect(Collectors.toMap(Region::getId, Region::getName));
         }
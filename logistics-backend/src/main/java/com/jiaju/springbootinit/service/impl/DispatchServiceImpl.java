@@ -0,0 +1,483 @@
+package com.jiaju.springbootinit.service.impl;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.jiaju.springbootinit.algorithm.AssignmentSolver;
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.config.DispatchConfig;
+import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.mapper.DriverMapper;
+import com.jiaju.springbootinit.mapper.SchedulingRuleMapper;
+import com.jiaju.springbootinit.mapper.TransportOrderMapper;
+import com.jiaju.springbootinit.mapper.VehicleMapper;
+import com.jiaju.springbootinit.model.dto.route.RouteMatrixRequest;
+import com.jiaju.springbootinit.model.dto.task.TaskAssignBatchRequest;
+import com.jiaju.springbootinit.model.dto.task.TaskAutoDispatchRequest;
+import com.jiaju.springbootinit.model.entity.Driver;
+import com.jiaju.springbootinit.model.entity.SchedulingRule;
+import com.jiaju.springbootinit.model.entity.TransportOrder;
+import com.jiaju.springbootinit.model.entity.TransportTask;
+import com.jiaju.springbootinit.model.entity.Vehicle;
+import com.jiaju.springbootinit.model.vo.RouteMatrixRowVO;
+import com.jiaju.springbootinit.model.vo.TaskAssignBatchVO;
+import com.jiaju.springbootinit.model.vo.TaskAutoDispatchVO;
+import com.jiaju.springbootinit.service.DispatchService;
+import com.jiaju.springbootinit.service.RouteService;
+import com.jiaju.springbootinit.service.TransportTaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 自动调度服务实现
+ * 一次调度至多 5 次查询（规则、任务、订单、车辆、司机）和一次空驶路径矩阵计算（按车辆所在站点去重，并行计算），
+ * 之后在内存中构造任务 × 车辆的代价矩阵并用匈牙利算法求最小代价指派，再按准驾车型为选中的车辆指派司机，
+ * 最后交给批量分配按预期状态写入
+ */
+@Service
+@Slf4j
+public class DispatchServiceImpl implements DispatchService {
+
+    /**
+     * 不可行组合的代价，远大于所有可行组合代价之和，求解时优先保证可行分配的数量，求解后剔除
+     */
+    private static final double INFEASIBLE_COST = 1e12;
+
+    @Resource
+    private DispatchConfig dispatchConfig;
+
+    @Resource
+    private TransportTaskService transportTaskService;
+
+    @Resource
+    private RouteService routeService;
+
+    @Resource
+    private TransportOrderMapper transportOrderMapper;
+
+    @Resource
+    private VehicleMapper vehicleMapper;
+
+    @Resource
+    private DriverMapper driverMapper;
+
+    @Resource
+    private SchedulingRuleMapper schedulingRuleMapper;
+
+    @Override
+    public TaskAutoDispatchVO autoDispatch(TaskAutoDispatchRequest request) {
+        long startTime = System.currentTimeMillis();
+        int maxTasks = Math.max(1, Math.min(dispatchConfig.getMaxTasks(), TransportTaskService.MAX_BATCH_ASSIGN_SIZE));
+        List<Long> taskIds = request.getTaskIds();
+        if (taskIds != null && taskIds.size() > maxTasks) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "单次最多调度 " + maxTasks + " 个任务");
+        }
+        boolean dryRun = Boolean.TRUE.equals(request.getDryRun());
+        SchedulingRule rule = getEnabledRule(request.getRuleCode());
+
+        // 待分配任务，按计划开始时间排序
+        QueryWrapper<TransportTask> taskQuery = new QueryWrapper<>();
+        taskQuery.eq("status", 0);
+        if (taskIds != null && !taskIds.isEmpty()) {
+            taskQuery.in("id", taskIds);
+        }
+        taskQuery.orderByAsc("planned_start", "id").last("LIMIT " + maxTasks);
+        List<TransportTask> tasks = transportTaskService.list(taskQuery);
+
+        TaskAutoDispatchVO dispatchVO = new TaskAutoDispatchVO();
+        dispatchVO.setRuleCode(rule != null ? rule.getRuleCode() : null);
+        dispatchVO.setDryRun(dryRun);
+        dispatchVO.setTaskCount(tasks.size());
+        dispatchVO.setAssignedCount(0);
+        dispatchVO.setAssignMillis(0L);
+        dispatchVO.setAssignments(new ArrayList<>());
+        dispatchVO.setUnassignedTasks(new ArrayList<>());
+        if (tasks.isEmpty()) {
+            dispatchVO.setVehicleCount(0);
+            dispatchVO.setDriverCount(0);
+            dispatchVO.setPlannedCount(0);
+            dispatchVO.setTotalCost(0.0);
+            dispatchVO.setPlanMillis(System.currentTimeMillis() - startTime);
+            return dispatchVO;
+        }
+
+        // 空闲车辆按车型约束过滤，没有所在站点的车辆无法计算空驶距离，不参与匹配
+        Set<String> allowedVehicleTypes = parseAllowedVehicleTypes(rule);
+        QueryWrapper<Vehicle> vehicleQuery = new QueryWrapper<>();
+        vehicleQuery.eq("status", 1).isNotNull("station_id").orderByAsc("id")
+                .last("LIMIT " + Math.max(1, dispatchConfig.getMaxVehicles()));
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (Vehicle vehicle : vehicleMapper.selectList(vehicleQuery)) {
+            if (allowedVehicleTypes == null || allowedVehicleTypes.contains(vehicle.getVehicleType())) {
+                vehicles.add(vehicle);
+            }
+        }
+
+        // 空闲司机按司机要求过滤，驾龄短的优先，把资深司机留给要求更高的调度
+        DriverRequirement driverRequirement = parseDriverRequirement(rule);
+        List<Driver> drivers = new ArrayList<>();
+        for (Driver driver : driverMapper.selectList(new QueryWrapper<Driver>().eq("status", 1))) {
+            if (driverRequirement == null || driverRequirement.accept(driver)) {
+                drivers.add(driver);
+            }
+        }
+        drivers.sort(Comparator.comparingInt((Driver driver) -> driver.getExperience() != null ? driver.getExperience() : 0)
+                .thenComparing(Driver::getId));
+        // 没有任何空闲司机的准驾车型与之相符的车辆不参与匹配
+        Map<String, List<String>> vehicleLicenseTypes = parseVehicleLicenseTypes(dispatchConfig.getVehicleLicenseTypes());
+        vehicles.removeIf(vehicle -> drivers.stream().noneMatch(driver -> canDrive(driver, vehicle, vehicleLicenseTypes)));
+        dispatchVO.setVehicleCount(vehicles.size());
+        dispatchVO.setDriverCount(drivers.size());
+
+        Map<Long, TransportOrder> orderMap = new HashMap<>();
+        Set<Long> orderIds = new HashSet<>();
+        for (TransportTask task : tasks) {
+            if (task.getOrderId() != null) {
+                orderIds.add(task.getOrderId());
+            }
+        }
+        if (!orderIds.isEmpty()) {
+            transportOrderMapper.selectBatchIds(orderIds).forEach(order -> orderMap.put(order.getId(), order));
+        }
+
+        // 代价矩阵：行为任务，列为车辆；司机少于任务时补零代价的虚拟列，使实际分配数不超过司机数
+        int taskCount = tasks.size();
+        int vehicleCount = vehicles.size();
+        int dummyCount = Math.max(0, taskCount - drivers.size());
+        double[][] cost = new double[taskCount][vehicleCount + dummyCount];
+        double[][] deadheadDistance = new double[taskCount][vehicleCount];
+        int[][] deadheadTime = new int[taskCount][vehicleCount];
+        boolean[] hasFeasibleVehicle = new boolean[taskCount];
+        if (vehicleCount > 0 && !drivers.isEmpty()) {
+            fillCostMatrix(tasks, vehicles, orderMap, rule, cost, deadheadDistance, deadheadTime, hasFeasibleVehicle);
+        }
+        int[] assignment = hasAny(hasFeasibleVehicle) ? AssignmentSolver.solve(cost) : new int[0];
+
+        // 再为选中的车辆指派准驾车型相符的司机，同样求最小代价指派，驾龄短的司机代价低
+        List<Integer> plannedTasks = new ArrayList<>();
+        for (int i = 0; i < assignment.length; i++) {
+            int j = assignment[i];
+            if (j >= 0 && j < vehicleCount && cost[i][j] < INFEASIBLE_COST) {
+                plannedTasks.add(i);
+            }
+        }
+        int[] driverAssignment = new int[taskCount];
+        Arrays.fill(driverAssignment, -1);
+        if (!plannedTasks.isEmpty()) {
+            double[][] driverCost = new double[plannedTasks.size()][drivers.size()];
+            for (int k = 0; k < plannedTasks.size(); k++) {
+                Vehicle vehicle = vehicles.get(assignment[plannedTasks.get(k)]);
+                for (int d = 0; d < drivers.size(); d++) {
+                    driverCost[k][d] = canDrive(drivers.get(d), vehicle, vehicleLicenseTypes) ? d : INFEASIBLE_COST;
+                }
+            }
+            int[] driverOfTask = AssignmentSolver.solve(driverCost);
+            for (int k = 0; k < plannedTasks.size(); k++) {
+                int d = driverOfTask[k];
+                if (d >= 0 && driverCost[k][d] < INFEASIBLE_COST) {
+                    driverAssignment[plannedTasks.get(k)] = d;
+                }
+            }
+        }
+
+        List<TaskAssignBatchRequest.AssignItem> items = new ArrayList<>();
+        double totalCost = 0;
+        for (int i = 0; i < taskCount; i++) {
+            TransportTask task = tasks.get(i);
+            int j = i < assignment.length ? assignment[i] : -1;
+            int d = driverAssignment[i];
+            if (j < 0 || j >= vehicleCount || cost[i][j] >= INFEASIBLE_COST || d < 0) {
+                TaskAutoDispatchVO.UnassignedTask unassignedTask = new TaskAutoDispatchVO.UnassignedTask();
+                unassignedTask.setTaskId(task.getId());
+                unassignedTask.setTaskNo(task.getTaskNo());
+                if (drivers.isEmpty()) {
+                    unassignedTask.setReason("没有满足要求的空闲司机");
+                } else if (!hasFeasibleVehicle[i]) {
+                    unassignedTask.setReason("没有可到达且满足载重、体积、车型、准驾车型和空驶距离约束的空闲车辆");
+                } else if (j >= 0 && j < vehicleCount && cost[i][j] < INFEASIBLE_COST) {
+                    unassignedTask.setReason("准驾车型相符的空闲司机不足");
+                } else {
+                    unassignedTask.setReason("空闲车辆或司机不足");
+                }
+                dispatchVO.getUnassignedTasks().add(unassignedTask);
+                continue;
+            }
+            Vehicle vehicle = vehicles.get(j);
+            Driver driver = drivers.get(d);
+            TaskAssignBatchRequest.AssignItem item = new TaskAssignBatchRequest.AssignItem();
+            item.setTaskId(task.getId());
+            item.setVehicleId(vehicle.getId());
+            item.setDriverId(driver.getId());
+            items.add(item);
+
+            TaskAutoDispatchVO.DispatchAssignment dispatchAssignment = new TaskAutoDispatchVO.DispatchAssignment();
+            dispatchAssignment.setTaskId(task.getId());
+            dispatchAssignment.setTaskNo(task.getTaskNo());
+            dispatchAssignment.setVehicleId(vehicle.getId());
+            dispatchAssignment.setVehicleNo(vehicle.getVehicleNo());
+            dispatchAssignment.setDriverId(driver.getId());
+            dispatchAssignment.setDriverName(driver.getName());
+            dispatchAssignment.setDeadheadDistance(deadheadDistance[i][j]);
+            dispatchAssignment.setDeadheadTime(deadheadTime[i][j]);
+            dispatchAssignment.setCost(cost[i][j]);
+            dispatchVO.getAssignments().add(dispatchAssignment);
+            totalCost += cost[i][j];
+        }
+        dispatchVO.setPlannedCount(items.size());
+        dispatchVO.setTotalCost(totalCost);
+        dispatchVO.setPlanMillis(System.currentTimeMillis() - startTime);
+
+        // 执行分配：批量分配按预期状态写入，计算期间被其他操作占用的车辆、司机或任务只使对应项失败
+        if (!dryRun && !items.isEmpty()) {
+            long assignStart = System.currentTimeMillis();
+            TaskAssignBatchVO batchVO = transportTaskService.assignTasks(items);
+            List<TaskAssignBatchVO.TaskAssignResultItem> results = batchVO.getResults();
+            for (int k = 0; k < results.size(); k++) {
+                TaskAutoDispatchVO.DispatchAssignment dispatchAssignment = dispatchVO.getAssignments().get(k);
+                dispatchAssignment.setSuccess(results.get(k).getSuccess());
+                dispatchAssignment.setErrorMessage(results.get(k).getErrorMessage());
+            }
+            dispatchVO.setAssignedCount(batchVO.getSuccessCount());
+            dispatchVO.setAssignMillis(System.currentTimeMillis() - assignStart);
+        }
+        log.info("自动调度完成: 规则={}, 任务={}, 车辆={}, 司机={}, 方案分配={}, 实际分配={}, 总代价={}, 计算耗时={}毫秒",
+                dispatchVO.getRuleCode(), taskCount, vehicleCount, drivers.size(), items.size(),
+                dispatchVO.getAssignedCount(), String.format("%.2f", totalCost), dispatchVO.getPlanMillis());
+        return dispatchVO;
+    }
+
+    /**
+     * 计算任务 × 车辆的代价，不可行的组合记为 INFEASIBLE_COST；虚拟列保持 0
+     */
+    private void fillCostMatrix(List<TransportTask> tasks, List<Vehicle> vehicles, Map<Long, TransportOrder> orderMap,
+                                SchedulingRule rule, double[][] cost, double[][] deadheadDistance,
+                                int[][] deadheadTime, boolean[] hasFeasibleVehicle) {
+        double distanceFactor = factor(rule != null ? rule.getDistanceFactor() : null);
+        double timeFactor = factor(rule != null ? rule.getTimeFactor() : null);
+        double weightFactor = factor(rule != null ? rule.getWeightFactor() : null);
+        double maxDeadheadKm = dispatchConfig.getMaxDeadheadKm();
+
+        // 空驶路径矩阵：起点为车辆所在站点，终点为任务起点，均去重；空驶不装货，不强制区域中转，按最短距离选路
+        Map<Long, Integer> originIndex = new LinkedHashMap<>();
+        for (Vehicle vehicle : vehicles) {
+            originIndex.putIfAbsent(vehicle.getStationId(), originIndex.size());
+        }
+        Map<Long, Integer> destinationIndex = new LinkedHashMap<>();
+        for (TransportTask task : tasks) {
+            destinationIndex.putIfAbsent(task.getSourceId(), destinationIndex.size());
+        }
+        RouteMatrixRequest matrixRequest = new RouteMatrixRequest();
+        matrixRequest.setOriginStationIds(new ArrayList<>(originIndex.keySet()));
+        matrixRequest.setDestinationStationIds(new ArrayList<>(destinationIndex.keySet()));
+        matrixRequest.setDistanceWeight(1.0);
+        matrixRequest.setTimeWeight(0.0);
+        matrixRequest.setCostWeight(0.0);
+        matrixRequest.setEnforceTransfer(false);
+        matrixRequest.setTimeoutMillis(dispatchConfig.getRouteTimeoutMillis());
+        RouteMatrixRowVO[] matrixRows = new RouteMatrixRowVO[originIndex.size()];
+        routeService.streamRouteMatrix(matrixRequest, row -> matrixRows[row.getOriginIndex()] = row);
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < tasks.size(); i++) {
+            TransportTask task = tasks.get(i);
+            TransportOrder order = orderMap.get(task.getOrderId());
+            double weightTons = order != null && order.getWeight() != null ? order.getWeight().doubleValue() / 1000.0 : 0;
+            double volume = order != null && order.getVolume() != null ? order.getVolume().doubleValue() : 0;
+            int destination = destinationIndex.get(task.getSourceId());
+            for (int j = 0; j < vehicles.size(); j++) {
+                Vehicle vehicle = vehicles.get(j);
+                cost[i][j] = INFEASIBLE_COST;
+                RouteMatrixRowVO row = matrixRows[originIndex.get(vehicle.getStationId())];
+                if (row == null || !Boolean.TRUE.equals(row.getSuccess())
+                        || row.getDistances() == null || row.getTimes() == null) {
+                    continue;
+                }
+                Double distanceValue = row.getDistances().get(destination);
+                Integer minutesValue = row.getTimes().get(destination);
+                if (distanceValue == null || minutesValue == null) {
+                    continue;
+                }
+                double distance = distanceValue;
+                int minutes = minutesValue;
+                deadheadDistance[i][j] = distance;
+                deadheadTime[i][j] = minutes;
+                if (maxDeadheadKm > 0 && distance > maxDeadheadKm) {
+                    continue;
+                }
+                // 载重（订单为千克，车辆为吨）与体积
+                double loadCapacity = vehicle.getLoadCapacity() != null ? vehicle.getLoadCapacity().doubleValue() : 0;
+                double volumeCapacity = vehicle.getVolumeCapacity() != null ? vehicle.getVolumeCapacity().doubleValue() : 0;
+                if (weightTons > loadCapacity || volume > volumeCapacity) {
+                    continue;
+                }
+                double utilization = Math.max(loadCapacity > 0 ? weightTons / loadCapacity : 1,
+                        volumeCapacity > 0 ? volume / volumeCapacity : 1);
+                double latenessMinutes = 0;
+                if (task.getPlannedStart() != null) {
+                    long arrival = now + minutes * 60_000L;
+                    latenessMinutes = Math.max(0, arrival - task.getPlannedStart().getTime()) / 60_000.0;
+                }
+                cost[i][j] = distance * dispatchConfig.getDistanceCostPerKm() * distanceFactor
+                        + (minutes + latenessMinutes * dispatchConfig.getLatenessMultiplier())
+                        * dispatchConfig.getTimeCostPerMinute() * timeFactor
+                        + dispatchConfig.getIdleCapacityCost() * (1 - Math.min(1, utilization)) * weightFactor;
+                hasFeasibleVehicle[i] = true;
+            }
+        }
+    }
+
+    /**
+     * 按代码读取启用的调度规则，未指定时返回 null
+     */
+    private SchedulingRule getEnabledRule(String ruleCode) {
+        if (StringUtils.isBlank(ruleCode)) {
+            return null;
+        }
+        SchedulingRule rule = schedulingRuleMapper.selectOne(new QueryWrapper<SchedulingRule>()
+                .eq("rule_code", ruleCode.trim()));
+        if (rule == null || !Integer.valueOf(1).equals(rule.getIsEnabled())) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "调度规则不存在或未启用");
+        }
+        return rule;
+    }
+
+    /**
+     * 解析车辆类型约束 {"allowed":[...]}，无约束时返回 null
+     */
+    private static Set<String> parseAllowedVehicleTypes(SchedulingRule rule) {
+        if (rule == null || StringUtils.isBlank(rule.getVehicleTypeConstraint())) {
+            return null;
+        }
+        try {
+            JSONArray allowed = JSON.parseObject(rule.getVehicleTypeConstraint()).getJSONArray("allowed");
+            return allowed == null || allowed.isEmpty() ? null : new HashSet<>(allowed.toJavaList(String.class));
+        } catch (Exception e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "调度规则的车辆类型约束格式错误");
+        }
+    }
+
+    /**
+     * 解析司机要求 {"minExperience":n,"licenseTypes":[...]}，无要求时返回 null；
+     * 司机信息中没有培训、体检等字段，其余要求不参与过滤
+     */
+    private static DriverRequirement parseDriverRequirement(SchedulingRule rule) {
+        if (rule == null || StringUtils.isBlank(rule.getDriverRequirement())) {
+            return null;
+        }
+        try {
+            JSONObject json = JSON.parseObject(rule.getDriverRequirement());
+            JSONArray licenseTypes = json.getJSONArray("licenseTypes");
+            return new DriverRequirement(json.getIntValue("minExperience"),
+                    licenseTypes == null || licenseTypes.isEmpty() ? null : licenseTypes.toJavaList(String.class));
+        } catch (Exception e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "调度规则的司机要求格式错误");
+        }
+    }
+
+    /**
+     * 解析车型可接受的准驾车型配置，格式错误的项忽略
+     */
+    private static Map<String, List<String>> parseVehicleLicenseTypes(List<String> texts) {
+        Map<String, List<String>> result = new HashMap<>();
+        if (texts == null) {
+            return result;
+        }
+        for (String text : texts) {
+            int separator = text != null ? text.indexOf('=') : -1;
+            if (separator <= 0) {
+                log.warn("忽略格式错误的准驾车型配置: {}", text);
+                continue;
+            }
+            List<String> licenseTypes = new ArrayList<>();
+            for (String licenseType : text.substring(separator + 1).split(",")) {
+                if (StringUtils.isNotBlank(licenseType)) {
+                    licenseTypes.add(licenseType.trim().toUpperCase());
+                }
+            }
+            result.put(text.substring(0, separator).trim(), licenseTypes);
+        }
+        return result;
+    }
+
+    /**
+     * 司机的准驾车型是否满足车型要求，车型未配置时不限制
+     */
+    private static boolean canDrive(Driver driver, Vehicle vehicle, Map<String, List<String>> vehicleLicenseTypes) {
+        List<String> accepted = vehicleLicenseTypes.get(vehicle.getVehicleType());
+        if (accepted == null) {
+            return true;
+        }
+        String licenseType = driver.getLicenseType();
+        if (licenseType == null) {
+            return false;
+        }
+        for (String required : accepted) {
+            if (licenseType.toUpperCase().startsWith(required)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAny(boolean[] values) {
+        for (boolean value : values) {
+            if (value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double factor(BigDecimal value) {
+        return value != null && value.signum() >= 0 ? value.doubleValue() : 1.0;
+    }
+
+    /**
+     * 司机要求：最低驾龄与准驾车型，准驾车型按前缀匹配（如要求 A 时 A1、A2 均满足）
+     */
+    private static final class DriverRequirement {
+
+        private final int minExperience;
+
+        private final List<String> licenseTypes;
+
+        private DriverRequirement(int minExperience, List<String> licenseTypes) {
+            this.minExperience = minExperience;
+            this.licenseTypes = licenseTypes;
+        }
+
+        private boolean accept(Driver driver) {
+            int experience = driver.getExperience() != null ? driver.getExperience() : 0;
+            if (experience < minExperience) {
+                return false;
+            }
+            if (licenseTypes == null) {
+                return true;
+            }
+            String licenseType = driver.getLicenseType();
+            if (licenseType == null) {
+                return false;
+            }
+            for (String required : licenseTypes) {
+                if (required != null && licenseType.toUpperCase().startsWith(required.toUpperCase())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
+import com.jiaju.springbootinit.manager.StatusCountManager;
 import com.jiaju.springbootinit.mapper.DriverMapper;
 import com.jiaju.springbootinit.model.entity.Driver;
 import com.jiaju.springbootinit.model.vo.DriverVO;
@@ -11,6 +13,8 @@ import com.jiaju.springbootinit.service.DriverService;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,6 +25,45 @@ import java.util.stream.Collectors;
 @Service
 public class DriverServiceImpl extends ServiceImpl<DriverMapper, Driver> implements DriverService {
 
+    @Resource
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Resource
+    private StatusCountManager statusCountManager;
+
+    @Override
+    public boolean save(Driver entity) {
+        boolean result = super.save(entity);
+        if (result) {
+            referenceDataCacheManager.drivers().invalidate(entity.getId());
+            statusCountManager.drivers().created(entity.getStatus());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean updateById(Driver entity) {
+        boolean result = super.updateById(entity);
+        if (result) {
+            referenceDataCacheManager.drivers().invalidate(entity.getId());
+            // 通用修改无法得知原状态，修改了状态时重新统计
+            if (entity.getStatus() != null) {
+                statusCountManager.drivers().markStale();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (result) {
+            referenceDataCacheManager.drivers().invalidate(id);
+            statusCountManager.drivers().markStale();
+        }
+        return result;
+    }
+
     @Override
     public void validDriver(Driver driver, boolean add) {
         if (driver == null) {
@@ -5,6 +5,8 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.LogisticsNetworkManager;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
 import com.jiaju.springbootinit.mapper.RegionMapper;
 import com.jiaju.springbootinit.model.entity.Region;
 import com.jiaju.springbootinit.model.vo.RegionVO;
@@ -13,6 +15,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
+import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,6 +26,42 @@ import java.util.stream.Collectors;
 @Service
 public class RegionServiceImpl extends ServiceImpl<RegionMapper, Region> implements RegionService {
 
+    @Resource
+    private LogisticsNetworkManager logisticsNetworkManager;
+
+    @Resource
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Override
+    public boolean save(Region entity) {
+        boolean result = super.save(entity);
+        if (result) {
+            referenceDataCacheManager.regions().invalidate(entity.getId());
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean updateById(Region entity) {
+        boolean result = super.updateById(entity);
+        if (result) {
+            referenceDataCacheManager.regions().invalidate(entity.getId());
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (result) {
+            referenceDataCacheManager.regions().invalidate(id);
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
+
     @Override
     public void validRegion(Region region, boolean add) {
         if (region == null) {
@@ -3,28 +3,41 @@ package com.jiaju.springbootinit.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jiaju.springbootinit.algorithm.AStarPathFinder;
+import com.jiaju.springbootinit.algorithm.CompiledGraph;
 import com.jiaju.springbootinit.algorithm.LogisticsNetwork;
+import com.jiaju.springbootinit.algorithm.OneToManyResult;
 import com.jiaju.springbootinit.algorithm.OptimalRoute;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.exception.BusinessException;
-import com.jiaju.springbootinit.mapper.DirectDistanceMapper;
+import com.jiaju.springbootinit.manager.ContractionHierarchyManager;
+import com.jiaju.springbootinit.manager.LogisticsNetworkManager;
+import com.jiaju.springbootinit.manager.RouteCacheHitCounter;
+import com.jiaju.springbootinit.manager.RouteCacheManager;
+import com.jiaju.springbootinit.manager.RoutingExecutorManager;
 import com.jiaju.springbootinit.mapper.OptimalRouteCacheMapper;
 import com.jiaju.springbootinit.mapper.RouteMapper;
-import com.jiaju.springbootinit.mapper.StationMapper;
 import com.jiaju.springbootinit.model.dto.route.BatchRouteRequest;
-import com.jiaju.springbootinit.model.entity.DirectDistance;
+import com.jiaju.springbootinit.model.dto.route.RouteEngineBenchmarkRequest;
+import com.jiaju.springbootinit.model.dto.route.RouteMatrixRequest;
 import com.jiaju.springbootinit.model.entity.OptimalRouteCache;
 import com.jiaju.springbootinit.model.entity.Route;
 import com.jiaju.springbootinit.model.entity.Station;
+import com.jiaju.springbootinit.model.enums.RoutingEngineEnum;
 import com.jiaju.springbootinit.model.vo.BatchRouteVO;
 import com.jiaju.springbootinit.model.vo.OptimalRouteVO;
+import com.jiaju.springbootinit.model.vo.RouteEngineBenchmarkVO;
+import com.jiaju.springbootinit.model.vo.RouteMatrixRowVO;
 import com.jiaju.springbootinit.service.RouteService;
 import org.springframework.stereotype.Service;
 import com.alibaba.fastjson.JSON;
 
 import javax.annotation.Resource;
+import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,13 +54,22 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
     private RouteMapper routeMapper;
     
     @Resource
-    private StationMapper stationMapper;
+    private OptimalRouteCacheMapper optimalRouteCacheMapper;
     
     @Resource
-    private DirectDistanceMapper directDistanceMapper;
+    private LogisticsNetworkManager logisticsNetworkManager;
     
     @Resource
-    private OptimalRouteCacheMapper optimalRouteCacheMapper;
+    private RoutingExecutorManager routingExecutorManager;
+    
+    @Resource
+    private RouteCacheManager routeCacheManager;
+    
+    @Resource
+    private RouteCacheHitCounter routeCacheHitCounter;
+    
+    @Resource
+    private ContractionHierarchyManager contractionHierarchyManager;
     
     // 距离阈值，超过此距离的路径必须通过中转站（单位：公里）
     private static final double LONG_DISTANCE_THRESHOLD = 300.0;
@@ -55,6 +77,9 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
     // 缓存过期时间（小时）
     private static final int CACHE_EXPIRY_HOURS = 24;
     
+    // 批量计算与路径矩阵的完成队列容量，调用线程消费不及时时工作线程在此等待
+    private static final int BATCH_RESULT_QUEUE_CAPACITY = 256;
+    
     public OptimalRouteVO calculateOptimalRoute(Long fromStationId, Long toStationId, 
                                               boolean forceRefresh) {
         if (fromStationId == null || toStationId == null) {
@@ -65,23 +90,35 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "起点和终点不能相同");
         }
         
+        String cacheKey = routeCacheManager.buildKey(fromStationId, toStationId);
+        
         // 如果强制刷新或者缓存未命中，执行计算
         if (forceRefresh) {
             // 跳过缓存检查，直接计算
         } else {
-            // 先检查缓存 - 除非强制刷新，否则优先使用缓存
+            // 先检查本地缓存，命中时无需访问数据库
+            OptimalRouteVO localResult = routeCacheManager.get(cacheKey);
+            if (localResult != null) {
+                return localResult;
+            }
+            
+            // 本地未命中再检查数据库缓存 - 除非强制刷新，否则优先使用缓存
             OptimalRouteCache cacheResult = checkCache(fromStationId, toStationId);
             if (cacheResult != null && !isCacheExpired(cacheResult)) {
                 log.info("命中路径缓存: 从{}到{}", fromStationId, toStationId);
                 
-                // 更新命中次数
-                cacheResult.setHitCount(cacheResult.getHitCount() + 1);
-                optimalRouteCacheMapper.updateById(cacheResult);
+                // 命中次数异步批量写回
+                routeCacheHitCounter.record(cacheResult.getId());
+                
+                // 站点信息统一从常驻网络快照读取，不再逐次查库
+                LogisticsNetwork network = logisticsNetworkManager.getNetwork();
                 
                 // 检查缓存中的路径是否合理(中转站点数量)
                 List<Long> pathNodes = JSON.parseArray(cacheResult.getPathNodes(), Long.class);
-                if (validatePathNodes(pathNodes, cacheResult.getTotalDistance())) {
-                    return convertFromCache(cacheResult);
+                if (validatePathNodes(pathNodes, cacheResult.getTotalDistance(), network)) {
+                    OptimalRouteVO cachedRoute = convertFromCache(cacheResult, network);
+                    routeCacheManager.put(cacheKey, cachedRoute, cacheResult.getId());
+                    return cachedRoute;
                 } else {
                     log.warn("缓存中的路径不合理，重新计算路径。从{}到{}", fromStationId, toStationId);
                     // 缓存路径不合理，需要重新计算
@@ -89,8 +126,8 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
             }
         }
         
-        // 构建物流网络
-        LogisticsNetwork network = buildNetwork();
+        // 获取常驻物流网络快照
+        LogisticsNetwork network = logisticsNetworkManager.getNetwork();
         
         // 分析网络完整性（仅在日志级别为DEBUG时执行）
         if (log.isDebugEnabled()) {
@@ -99,6 +136,7 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         
         // 使用A*算法查找路径，启用区域间中转逻辑
         AStarPathFinder pathFinder = new AStarPathFinder(network);
+        pathFinder.setEngine(contractionHierarchyManager.resolveEngine(null));
         
         // 判断起点和终点是否在同一区域
         Long fromRegionId = network.getStationRegionId(fromStationId);
@@ -131,7 +169,7 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         }
         
         // 验证路径合理性
-        if (!validatePathNodes(route.getPathNodes(), route.getTotalDistance())) {
+        if (!validatePathNodes(route.getPathNodes(), route.getTotalDistance(), network)) {
             log.warn("计算出的路径可能不够合理，长距离直连路径没有中转站点。尝试强制启用区域中转...");
             // 强制重新计算一次，无论距离和区域如何，都启用强制区域中转
             pathFinder.setEnforceRegionalTransfer(true);
@@ -153,13 +191,15 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         }
         
         // 记录路径信息
-        logPathDetails(route);
+        logPathDetails(route, network);
         
         // 保存到缓存
-        saveRouteToCache(route);
+        Long cacheId = saveRouteToCache(route);
         
-        // 转换为VO并返回
-        return convertToVO(route, network);
+        // 转换为VO并写入本地缓存
+        OptimalRouteVO result = convertToVO(route, network);
+        routeCacheManager.put(cacheKey, result, cacheId);
+        return result;
     }
     
     @Override
@@ -168,6 +208,39 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         return calculateOptimalRoute(fromStationId, toStationId, false);
     }
     
+    @Override
+    public boolean save(Route entity) {
+        boolean result = super.save(entity);
+        if (result) {
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean updateById(Route entity) {
+        boolean result = super.updateById(entity);
+        if (result) {
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (result) {
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
+    
+    @Override
+    public long refreshNetwork() {
+        logisticsNetworkManager.refresh();
+        return logisticsNetworkManager.getVersion();
+    }
+    
     @Override
     public List<Route> getRouteList(Long fromStationId, Long toStationId) {
         if (fromStationId == null || toStationId == null) {
@@ -183,52 +256,6 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         return routeMapper.selectList(queryWrapper);
     }
     
-    /**
-     * 初始化物流网络
-     */
-    private LogisticsNetwork buildNetwork() {
-        LogisticsNetwork network = new LogisticsNetwork();
-        
-        // 加载所有站点
-        List<Station> stations = stationMapper.selectList(null);
-        if (stations.isEmpty()) {
-            log.error("站点数据为空，无法构建物流网络");
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "站点数据为空");
-        }
-        log.info("加载了{}个站点到物流网络", stations.size());
-        
-        for (Station station : stations) {
-            network.addStation(station);
-        }
-        
-        // 加载所有路线
-        LambdaQueryWrapper<Route> routeQuery = new LambdaQueryWrapper<>();
-        routeQuery.eq(Route::getStatus, 1) // 只加载启用的路线
-                 .eq(Route::getIsDelete, 0); // 确保未被逻辑删除
-        List<Route> routes = routeMapper.selectList(routeQuery);
-        if (routes.isEmpty()) {
-            log.error("路线数据为空，物流网络将不完整");
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "路线数据为空");
-        }
-        log.info("加载了{}条路线到物流网络", routes.size());
-        
-        for (Route route : routes) {
-            network.addEdge(route);
-        }
-        
-        // 加载直线距离数据
-        List<DirectDistance> distances = directDistanceMapper.selectList(null);
-        for (DirectDistance distance : distances) {
-            network.addDirectDistance(distance);
-        }
-        log.info("加载了{}条直线距离记录", distances.size());
-        
-        // 确保所有枢纽站点间有连接
-        network.ensureHubStationsConnectivity();
-        
-        return network;
-    }
-    
     /**
      * 检查缓存
      */
@@ -251,10 +278,12 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
     
     /**
      * 将路径保存到缓存
+     *
+     * @return 缓存记录ID
      */
-    private void saveRouteToCache(OptimalRoute route) {
+    private Long saveRouteToCache(OptimalRoute route) {
         if (route == null) {
-            return;
+            return null;
         }
         
         // 先检查是否已存在
@@ -284,17 +313,20 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
             cache.setHitCount(0);
             optimalRouteCacheMapper.insert(cache);
         } else {
+            // 命中次数由异步计数器累加，这里不覆盖
+            cache.setHitCount(null);
             optimalRouteCacheMapper.updateById(cache);
         }
         
         log.debug("路径已保存到缓存: 从{}到{}, 中转站点数={}", 
                 route.getFromStationId(), route.getToStationId(), route.getPathNodes().size() - 2);
+        return cache.getId();
     }
     
     /**
      * 将缓存对象转换为VO
      */
-    private OptimalRouteVO convertFromCache(OptimalRouteCache cache) {
+    private OptimalRouteVO convertFromCache(OptimalRouteCache cache, LogisticsNetwork network) {
         OptimalRouteVO vo = new OptimalRouteVO();
         vo.setFromStationId(cache.getFromStationId());
         vo.setToStationId(cache.getToStationId());
@@ -303,27 +335,7 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         
         // 解析路径节点
         List<Long> pathNodeIds = JSON.parseArray(cache.getPathNodes(), Long.class);
-        
-        // 获取所有站点信息
-        List<Station> stations = stationMapper.selectBatchIds(pathNodeIds);
-        Map<Long, Station> stationMap = stations.stream()
-                .collect(Collectors.toMap(Station::getId, station -> station));
-        
-        // 构建路径点VO列表
-        List<OptimalRouteVO.PathPointVO> pathPoints = new ArrayList<>();
-        for (Long stationId : pathNodeIds) {
-            Station station = stationMap.get(stationId);
-            if (station != null) {
-                OptimalRouteVO.PathPointVO point = new OptimalRouteVO.PathPointVO();
-                point.setStationId(station.getId());
-                point.setStationName(station.getName());
-                point.setLongitude(station.getLongitude().doubleValue());
-                point.setLatitude(station.getLatitude().doubleValue());
-                pathPoints.add(point);
-            }
-        }
-        
-        vo.setPathPoints(pathPoints);
+        vo.setPathPoints(buildPathPoints(pathNodeIds, network));
         return vo;
     }
     
@@ -336,35 +348,38 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         vo.setToStationId(route.getToStationId());
         vo.setTotalDistance(route.getTotalDistance());
         vo.setEstimatedTime(route.getEstimatedTime());
-        
-        // 获取所有相关站点
-        List<Station> stations = stationMapper.selectBatchIds(route.getPathNodes());
-        Map<Long, Station> stationMap = stations.stream()
-                .collect(Collectors.toMap(Station::getId, station -> station));
-        
-        // 构建路径点列表
-        List<OptimalRouteVO.PathPointVO> pathPoints = new ArrayList<>();
-        for (Long stationId : route.getPathNodes()) {
-            Station station = stationMap.get(stationId);
-            if (station != null) {
-                OptimalRouteVO.PathPointVO point = new OptimalRouteVO.PathPointVO();
-                point.setStationId(station.getId());
-                point.setStationName(station.getName());
+        vo.setPathPoints(buildPathPoints(route.getPathNodes(), network));
+        return vo;
+    }
+    
+    /**
+     * 根据网络快照中的站点信息构建路径点列表
+     * 快照在站点变更时整体重建，与数据库保持一致，因此这里不再查库
+     */
+    private List<OptimalRouteVO.PathPointVO> buildPathPoints(List<Long> pathNodeIds, LogisticsNetwork network) {
+        List<OptimalRouteVO.PathPointVO> pathPoints = new ArrayList<>(pathNodeIds.size());
+        for (Long stationId : pathNodeIds) {
+            Station station = network.getStation(stationId);
+            if (station == null) {
+                continue;
+            }
+            OptimalRouteVO.PathPointVO point = new OptimalRouteVO.PathPointVO();
+            point.setStationId(station.getId());
+            point.setStationName(station.getName());
+            if (station.getLongitude() != null && station.getLatitude() != null) {
                 point.setLongitude(station.getLongitude().doubleValue());
                 point.setLatitude(station.getLatitude().doubleValue());
-                pathPoints.add(point);
             }
+            pathPoints.add(point);
         }
-        
-        vo.setPathPoints(pathPoints);
-        return vo;
+        return pathPoints;
     }
     
     /**
      * 验证路径节点合理性（新增）
      * 检查长距离路径是否包含足够的中转站点
      */
-    private boolean validatePathNodes(List<Long> pathNodes, double totalDistance) {
+    private boolean validatePathNodes(List<Long> pathNodes, double totalDistance, LogisticsNetwork network) {
         if (pathNodes == null || pathNodes.size() < 2) {
             return false;
         }
@@ -379,8 +394,8 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         Long fromStationId = pathNodes.get(0);
         Long toStationId = pathNodes.get(pathNodes.size() - 1);
         
-        Station fromStation = stationMapper.selectById(fromStationId);
-        Station toStation = stationMapper.selectById(toStationId);
+        Station fromStation = network.getStation(fromStationId);
+        Station toStation = network.getStation(toStationId);
         
         if (fromStation != null && toStation != null && 
             fromStation.getRegionId() != null && toStation.getRegionId() != null) {
@@ -401,7 +416,7 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
     /**
      * 记录路径详细信息（新增）
      */
-    private void logPathDetails(OptimalRoute route) {
+    private void logPathDetails(OptimalRoute route, LogisticsNetwork network) {
         if (!log.isInfoEnabled() || route == null) {
             return;
         }
@@ -412,14 +427,10 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
                 route.getPathNodes().size() - 2);
         
         if (log.isDebugEnabled() && route.getPathNodes().size() > 2) {
-            List<Station> stations = stationMapper.selectBatchIds(route.getPathNodes());
-            Map<Long, Station> stationMap = stations.stream()
-                    .collect(Collectors.toMap(Station::getId, station -> station));
-            
             StringBuilder pathDetail = new StringBuilder("详细路径: ");
             for (int i = 0; i < route.getPathNodes().size(); i++) {
                 Long stationId = route.getPathNodes().get(i);
-                Station station = stationMap.get(stationId);
+                Station station = network.getStation(stationId);
                 if (station != null) {
                     pathDetail.append(station.getName());
                     if (i < route.getPathNodes().size() - 1) {
@@ -440,6 +451,20 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
             Double costWeight,
             Double trafficFactor,
             Boolean enforceTransfer) {
+        return calculateOptimalRouteAdvanced(fromStationId, toStationId, distanceWeight, timeWeight, costWeight,
+                trafficFactor, enforceTransfer, null);
+    }
+
+    @Override
+    public OptimalRouteVO calculateOptimalRouteAdvanced(
+            Long fromStationId, 
+            Long toStationId,
+            Double distanceWeight,
+            Double timeWeight,
+            Double costWeight,
+            Double trafficFactor,
+            Boolean enforceTransfer,
+            String engine) {
         
         if (fromStationId == null || toStationId == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "起点和终点站点ID不能为空");
@@ -465,8 +490,18 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
             cWeight = cWeight / totalWeight;
         }
         
-        // 构建物流网络
-        LogisticsNetwork network = buildNetwork();
+        RoutingEngineEnum routingEngine = contractionHierarchyManager.resolveEngine(engine);
+        
+        // 先检查本地缓存
+        String cacheKey = routeCacheManager.buildKey(fromStationId, toStationId,
+                dWeight, tWeight, cWeight, tFactor, eTransfer, routingEngine);
+        OptimalRouteVO cachedRoute = routeCacheManager.get(cacheKey);
+        if (cachedRoute != null) {
+            return cachedRoute;
+        }
+        
+        // 获取常驻物流网络快照
+        LogisticsNetwork network = logisticsNetworkManager.getNetwork();
         
         // 使用A*算法查找路径
         AStarPathFinder pathFinder = new AStarPathFinder(network);
@@ -474,6 +509,7 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         // 设置自定义参数
         pathFinder.setWeights(dWeight, tWeight, cWeight);
         pathFinder.setEnforceRegionalTransfer(eTransfer);
+        pathFinder.setEngine(routingEngine);
         
         // 执行路径查找
         OptimalRoute route = pathFinder.findPath(fromStationId, toStationId);
@@ -488,7 +524,7 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         }
         
         // 记录路径信息
-        logPathDetails(route);
+        logPathDetails(route, network);
         
         // 保存到缓存（可选，根据业务需求决定是否缓存高级参数的结果）
         // saveRouteToCache(route);
@@ -498,12 +534,258 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
         
         // 添加交通因子信息
         result.setTrafficFactor(tFactor);
+        routeCacheManager.put(cacheKey, result);
         
         return result;
     }
 
+    @Override
+    public void streamRouteMatrix(RouteMatrixRequest request, Consumer<RouteMatrixRowVO> rowConsumer) {
+        List<Long> origins = request.getOriginStationIds();
+        List<Long> destinations = request.getDestinationStationIds();
+        double distanceWeight = request.getDistanceWeight() != null ? request.getDistanceWeight() : 0.5;
+        double timeWeight = request.getTimeWeight() != null ? request.getTimeWeight() : 0.3;
+        double costWeight = request.getCostWeight() != null ? request.getCostWeight() : 0.2;
+        double trafficFactor = request.getTrafficFactor() != null ? request.getTrafficFactor() : 1.0;
+        boolean enforceTransfer = request.getEnforceTransfer() != null ? request.getEnforceTransfer() : true;
+        double totalWeight = distanceWeight + timeWeight + costWeight;
+        if (Math.abs(totalWeight - 1.0) > 0.01) {
+            distanceWeight = distanceWeight / totalWeight;
+            timeWeight = timeWeight / totalWeight;
+            costWeight = costWeight / totalWeight;
+        }
+        long startTime = System.currentTimeMillis();
+        
+        LogisticsNetwork network = logisticsNetworkManager.getNetwork();
+        AStarPathFinder pathFinder = new AStarPathFinder(network);
+        pathFinder.setWeights(distanceWeight, timeWeight, costWeight);
+        pathFinder.setEnforceRegionalTransfer(enforceTransfer);
+        long[] targetIds = new long[destinations.size()];
+        for (int i = 0; i < targetIds.length; i++) {
+            targetIds[i] = destinations.get(i);
+        }
+        
+        long timeoutMillis = routingExecutorManager.resolveTimeoutMillis(request.getTimeoutMillis());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        
+        // 与批量计算相同：按线程数拆分任务，各任务从共享下标领取起点，完成的行放入有界队列，
+        // 客户端读取过慢时工作线程等待而不是在内存中堆积整个矩阵，到截止时间仍未入队的行按超时处理
+        int originCount = origins.size();
+        BlockingQueue<RouteMatrixRowVO> completedRows = new ArrayBlockingQueue<>(BATCH_RESULT_QUEUE_CAPACITY);
+        AtomicInteger nextIndex = new AtomicInteger();
+        int taskCount = Math.min(routingExecutorManager.getPoolSize(), originCount);
+        List<Future<Object>> futures = new ArrayList<>(taskCount);
+        String failureMessage = "路径计算超时";
+        try {
+            for (int i = 0; i < taskCount; i++) {
+                futures.add(routingExecutorManager.submit(() -> {
+                    int index;
+                    while (System.nanoTime() < deadline && (index = nextIndex.getAndIncrement()) < originCount) {
+                        RouteMatrixRowVO row = calculateMatrixRow(index, origins.get(index), targetIds,
+                                pathFinder, trafficFactor);
+                        if (!completedRows.offer(row, Math.max(0L, deadline - System.nanoTime()),
+                                TimeUnit.NANOSECONDS)) {
+                            break;
+                        }
+                    }
+                    return null;
+                }));
+            }
+        } catch (BusinessException e) {
+            // 线程池已满，撤销已提交的任务，全部起点以失败行返回
+            futures.forEach(future -> future.cancel(true));
+            futures.clear();
+            failureMessage = e.getMessage();
+        }
+        
+        // 在调用线程中按完成顺序输出
+        boolean[] emitted = new boolean[originCount];
+        int emittedCount = 0;
+        try {
+            while (!futures.isEmpty() && emittedCount < originCount) {
+                RouteMatrixRowVO row = completedRows.poll(Math.max(0L, deadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS);
+                if (row == null) {
+                    log.warn("路径矩阵计算超时: 超时时间={}毫秒", timeoutMillis);
+                    break;
+                }
+                emitted[row.getOriginIndex()] = true;
+                emittedCount++;
+                rowConsumer.accept(row);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        
+        // 截止时间前未完成的起点
+        for (int i = 0; i < originCount; i++) {
+            if (!emitted[i]) {
+                RouteMatrixRowVO row = new RouteMatrixRowVO();
+                row.setOriginIndex(i);
+                row.setOriginStationId(origins.get(i));
+                row.setSuccess(false);
+                row.setErrorMessage(failureMessage);
+                rowConsumer.accept(row);
+            }
+        }
+        log.info("路径矩阵计算完成: 起点数={}, 终点数={}, 按时完成={}, 耗时={}毫秒",
+                originCount, targetIds.length, emittedCount, System.currentTimeMillis() - startTime);
+    }
+    
+    /**
+     * 计算路径矩阵的一行
+     */
+    private RouteMatrixRowVO calculateMatrixRow(int originIndex, Long originId, long[] targetIds,
+                                                AStarPathFinder pathFinder, double trafficFactor) {
+        RouteMatrixRowVO row = new RouteMatrixRowVO();
+        row.setOriginIndex(originIndex);
+        row.setOriginStationId(originId);
+        try {
+            OneToManyResult result = pathFinder.findOneToMany(originId, targetIds);
+            List<Double> costs = new ArrayList<>(targetIds.length);
+            List<Double> distances = new ArrayList<>(targetIds.length);
+            List<Integer> times = new ArrayList<>(targetIds.length);
+            for (int i = 0; i < targetIds.length; i++) {
+                if (result.isReachable(i)) {
+                    costs.add(result.getCost(i));
+                    distances.add(result.getDistance(i));
+                    times.add((int) (result.getTime(i) * trafficFactor));
+                } else {
+                    costs.add(null);
+                    distances.add(null);
+                    times.add(null);
+                }
+            }
+            row.setSuccess(true);
+            row.setCosts(costs);
+            row.setDistances(distances);
+            row.setTimes(times);
+        } catch (Exception e) {
+            row.setSuccess(false);
+            row.setErrorMessage(e.getMessage());
+            log.error("路径矩阵行计算错误: 起点{}, 错误: {}", originId, e.getMessage());
+        }
+        return row;
+    }
+
+    @Override
+    public List<RouteEngineBenchmarkVO> benchmarkEngines(RouteEngineBenchmarkRequest request) {
+        int sampleSize = request.getSampleSize() != null ? request.getSampleSize() : 200;
+        if (sampleSize <= 0 || sampleSize > 2000) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "抽样数量需在1到2000之间");
+        }
+        double dWeight = request.getDistanceWeight() != null ? request.getDistanceWeight() : 0.5;
+        double tWeight = request.getTimeWeight() != null ? request.getTimeWeight() : 0.3;
+        double cWeight = request.getCostWeight() != null ? request.getCostWeight() : 0.2;
+        boolean eTransfer = request.getEnforceTransfer() != null ? request.getEnforceTransfer() : false;
+        double totalWeight = dWeight + tWeight + cWeight;
+        if (Math.abs(totalWeight - 1.0) > 0.01) {
+            dWeight = dWeight / totalWeight;
+            tWeight = tWeight / totalWeight;
+            cWeight = cWeight / totalWeight;
+        }
+        
+        LogisticsNetwork network = logisticsNetworkManager.getNetwork();
+        CompiledGraph graph = network.getCompiledGraph();
+        if (graph.getNodeCount() < 2) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "物流网络站点不足");
+        }
+        
+        // 各引擎使用同一批站点对
+        Random random = new Random(request.getSeed() != null ? request.getSeed() : 42L);
+        long[][] pairs = new long[sampleSize][];
+        for (int i = 0; i < sampleSize; i++) {
+            int from = random.nextInt(graph.getNodeCount());
+            int to = random.nextInt(graph.getNodeCount() - 1);
+            if (to >= from) {
+                to++;
+            }
+            pairs[i] = new long[]{graph.getStationId(from), graph.getStationId(to)};
+        }
+        
+        List<RouteEngineBenchmarkVO> results = new ArrayList<>();
+        for (RoutingEngineEnum routingEngine : RoutingEngineEnum.values()) {
+            if (routingEngine == RoutingEngineEnum.CH
+                    && graph.getContractionHierarchy(dWeight, tWeight, cWeight, eTransfer) == null) {
+                continue;
+            }
+            AStarPathFinder pathFinder = new AStarPathFinder(network);
+            pathFinder.setWeights(dWeight, tWeight, cWeight);
+            pathFinder.setEnforceRegionalTransfer(eTransfer);
+            pathFinder.setEngine(routingEngine);
+            
+            int foundCount = 0;
+            long totalNanos = 0;
+            long maxNanos = 0;
+            double distanceSum = 0.0;
+            long timeSum = 0;
+            for (long[] pair : pairs) {
+                long startTime = System.nanoTime();
+                OptimalRoute route;
+                try {
+                    route = pathFinder.findPath(pair[0], pair[1]);
+                } catch (Exception e) {
+                    route = null;
+                }
+                long elapsed = System.nanoTime() - startTime;
+                totalNanos += elapsed;
+                maxNanos = Math.max(maxNanos, elapsed);
+                if (route != null) {
+                    foundCount++;
+                    distanceSum += route.getTotalDistance();
+                    timeSum += route.getEstimatedTime();
+                }
+            }
+            
+            RouteEngineBenchmarkVO result = new RouteEngineBenchmarkVO();
+            result.setEngine(routingEngine.getValue());
+            result.setEngineName(routingEngine.getText());
+            result.setQueryCount(sampleSize);
+            result.setFoundCount(foundCount);
+            result.setTotalMillis(totalNanos / 1e6);
+            result.setAvgMicros(totalNanos / 1e3 / sampleSize);
+            result.setMaxMicros(maxNanos / 1e3);
+            result.setAvgDistance(foundCount > 0 ? distanceSum / foundCount : 0.0);
+            result.setAvgTime(foundCount > 0 ? (double) timeSum / foundCount : 0.0);
+            results.add(result);
+            log.info("路径引擎基准测试: 引擎={}, 查询数={}, 找到={}, 平均耗时={}微秒",
+                    routingEngine.getValue(), sampleSize, foundCount, result.getAvgMicros());
+        }
+        return results;
+    }
+
     @Override
     public BatchRouteVO calculateBatchOptimalRoutes(BatchRouteRequest request) {
+        List<BatchRouteVO.BatchRouteResultItem> resultItems = new ArrayList<>();
+        BatchRouteVO result = executeBatch(request, resultItems::add, false);
+        
+        // 结果按原始优先级排序
+        resultItems.sort(Comparator.comparing(BatchRouteVO.BatchRouteResultItem::getPriority).reversed());
+        result.setResults(resultItems);
+        return result;
+    }
+
+    @Override
+    public BatchRouteVO streamBatchOptimalRoutes(BatchRouteRequest request,
+                                                 Consumer<BatchRouteVO.BatchRouteResultItem> itemConsumer) {
+        return executeBatch(request, itemConsumer, true);
+    }
+
+    /**
+     * 执行批量路径计算，结果项在调用线程中按完成顺序交给 itemConsumer
+     * 工作线程把完成的路径项下标放入有界队列，队列满时等待调用线程消费（直到截止时间），
+     * 流式输出时写出速度即反压到计算速度
+     *
+     * @param request      批量请求
+     * @param itemConsumer 结果项处理
+     * @param streaming    是否流式输出：线程池已满时流式输出以失败项返回，否则直接抛出繁忙异常
+     * @return 汇总结果（不含结果列表）
+     */
+    private BatchRouteVO executeBatch(BatchRouteRequest request,
+                                      Consumer<BatchRouteVO.BatchRouteResultItem> itemConsumer,
+                                      boolean streaming) {
         if (request == null || request.getRoutes() == null || request.getRoutes().isEmpty()) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "批量路径请求不能为空");
         }
@@ -526,112 +808,265 @@ public class RouteServiceImpl extends ServiceImpl<RouteMapper, Route> implements
             costWeight = costWeight / totalWeight;
         }
         
-        // 构建物流网络(只建一次，供所有请求共用)
-        LogisticsNetwork network = buildNetwork();
+        // 获取常驻物流网络快照(供所有请求共用)
+        LogisticsNetwork network = logisticsNetworkManager.getNetwork();
         
-        // 创建A*算法实例并配置参数
+        // 创建A*算法实例并配置参数，网络快照只读且搜索状态按线程隔离，实例可由各工作线程共享
         AStarPathFinder pathFinder = new AStarPathFinder(network);
         pathFinder.setWeights(distanceWeight, timeWeight, costWeight);
         pathFinder.setEnforceRegionalTransfer(enforceTransfer);
+        pathFinder.setEngine(contractionHierarchyManager.resolveEngine(request.getEngine()));
         
         // 按优先级排序请求
         List<BatchRouteRequest.RouteItem> sortedRoutes = request.getRoutes().stream()
                 .sorted(Comparator.comparing(BatchRouteRequest.RouteItem::getPriority).reversed())
                 .collect(Collectors.toList());
         
-        // 创建结果对象
-        BatchRouteVO result = new BatchRouteVO();
-        List<BatchRouteVO.BatchRouteResultItem> resultItems = new ArrayList<>();
-        int successCount = 0;
-        int failedCount = 0;
-        
-        // 创建线程池处理批量请求
-        int availableProcessors = Runtime.getRuntime().availableProcessors();
-        int threadPoolSize = Math.min(availableProcessors, sortedRoutes.size());
-        ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
-        
+        // 请求截止时间
+        long timeoutMillis = routingExecutorManager.resolveTimeoutMillis(request.getTimeoutMillis());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        
+        // 合并重复的(起点, 终点)对并按起点分组；路径项已按优先级降序，分组顺序即组内最高优先级顺序
+        int itemCount = sortedRoutes.size();
+        AtomicReferenceArray<BatchRouteVO.BatchRouteResultItem> slots = new AtomicReferenceArray<>(itemCount);
+        List<Integer> invalidItems = new ArrayList<>();
+        Map<Long, BatchRouteGroup> groupMap = new LinkedHashMap<>();
+        int distinctPairCount = 0;
+        for (int i = 0; i < itemCount; i++) {
+            BatchRouteRequest.RouteItem routeItem = sortedRoutes.get(i);
+            if (routeItem.getFromStationId() == null || routeItem.getToStationId() == null) {
+                slots.set(i, createBatchItem(routeItem, null, "起点和终点站点ID不能为空"));
+                invalidItems.add(i);
+                continue;
+            }
+            if (routeItem.getFromStationId().equals(routeItem.getToStationId())) {
+                slots.set(i, createBatchItem(routeItem, null, "起点和终点不能相同"));
+                invalidItems.add(i);
+                continue;
+            }
+            BatchRouteGroup group = groupMap.computeIfAbsent(routeItem.getFromStationId(), BatchRouteGroup::new);
+            if (group.addItem(routeItem.getToStationId(), i)) {
+                distinctPairCount++;
+            }
+        }
+        List<BatchRouteGroup> groups = new ArrayList<>(groupMap.values());
+        
+        // 提交到共享线程池：按线程数拆分任务，各任务从共享下标领取起点分组，单个请求最多占用线程数个队列位置
+        int groupCount = groups.size();
+        BlockingQueue<Integer> completedItems = new ArrayBlockingQueue<>(BATCH_RESULT_QUEUE_CAPACITY);
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger searchCount = new AtomicInteger();
+        int taskCount = Math.min(routingExecutorManager.getPoolSize(), groupCount);
+        List<Future<Object>> futures = new ArrayList<>(taskCount);
+        String unfinishedMessage = "路径计算超时";
         try {
-            // 提交所有任务
-            List<Future<BatchRouteVO.BatchRouteResultItem>> futures = new ArrayList<>();
-            
-            for (BatchRouteRequest.RouteItem routeItem : sortedRoutes) {
-                futures.add(executorService.submit(() -> {
-                    BatchRouteVO.BatchRouteResultItem resultItem = new BatchRouteVO.BatchRouteResultItem();
-                    resultItem.setFromStationId(routeItem.getFromStationId());
-                    resultItem.setToStationId(routeItem.getToStationId());
-                    resultItem.setPriority(routeItem.getPriority());
-                    
-                    try {
-                        // 参数验证
-                        if (routeItem.getFromStationId() == null || routeItem.getToStationId() == null) {
-                            throw new BusinessException(ErrorCode.PARAMS_ERROR, "起点和终点站点ID不能为空");
-                        }
-                        
-                        if (routeItem.getFromStationId().equals(routeItem.getToStationId())) {
-                            throw new BusinessException(ErrorCode.PARAMS_ERROR, "起点和终点不能相同");
-                        }
-                        
-                        // 路径寻找
-                        OptimalRoute route = pathFinder.findPath(routeItem.getFromStationId(), routeItem.getToStationId());
-                        
-                        if (route == null) {
-                            resultItem.setSuccess(false);
-                            resultItem.setErrorMessage("无法找到从起点到终点的路径");
-                        } else {
-                            // 应用交通因子
-                            if (trafficFactor != 1.0) {
-                                route.setEstimatedTime((int) (route.getEstimatedTime() * trafficFactor));
-                            }
-                            
-                            // 转换为VO
-                            OptimalRouteVO routeVO = convertToVO(route, network);
-                            routeVO.setTrafficFactor(trafficFactor);
-                            
-                            resultItem.setSuccess(true);
-                            resultItem.setRoute(routeVO);
-                        }
-                    } catch (Exception e) {
-                        resultItem.setSuccess(false);
-                        resultItem.setErrorMessage(e.getMessage());
-                        log.error("批量路径计算错误: 从{}到{}, 错误: {}", 
-                                routeItem.getFromStationId(), routeItem.getToStationId(), e.getMessage());
+            for (int i = 0; i < taskCount; i++) {
+                futures.add(routingExecutorManager.submit(() -> {
+                    int index;
+                    while (System.nanoTime() < deadline && (index = nextIndex.getAndIncrement()) < groupCount) {
+                        calculateBatchGroup(groups.get(index), sortedRoutes, slots, completedItems, deadline,
+                                pathFinder, network, trafficFactor, searchCount);
                     }
-                    
-                    return resultItem;
+                    return null;
                 }));
             }
-            
-            // 收集所有结果
-            for (Future<BatchRouteVO.BatchRouteResultItem> future : futures) {
-                try {
-                    BatchRouteVO.BatchRouteResultItem item = future.get();
-                    if (item.getSuccess() != null && item.getSuccess()) {
-                        successCount++;
-                    } else {
-                        failedCount++;
-                    }
-                    resultItems.add(item);
-                } catch (Exception e) {
+        } catch (BusinessException e) {
+            // 线程池已满，撤销本次请求已提交的任务
+            futures.forEach(future -> future.cancel(true));
+            if (!streaming) {
+                throw e;
+            }
+            futures.clear();
+            unfinishedMessage = e.getMessage();
+        }
+        
+        // 在调用线程中按完成顺序输出，输出后释放结果项
+        boolean[] emitted = new boolean[itemCount];
+        int emittedCount = 0;
+        int successCount = 0;
+        int failedCount = 0;
+        try {
+            for (int index : invalidItems) {
+                emitted[index] = true;
+                emittedCount++;
+                failedCount++;
+                itemConsumer.accept(slots.getAndSet(index, null));
+            }
+            while (!futures.isEmpty() && emittedCount < itemCount) {
+                Integer index = completedItems.poll(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (index == null) {
+                    log.warn("批量路径计算超时: 超时时间={}毫秒", timeoutMillis);
+                    break;
+                }
+                BatchRouteVO.BatchRouteResultItem item = slots.getAndSet(index, null);
+                emitted[index] = true;
+                emittedCount++;
+                if (item.getSuccess() != null && item.getSuccess()) {
+                    successCount++;
+                } else {
                     failedCount++;
-                    log.error("获取批量路径计算结果失败: {}", e.getMessage());
                 }
+                itemConsumer.accept(item);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } finally {
-            executorService.shutdown();
+            futures.forEach(future -> future.cancel(true));
         }
         
-        // 结果按原始优先级排序
-        resultItems.sort(Comparator.comparing(BatchRouteVO.BatchRouteResultItem::getPriority).reversed());
+        // 截止时间前未完成的路径项记为失败
+        for (int i = 0; i < itemCount; i++) {
+            if (!emitted[i]) {
+                failedCount++;
+                itemConsumer.accept(createBatchItem(sortedRoutes.get(i), null, unfinishedMessage));
+            }
+        }
         
-        // 设置结果
-        result.setResults(resultItems);
+        // 汇总结果
+        BatchRouteVO result = new BatchRouteVO();
         result.setSuccessCount(successCount);
         result.setFailedCount(failedCount);
+        result.setDistinctPairCount(distinctPairCount);
+        result.setSearchCount(searchCount.get());
         result.setExecutionTime(System.currentTimeMillis() - startTime);
         
-        log.info("批量路径计算完成: 成功={}, 失败={}, 耗时={}毫秒", 
-                successCount, failedCount, result.getExecutionTime());
+        log.info("批量路径计算完成: 成功={}, 失败={}, 不同站点对={}, 实际搜索={}, 耗时={}毫秒", 
+                successCount, failedCount, distinctPairCount, result.getSearchCount(), result.getExecutionTime());
         
         return result;
     }
+    
+    /**
+     * 构建批量结果项，路径为空时为失败项
+     */
+    private BatchRouteVO.BatchRouteResultItem createBatchItem(BatchRouteRequest.RouteItem routeItem,
+                                                              OptimalRouteVO route, String errorMessage) {
+        BatchRouteVO.BatchRouteResultItem resultItem = new BatchRouteVO.BatchRouteResultItem();
+        resultItem.setFromStationId(routeItem.getFromStationId());
+        resultItem.setToStationId(routeItem.getToStationId());
+        resultItem.setPriority(routeItem.getPriority());
+        resultItem.setSuccess(route != null);
+        resultItem.setRoute(route);
+        resultItem.setErrorMessage(errorMessage);
+        return resultItem;
+    }
+    
+    /**
+     * 计算一个起点分组：需要按区域分段的终点逐个搜索，其余终点多于一个时共用一棵最短路径树，
+     * 每个不同的站点对只计算一次，结果分发给该站点对的全部路径项并依次放入完成队列
+     */
+    private void calculateBatchGroup(BatchRouteGroup group, List<BatchRouteRequest.RouteItem> sortedRoutes,
+                                     AtomicReferenceArray<BatchRouteVO.BatchRouteResultItem> slots,
+                                     BlockingQueue<Integer> completedItems, long deadline,
+                                     AStarPathFinder pathFinder, LogisticsNetwork network,
+                                     double trafficFactor, AtomicInteger searchCount) throws InterruptedException {
+        Long fromStationId = group.fromStationId;
+        int destinationCount = group.toStationIds.size();
+        OptimalRoute[] routes = new OptimalRoute[destinationCount];
+        String[] errors = new String[destinationCount];
+        
+        List<Integer> treeDestinations = new ArrayList<>();
+        List<Integer> singleDestinations = new ArrayList<>();
+        for (int j = 0; j < destinationCount; j++) {
+            if (pathFinder.requiresRegionalSegmentation(fromStationId, group.toStationIds.get(j))) {
+                singleDestinations.add(j);
+            } else {
+                treeDestinations.add(j);
+            }
+        }
+        if (treeDestinations.size() == 1) {
+            singleDestinations.add(treeDestinations.remove(0));
+        }
+        
+        if (!treeDestinations.isEmpty()) {
+            long[] targetIds = new long[treeDestinations.size()];
+            for (int k = 0; k < targetIds.length; k++) {
+                targetIds[k] = group.toStationIds.get(treeDestinations.get(k));
+            }
+            searchCount.incrementAndGet();
+            try {
+                OptimalRoute[] treeRoutes = pathFinder.findPathTree(fromStationId, targetIds);
+                for (int k = 0; k < targetIds.length; k++) {
+                    routes[treeDestinations.get(k)] = treeRoutes[k];
+                }
+            } catch (Exception e) {
+                log.error("批量路径计算错误: 起点{}的最短路径树, 错误: {}", fromStationId, e.getMessage());
+                for (int j : treeDestinations) {
+                    errors[j] = e.getMessage();
+                }
+            }
+        }
+        for (int j : singleDestinations) {
+            searchCount.incrementAndGet();
+            try {
+                routes[j] = pathFinder.findPath(fromStationId, group.toStationIds.get(j));
+            } catch (Exception e) {
+                errors[j] = e.getMessage();
+                log.error("批量路径计算错误: 从{}到{}, 错误: {}", 
+                        fromStationId, group.toStationIds.get(j), e.getMessage());
+            }
+        }
+        
+        // 按站点对分发结果
+        for (int j = 0; j < destinationCount; j++) {
+            OptimalRouteVO routeVO = null;
+            String errorMessage = errors[j];
+            OptimalRoute route = routes[j];
+            if (errorMessage == null && route == null) {
+                errorMessage = "无法找到从起点到终点的路径";
+            } else if (route != null) {
+                try {
+                    // 应用交通因子
+                    if (trafficFactor != 1.0) {
+                        route.setEstimatedTime((int) (route.getEstimatedTime() * trafficFactor));
+                    }
+                    routeVO = convertToVO(route, network);
+                    routeVO.setTrafficFactor(trafficFactor);
+                } catch (Exception e) {
+                    errorMessage = e.getMessage();
+                    log.error("批量路径结果转换错误: 从{}到{}, 错误: {}", 
+                            fromStationId, group.toStationIds.get(j), e.getMessage());
+                }
+            }
+            for (int itemIndex : group.itemIndexes.get(j)) {
+                slots.set(itemIndex, createBatchItem(sortedRoutes.get(itemIndex), routeVO, errorMessage));
+                // 调用线程消费过慢时在此等待，到截止时间仍未入队的路径项按超时处理
+                if (!completedItems.offer(itemIndex, Math.max(0L, deadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * 批量请求中同一起点的路径项，终点去重后记录各自对应的路径项下标
+     */
+    private static class BatchRouteGroup {
+        private final Long fromStationId;
+        private final List<Long> toStationIds = new ArrayList<>();
+        private final List<List<Integer>> itemIndexes = new ArrayList<>();
+        private final Map<Long, Integer> destinationIndex = new HashMap<>();
+        
+        BatchRouteGroup(Long fromStationId) {
+            this.fromStationId = fromStationId;
+        }
+        
+        /**
+         * 登记路径项，终点首次出现时返回 true
+         */
+        boolean addItem(Long toStationId, int itemIndex) {
+            Integer index = destinationIndex.get(toStationId);
+            if (index != null) {
+                itemIndexes.get(index).add(itemIndex);
+                return false;
+            }
+            destinationIndex.put(toStationId, toStationIds.size());
+            toStationIds.add(toStationId);
+            List<Integer> indexes = new ArrayList<>();
+            indexes.add(itemIndex);
+            itemIndexes.add(indexes);
+            return true;
+        }
+    }
 }
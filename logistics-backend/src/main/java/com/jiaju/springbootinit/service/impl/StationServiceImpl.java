@@ -5,18 +5,21 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.LogisticsNetworkManager;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
 import com.jiaju.springbootinit.mapper.StationMapper;
 import com.jiaju.springbootinit.model.entity.Region;
 import com.jiaju.springbootinit.model.entity.Station;
 import com.jiaju.springbootinit.model.vo.StationVO;
-import com.jiaju.springbootinit.service.RegionService;
 import com.jiaju.springbootinit.service.StationService;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,7 +32,40 @@ import java.util.stream.Collectors;
 public class StationServiceImpl extends ServiceImpl<StationMapper, Station> implements StationService {
 
     @Resource
-    private RegionService regionService;
+    private LogisticsNetworkManager logisticsNetworkManager;
+
+    @Resource
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Override
+    public boolean save(Station entity) {
+        boolean result = super.save(entity);
+        if (result) {
+            referenceDataCacheManager.stations().invalidate(entity.getId());
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean updateById(Station entity) {
+        boolean result = super.updateById(entity);
+        if (result) {
+            referenceDataCacheManager.stations().invalidate(entity.getId());
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (result) {
+            referenceDataCacheManager.stations().invalidate(id);
+            logisticsNetworkManager.refresh();
+        }
+        return result;
+    }
 
     @Override
     public void validStation(Station station, boolean add) {
@@ -80,7 +116,7 @@ public class StationServiceImpl extends ServiceImpl<StationMapper, Station> impl
         // 填充区域名称
         Long regionId = station.getRegionId();
         if (regionId != null) {
-            Region region = regionService.getById(regionId);
+            Region region = referenceDataCacheManager.regions().get(regionId);
             if (region != null) {
                 stationVO.setRegionName(region.getName());
             }
@@ -104,7 +140,7 @@ public class StationServiceImpl extends ServiceImpl<StationMapper, Station> impl
         // 批量查询区域信息
         Map<Long, String> regionIdNameMap = new java.util.HashMap<>();
         if (CollUtil.isNotEmpty(regionIdSet)) {
-            List<Region> regionList = regionService.listByIds(regionIdSet);
+            Collection<Region> regionList = referenceDataCacheManager.regions().getAll(regionIdSet).values();
             regionIdNameMap = regionList.stream()
                     .collect(Collectors.toMap(Region::getId, Region::getName));
         }
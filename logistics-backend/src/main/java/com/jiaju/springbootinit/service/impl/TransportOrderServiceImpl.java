@@ -1,11 +1,13 @@
 package com.jiaju.springbootinit.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.exception.BusinessException;
-import com.jiaju.springbootinit.mapper.CustomerMapper;
-import com.jiaju.springbootinit.mapper.StationMapper;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
+import com.jiaju.springbootinit.manager.StatusCountManager;
+import com.jiaju.springbootinit.manager.StatusEventManager;
 import com.jiaju.springbootinit.mapper.TransportOrderMapper;
 import com.jiaju.springbootinit.model.entity.Customer;
 import com.jiaju.springbootinit.model.entity.Station;
@@ -16,11 +18,14 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -30,10 +35,54 @@ import java.util.stream.Collectors;
 public class TransportOrderServiceImpl extends ServiceImpl<TransportOrderMapper, TransportOrder> implements TransportOrderService {
 
     @Resource
-    private CustomerMapper customerMapper;
-    
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Resource
+    private StatusCountManager statusCountManager;
+
     @Resource
-    private StationMapper stationMapper;
+    private StatusEventManager statusEventManager;
+
+    @Override
+    public boolean save(TransportOrder entity) {
+        boolean result = super.save(entity);
+        if (result) {
+            statusCountManager.orders().created(entity.getStatus());
+            statusEventManager.orderChanged(entity, null, entity.getStatus());
+        }
+        return result;
+    }
+
+    /**
+     * 通用修改修改了状态时先读取原状态用于状态事件；读取与写入之间可能有并发修改，计数仍只标记过期。
+     * 本类的状态流转按原状态条件更新并精确记录
+     */
+    @Override
+    public boolean updateById(TransportOrder entity) {
+        TransportOrder before = entity.getStatus() != null && entity.getId() != null ? this.getById(entity.getId()) : null;
+        boolean result = super.updateById(entity);
+        if (result && entity.getStatus() != null) {
+            statusCountManager.orders().markStale();
+            if (before != null && !Objects.equals(before.getStatus(), entity.getStatus())) {
+                statusEventManager.orderChanged(entity, before.getStatus(), entity.getStatus());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        TransportOrder order = this.getById(id);
+        if (order == null) {
+            return false;
+        }
+        boolean result = super.removeById(id);
+        if (result) {
+            statusCountManager.orders().removed(order.getStatus());
+            statusEventManager.orderChanged(order, order.getStatus(), null);
+        }
+        return result;
+    }
 
     @Override
     public void validTransportOrder(TransportOrder transportOrder, boolean add) {
@@ -68,21 +117,21 @@ public class TransportOrderServiceImpl extends ServiceImpl<TransportOrderMapper,
         
         // 验证关联对象是否存在
         if (transportOrder.getCustomerId() != null) {
-            Customer customer = customerMapper.selectById(transportOrder.getCustomerId());
+            Customer customer = referenceDataCacheManager.customers().get(transportOrder.getCustomerId());
             if (customer == null) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "客户不存在");
             }
         }
         
         if (transportOrder.getSourceStationId() != null) {
-            Station sourceStation = stationMapper.selectById(transportOrder.getSourceStationId());
+            Station sourceStation = referenceDataCacheManager.stations().get(transportOrder.getSourceStationId());
             if (sourceStation == null) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "始发站点不存在");
             }
         }
         
         if (transportOrder.getTargetStationId() != null) {
-            Station targetStation = stationMapper.selectById(transportOrder.getTargetStationId());
+            Station targetStation = referenceDataCacheManager.stations().get(transportOrder.getTargetStationId());
             if (targetStation == null) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "目标站点不存在");
             }
@@ -108,7 +157,7 @@ public class TransportOrderServiceImpl extends ServiceImpl<TransportOrderMapper,
         
         // 设置客户名称
         if (transportOrder.getCustomerId() != null) {
-            Customer customer = customerMapper.selectById(transportOrder.getCustomerId());
+            Customer customer = referenceDataCacheManager.customers().get(transportOrder.getCustomerId());
             if (customer != null) {
                 transportOrderVO.setCustomerName(customer.getContactName());
                 transportOrderVO.setCustomerCompany(customer.getName());
@@ -117,14 +166,14 @@ public class TransportOrderServiceImpl extends ServiceImpl<TransportOrderMapper,
         
         // 设置站点名称
         if (transportOrder.getSourceStationId() != null) {
-            Station sourceStation = stationMapper.selectById(transportOrder.getSourceStationId());
+            Station sourceStation = referenceDataCacheManager.stations().get(transportOrder.getSourceStationId());
             if (sourceStation != null) {
                 transportOrderVO.setSourceStationName(sourceStation.getName());
             }
         }
         
         if (transportOrder.getTargetStationId() != null) {
-            Station targetStation = stationMapper.selectById(transportOrder.getTargetStationId());
+            Station targetStation = referenceDataCacheManager.stations().get(transportOrder.getTargetStationId());
             if (targetStation != null) {
                 transportOrderVO.setTargetStationName(targetStation.getName());
             }
@@ -186,7 +235,7 @@ public class TransportOrderServiceImpl extends ServiceImpl<TransportOrderMapper,
         Map<Long, String> customerIdNameMap = new HashMap<>();
         Map<Long, String> customerIdCompanyMap = new HashMap<>();
         if (!customerIds.isEmpty()) {
-            List<Customer> customers = customerMapper.selectBatchIds(customerIds);
+            Collection<Customer> customers = referenceDataCacheManager.customers().getAll(customerIds).values();
             customerIdNameMap = customers.stream()
                     .collect(Collectors.toMap(Customer::getId, Customer::getContactName));
             customerIdCompanyMap = customers.stream()
@@ -196,7 +245,7 @@ public class TransportOrderServiceImpl extends ServiceImpl<TransportOrderMapper,
         // 批量查询站点信息
         Map<Long, String> stationIdNameMap = new HashMap<>();
         if (!stationIds.isEmpty()) {
-            List<Station> stations = stationMapper.selectBatchIds(stationIds);
+            Collection<Station> stations = referenceDataCacheManager.stations().getAll(stationIds).values();
             stationIdNameMap = stations.stream()
                     .collect(Collectors.toMap(Station::getId, Station::getName));
         }
@@ -270,9 +319,13 @@ public class TransportOrderServiceImpl extends ServiceImpl<TransportOrderMapper,
             throw new BusinessException(ErrorCode.OPERATION_ERROR, "当前订单状态不可取消");
         }
         
-        // 更新状态为已取消
+        // 按原状态更新为已取消，并发修改同一订单时只有一方成功
+        Integer oldStatus = order.getStatus();
         order.setStatus(4);
-        return this.updateById(order);
+        updateIfStatus(order, oldStatus);
+        statusCountManager.orders().transition(oldStatus, 4);
+        statusEventManager.orderChanged(order, oldStatus, 4);
+        return true;
     }
     
     @Override
@@ -317,7 +370,21 @@ public class TransportOrderServiceImpl extends ServiceImpl<TransportOrderMapper,
                 break;
         }
         
-        // 更新订单
-        return this.updateById(order);
+        // 按原状态更新订单，并发修改同一订单时只有一方成功
+        updateIfStatus(order, oldStatus);
+        statusCountManager.orders().transition(oldStatus, status);
+        statusEventManager.orderChanged(order, oldStatus, status);
+        return true;
+    }
+
+    /**
+     * 按原状态更新订单：数据库中的订单状态已不是 expectedStatus 时不写入并抛出冲突错误
+     */
+    private void updateIfStatus(TransportOrder order, Integer expectedStatus) {
+        UpdateWrapper<TransportOrder> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.eq("id", order.getId()).eq("status", expectedStatus);
+        if (!super.update(order, updateWrapper)) {
+            throw new BusinessException(ErrorCode.CONFLICT_ERROR, "订单状态已被其他操作修改，请刷新后重试");
+        }
     }
 } 
\ No newline at end of file
@@ -1,19 +1,29 @@
 package com.jiaju.springbootinit.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
+import com.jiaju.springbootinit.manager.StatusCountManager;
+import com.jiaju.springbootinit.manager.StatusEventManager;
 import com.jiaju.springbootinit.mapper.*;
+import com.jiaju.springbootinit.model.dto.task.TaskAssignBatchRequest;
 import com.jiaju.springbootinit.model.entity.*;
+import com.jiaju.springbootinit.model.vo.TaskAssignBatchVO;
 import com.jiaju.springbootinit.model.vo.TransportTaskVO;
 import com.jiaju.springbootinit.service.TransportTaskService;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.SqlSession;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -37,7 +47,40 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
     private DriverMapper driverMapper;
     
     @Resource
-    private StationMapper stationMapper;
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Resource
+    private StatusCountManager statusCountManager;
+
+    @Resource
+    private StatusEventManager statusEventManager;
+
+    @Override
+    public boolean save(TransportTask entity) {
+        boolean result = super.save(entity);
+        if (result) {
+            statusCountManager.tasks().created(entity.getStatus());
+            statusEventManager.taskChanged(entity, null, entity.getStatus());
+        }
+        return result;
+    }
+
+    /**
+     * 通用修改修改了状态时先读取原状态用于状态事件；读取与写入之间可能有并发修改，计数仍只标记过期。
+     * 本类的状态流转使用 super.updateById 并精确记录
+     */
+    @Override
+    public boolean updateById(TransportTask entity) {
+        TransportTask before = entity.getStatus() != null && entity.getId() != null ? this.getById(entity.getId()) : null;
+        boolean result = super.updateById(entity);
+        if (result && entity.getStatus() != null) {
+            statusCountManager.tasks().markStale();
+            if (before != null && !Objects.equals(before.getStatus(), entity.getStatus())) {
+                statusEventManager.taskChanged(entity, before.getStatus(), entity.getStatus());
+            }
+        }
+        return result;
+    }
 
     @Override
     public void validTransportTask(TransportTask transportTask, boolean add) {
@@ -78,28 +121,28 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         }
         
         if (transportTask.getVehicleId() != null) {
-            Vehicle vehicle = vehicleMapper.selectById(transportTask.getVehicleId());
+            Vehicle vehicle = referenceDataCacheManager.vehicles().get(transportTask.getVehicleId());
             if (vehicle == null) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "车辆不存在");
             }
         }
         
         if (transportTask.getDriverId() != null) {
-            Driver driver = driverMapper.selectById(transportTask.getDriverId());
+            Driver driver = referenceDataCacheManager.drivers().get(transportTask.getDriverId());
             if (driver == null) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "司机不存在");
             }
         }
         
         if (transportTask.getSourceId() != null) {
-            Station sourceStation = stationMapper.selectById(transportTask.getSourceId());
+            Station sourceStation = referenceDataCacheManager.stations().get(transportTask.getSourceId());
             if (sourceStation == null) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "起点站点不存在");
             }
         }
         
         if (transportTask.getTargetId() != null) {
-            Station targetStation = stationMapper.selectById(transportTask.getTargetId());
+            Station targetStation = referenceDataCacheManager.stations().get(transportTask.getTargetId());
             if (targetStation == null) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "终点站点不存在");
             }
@@ -133,7 +176,7 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         
         // 设置车辆信息
         if (transportTask.getVehicleId() != null) {
-            Vehicle vehicle = vehicleMapper.selectById(transportTask.getVehicleId());
+            Vehicle vehicle = referenceDataCacheManager.vehicles().get(transportTask.getVehicleId());
             if (vehicle != null) {
                 transportTaskVO.setVehicleNo(vehicle.getVehicleNo());
             }
@@ -141,7 +184,7 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         
         // 设置司机信息
         if (transportTask.getDriverId() != null) {
-            Driver driver = driverMapper.selectById(transportTask.getDriverId());
+            Driver driver = referenceDataCacheManager.drivers().get(transportTask.getDriverId());
             if (driver != null) {
                 transportTaskVO.setDriverName(driver.getName());
             }
@@ -149,14 +192,14 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         
         // 设置站点信息
         if (transportTask.getSourceId() != null) {
-            Station sourceStation = stationMapper.selectById(transportTask.getSourceId());
+            Station sourceStation = referenceDataCacheManager.stations().get(transportTask.getSourceId());
             if (sourceStation != null) {
                 transportTaskVO.setSourceName(sourceStation.getName());
             }
         }
         
         if (transportTask.getTargetId() != null) {
-            Station targetStation = stationMapper.selectById(transportTask.getTargetId());
+            Station targetStation = referenceDataCacheManager.stations().get(transportTask.getTargetId());
             if (targetStation != null) {
                 transportTaskVO.setTargetName(targetStation.getName());
             }
@@ -237,7 +280,7 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         // 批量查询车辆信息
         Map<Long, String> vehicleIdNoMap = new HashMap<>();
         if (!vehicleIds.isEmpty()) {
-            List<Vehicle> vehicles = vehicleMapper.selectBatchIds(vehicleIds);
+            Collection<Vehicle> vehicles = referenceDataCacheManager.vehicles().getAll(vehicleIds).values();
             vehicleIdNoMap = vehicles.stream()
                     .collect(Collectors.toMap(Vehicle::getId, Vehicle::getVehicleNo));
         }
@@ -245,7 +288,7 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         // 批量查询司机信息
         Map<Long, String> driverIdNameMap = new HashMap<>();
         if (!driverIds.isEmpty()) {
-            List<Driver> drivers = driverMapper.selectBatchIds(driverIds);
+            Collection<Driver> drivers = referenceDataCacheManager.drivers().getAll(driverIds).values();
             driverIdNameMap = drivers.stream()
                     .collect(Collectors.toMap(Driver::getId, Driver::getName));
         }
@@ -253,7 +296,7 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         // 批量查询站点信息
         Map<Long, String> stationIdNameMap = new HashMap<>();
         if (!stationIds.isEmpty()) {
-            List<Station> stations = stationMapper.selectBatchIds(stationIds);
+            Collection<Station> stations = referenceDataCacheManager.stations().getAll(stationIds).values();
             stationIdNameMap = stations.stream()
                     .collect(Collectors.toMap(Station::getId, Station::getName));
         }
@@ -361,47 +404,330 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "司机不处于空闲状态");
         }
         
-        // 更新任务信息
-        task.setVehicleId(vehicleId);
-        task.setDriverId(driverId);
-        task.setStatus(1); // 更新为待执行状态
-        task.setAssignTime(new Date()); // 记录分配时间
-        boolean taskResult = this.updateById(task);
-        
-        if (!taskResult) {
-            throw new BusinessException(ErrorCode.OPERATION_ERROR, "任务分配失败");
+        // 车辆、司机、任务依次按预期状态更新（与批量分配的加锁顺序一致），不依赖上面读到的状态：
+        // 并发分配同一车辆或司机时只有一方更新成功，另一方收到冲突错误并整体回滚
+        if (vehicleMapper.compareAndSetStatus(vehicleId, 1, 2) == 0) {
+            throw new BusinessException(ErrorCode.CONFLICT_ERROR, "车辆已被其他任务占用，请刷新后重试");
         }
+        referenceDataCacheManager.vehicles().invalidate(vehicleId);
+        statusCountManager.vehicles().transition(1, 2);
         
-        // 更新车辆状态
-        vehicle.setStatus(2); // 更新为任务中状态
-        boolean vehicleResult = vehicleMapper.updateById(vehicle) > 0;
-        if (!vehicleResult) {
-            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新车辆状态失败");
+        if (driverMapper.compareAndSetStatus(driverId, 1, 2) == 0) {
+            throw new BusinessException(ErrorCode.CONFLICT_ERROR, "司机已被其他任务占用，请刷新后重试");
         }
+        referenceDataCacheManager.drivers().invalidate(driverId);
+        statusCountManager.drivers().transition(1, 2);
         
-        // 更新司机状态
-        driver.setStatus(2); // 更新为任务中状态
-        boolean driverResult = driverMapper.updateById(driver) > 0;
-        if (!driverResult) {
-            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新司机状态失败");
+        Date assignTime = new Date();
+        if (baseMapper.assignIfPending(id, vehicleId, driverId, assignTime) == 0) {
+            throw new BusinessException(ErrorCode.CONFLICT_ERROR, "任务已被其他操作修改，请刷新后重试");
         }
+        task.setVehicleId(vehicleId);
+        task.setDriverId(driverId);
+        task.setStatus(1); // 更新为待执行状态
+        task.setAssignTime(assignTime);
+        statusCountManager.tasks().transition(0, 1);
+        statusEventManager.taskChanged(task, 0, 1);
         
-        // 更新关联订单状态
+        // 更新关联订单状态，订单已不处于待分配时不影响任务分配
         if (task.getOrderId() != null) {
             TransportOrder order = transportOrderMapper.selectById(task.getOrderId());
-            if (order != null && order.getStatus() == 0) {
+            if (order != null && order.getStatus() == 0
+                    && transportOrderMapper.assignIfPending(order.getId(), assignTime) > 0) {
                 order.setStatus(1); // 更新为已分配状态
-                order.setAssignTime(new Date());
-                boolean orderResult = transportOrderMapper.updateById(order) > 0;
-                if (!orderResult) {
-                    throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新订单状态失败");
-                }
+                order.setAssignTime(assignTime);
+                statusCountManager.orders().transition(0, 1);
+                statusEventManager.orderChanged(order, 0, 1);
             }
         }
         
         return true;
     }
     
+    /**
+     * 批量分配：一次 IN 查询校验任务、车辆、司机，状态修改全部使用带预期状态的条件更新，按语句类型批量提交。
+     * 先占用车辆和司机，二者都占用成功的项再分配任务；部分成功的项在同一事务内按预期状态退回。
+     * 每项的成败由对应语句的影响行数决定，并发分配同一车辆或司机时只有一方成功。
+     * 每批内各表按主键升序更新，并发批次以相同顺序加行锁，避免互相等待造成死锁
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public TaskAssignBatchVO assignTasks(List<TaskAssignBatchRequest.AssignItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "分配项不能为空");
+        }
+        if (items.size() > MAX_BATCH_ASSIGN_SIZE) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "单次最多分配 " + MAX_BATCH_ASSIGN_SIZE + " 个任务");
+        }
+        int size = items.size();
+        String[] errors = new String[size];
+
+        // 参数及批次内重复校验
+        Set<Long> taskIds = new HashSet<>();
+        Set<Long> vehicleIds = new HashSet<>();
+        Set<Long> driverIds = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            TaskAssignBatchRequest.AssignItem item = items.get(i);
+            if (item == null || item.getTaskId() == null || item.getTaskId() <= 0
+                    || item.getVehicleId() == null || item.getVehicleId() <= 0
+                    || item.getDriverId() == null || item.getDriverId() <= 0) {
+                errors[i] = "参数不合法";
+            } else if (!taskIds.add(item.getTaskId())) {
+                errors[i] = "同一批次中任务重复";
+            } else if (!vehicleIds.add(item.getVehicleId())) {
+                errors[i] = "同一批次中车辆重复";
+            } else if (!driverIds.add(item.getDriverId())) {
+                errors[i] = "同一批次中司机重复";
+            }
+        }
+
+        // 每张表一次 IN 查询，校验当前状态
+        Map<Long, TransportTask> taskMap = new HashMap<>();
+        Map<Long, Vehicle> vehicleMap = new HashMap<>();
+        Map<Long, Driver> driverMap = new HashMap<>();
+        if (!taskIds.isEmpty()) {
+            this.listByIds(taskIds).forEach(task -> taskMap.put(task.getId(), task));
+            vehicleMapper.selectBatchIds(vehicleIds).forEach(vehicle -> vehicleMap.put(vehicle.getId(), vehicle));
+            driverMapper.selectBatchIds(driverIds).forEach(driver -> driverMap.put(driver.getId(), driver));
+        }
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            TaskAssignBatchRequest.AssignItem item = items.get(i);
+            TransportTask task = taskMap.get(item.getTaskId());
+            Vehicle vehicle = vehicleMap.get(item.getVehicleId());
+            Driver driver = driverMap.get(item.getDriverId());
+            if (task == null) {
+                errors[i] = "任务不存在";
+            } else if (!Objects.equals(task.getStatus(), 0)) {
+                errors[i] = "当前任务状态不可分配";
+            } else if (vehicle == null) {
+                errors[i] = "车辆不存在";
+            } else if (!Objects.equals(vehicle.getStatus(), 1)) {
+                errors[i] = "车辆不处于空闲状态";
+            } else if (driver == null) {
+                errors[i] = "司机不存在";
+            } else if (!Objects.equals(driver.getStatus(), 1)) {
+                errors[i] = "司机不处于空闲状态";
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        Date assignTime = new Date();
+        List<Integer> assigned = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            int n = candidates.size();
+            List<Integer> vehicleOrder = candidates.stream()
+                    .sorted(Comparator.comparing(i -> items.get(i).getVehicleId())).collect(Collectors.toList());
+            List<Integer> driverOrder = candidates.stream()
+                    .sorted(Comparator.comparing(i -> items.get(i).getDriverId())).collect(Collectors.toList());
+            // 第一批：车辆、司机由空闲改为任务中
+            int[] occupyCounts = executeUpdateBatch(sqlSession -> {
+                VehicleMapper batchVehicleMapper = sqlSession.getMapper(VehicleMapper.class);
+                DriverMapper batchDriverMapper = sqlSession.getMapper(DriverMapper.class);
+                for (int i : vehicleOrder) {
+                    batchVehicleMapper.compareAndSetStatus(items.get(i).getVehicleId(), 1, 2);
+                }
+                for (int i : driverOrder) {
+                    batchDriverMapper.compareAndSetStatus(items.get(i).getDriverId(), 1, 2);
+                }
+            });
+            boolean[] vehicleOccupiedFlags = new boolean[size];
+            boolean[] driverOccupiedFlags = new boolean[size];
+            for (int k = 0; k < n; k++) {
+                vehicleOccupiedFlags[vehicleOrder.get(k)] = occupyCounts[k] > 0;
+                driverOccupiedFlags[driverOrder.get(k)] = occupyCounts[n + k] > 0;
+            }
+            List<Integer> taskCandidates = new ArrayList<>();
+            List<Long> releaseVehicleIds = new ArrayList<>();
+            List<Long> releaseDriverIds = new ArrayList<>();
+            for (int i : candidates) {
+                boolean vehicleOccupied = vehicleOccupiedFlags[i];
+                boolean driverOccupied = driverOccupiedFlags[i];
+                if (vehicleOccupied && driverOccupied) {
+                    taskCandidates.add(i);
+                    continue;
+                }
+                errors[i] = !vehicleOccupied ? "车辆状态已被其他操作修改" : "司机状态已被其他操作修改";
+                if (vehicleOccupied) {
+                    releaseVehicleIds.add(items.get(i).getVehicleId());
+                }
+                if (driverOccupied) {
+                    releaseDriverIds.add(items.get(i).getDriverId());
+                }
+            }
+            taskCandidates.sort(Comparator.comparing(i -> items.get(i).getTaskId()));
+
+            // 第二批：分配任务，同时退回只占用了一半的车辆或司机
+            int[] assignCounts = executeUpdateBatch(sqlSession -> {
+                TransportTaskMapper batchTaskMapper = sqlSession.getMapper(TransportTaskMapper.class);
+                for (int i : taskCandidates) {
+                    TaskAssignBatchRequest.AssignItem item = items.get(i);
+                    batchTaskMapper.assignIfPending(item.getTaskId(), item.getVehicleId(), item.getDriverId(), assignTime);
+                }
+                releaseOccupied(sqlSession, releaseVehicleIds, releaseDriverIds);
+            });
+            releaseVehicleIds.clear();
+            releaseDriverIds.clear();
+            for (int k = 0; k < taskCandidates.size(); k++) {
+                int i = taskCandidates.get(k);
+                if (assignCounts[k] > 0) {
+                    assigned.add(i);
+                } else {
+                    errors[i] = "任务状态已被其他操作修改";
+                    releaseVehicleIds.add(items.get(i).getVehicleId());
+                    releaseDriverIds.add(items.get(i).getDriverId());
+                }
+            }
+
+            // 第三批：关联订单由待分配改为已分配，同时退回任务分配失败项占用的车辆和司机
+            Set<Long> orderIds = new HashSet<>();
+            for (int i : assigned) {
+                Long orderId = taskMap.get(items.get(i).getTaskId()).getOrderId();
+                if (orderId != null) {
+                    orderIds.add(orderId);
+                }
+            }
+            List<TransportOrder> pendingOrders = orderIds.isEmpty() ? Collections.emptyList()
+                    : transportOrderMapper.selectList(new QueryWrapper<TransportOrder>()
+                    .in("id", orderIds).eq("status", 0).orderByAsc("id"));
+            if (!pendingOrders.isEmpty() || !releaseVehicleIds.isEmpty() || !releaseDriverIds.isEmpty()) {
+                int[] orderCounts = executeUpdateBatch(sqlSession -> {
+                    TransportOrderMapper batchOrderMapper = sqlSession.getMapper(TransportOrderMapper.class);
+                    for (TransportOrder order : pendingOrders) {
+                        batchOrderMapper.assignIfPending(order.getId(), assignTime);
+                    }
+                    releaseOccupied(sqlSession, releaseVehicleIds, releaseDriverIds);
+                });
+                int assignedOrders = 0;
+                for (int k = 0; k < pendingOrders.size(); k++) {
+                    // 订单已被其他操作修改时与单个分配一致，不影响任务分配结果
+                    if (orderCounts[k] > 0) {
+                        TransportOrder order = pendingOrders.get(k);
+                        order.setStatus(1);
+                        order.setAssignTime(assignTime);
+                        statusEventManager.orderChanged(order, 0, 1);
+                        assignedOrders++;
+                    }
+                }
+                statusCountManager.orders().transition(0, 1, assignedOrders);
+            }
+
+            for (int i : assigned) {
+                TaskAssignBatchRequest.AssignItem item = items.get(i);
+                TransportTask task = taskMap.get(item.getTaskId());
+                task.setVehicleId(item.getVehicleId());
+                task.setDriverId(item.getDriverId());
+                task.setStatus(1);
+                task.setAssignTime(assignTime);
+                statusEventManager.taskChanged(task, 0, 1);
+                referenceDataCacheManager.vehicles().invalidate(item.getVehicleId());
+                referenceDataCacheManager.drivers().invalidate(item.getDriverId());
+            }
+            statusCountManager.tasks().transition(0, 1, assigned.size());
+            statusCountManager.vehicles().transition(1, 2, assigned.size());
+            statusCountManager.drivers().transition(1, 2, assigned.size());
+        }
+
+        List<TaskAssignBatchVO.TaskAssignResultItem> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TaskAssignBatchRequest.AssignItem item = items.get(i);
+            TaskAssignBatchVO.TaskAssignResultItem result = new TaskAssignBatchVO.TaskAssignResultItem();
+            if (item != null) {
+                result.setTaskId(item.getTaskId());
+                result.setVehicleId(item.getVehicleId());
+                result.setDriverId(item.getDriverId());
+            }
+            result.setSuccess(errors[i] == null);
+            result.setErrorMessage(errors[i]);
+            results.add(result);
+        }
+        TaskAssignBatchVO batchVO = new TaskAssignBatchVO();
+        batchVO.setSuccessCount(assigned.size());
+        batchVO.setFailedCount(size - assigned.size());
+        batchVO.setResults(results);
+        log.info("批量分配任务完成: 请求={}, 成功={}", size, assigned.size());
+        return batchVO;
+    }
+
+    /**
+     * 按原状态更新任务：数据库中的任务状态已不是 expectedStatus 时不写入并抛出冲突错误
+     */
+    private void updateTaskIfStatus(TransportTask task, Integer expectedStatus) {
+        UpdateWrapper<TransportTask> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.eq("id", task.getId()).eq("status", expectedStatus);
+        if (!super.update(task, updateWrapper)) {
+            throw new BusinessException(ErrorCode.CONFLICT_ERROR, "任务状态已被其他操作修改，请刷新后重试");
+        }
+    }
+
+    /**
+     * 按原状态更新订单：数据库中的订单状态已不是 expectedStatus 时不写入并抛出冲突错误
+     */
+    private void updateOrderIfStatus(TransportOrder order, Integer expectedStatus) {
+        UpdateWrapper<TransportOrder> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.eq("id", order.getId()).eq("status", expectedStatus);
+        if (transportOrderMapper.update(order, updateWrapper) == 0) {
+            throw new BusinessException(ErrorCode.CONFLICT_ERROR, "订单状态已被其他操作修改，请刷新后重试");
+        }
+    }
+
+    /**
+     * 释放任务占用的车辆：仍处于任务中时改回空闲
+     */
+    private void releaseVehicle(Long vehicleId) {
+        if (vehicleId != null && vehicleMapper.compareAndSetStatus(vehicleId, 2, 1) > 0) {
+            referenceDataCacheManager.vehicles().invalidate(vehicleId);
+            statusCountManager.vehicles().transition(2, 1);
+        }
+    }
+
+    /**
+     * 释放任务占用的司机：仍处于任务中时改回空闲
+     */
+    private void releaseDriver(Long driverId) {
+        if (driverId != null && driverMapper.compareAndSetStatus(driverId, 2, 1) > 0) {
+            referenceDataCacheManager.drivers().invalidate(driverId);
+            statusCountManager.drivers().transition(2, 1);
+        }
+    }
+
+    /**
+     * 在批量会话中把本次占用的车辆、司机按预期状态退回空闲，按主键升序更新
+     */
+    private void releaseOccupied(SqlSession sqlSession, List<Long> vehicleIds, List<Long> driverIds) {
+        Collections.sort(vehicleIds);
+        Collections.sort(driverIds);
+        VehicleMapper batchVehicleMapper = sqlSession.getMapper(VehicleMapper.class);
+        for (Long vehicleId : vehicleIds) {
+            batchVehicleMapper.compareAndSetStatus(vehicleId, 2, 1);
+        }
+        DriverMapper batchDriverMapper = sqlSession.getMapper(DriverMapper.class);
+        for (Long driverId : driverIds) {
+            batchDriverMapper.compareAndSetStatus(driverId, 2, 1);
+        }
+    }
+
+    /**
+     * 在当前事务的连接上以批量模式执行更新，同一语句的连续调用合并为一次 JDBC 批处理；
+     * 返回各次调用的影响行数，顺序与调用顺序一致
+     */
+    private int[] executeUpdateBatch(Consumer<SqlSession> statements) {
+        List<Integer> counts = new ArrayList<>();
+        SqlHelper.executeBatch(getEntityClass(), super.log, sqlSession -> {
+            statements.accept(sqlSession);
+            for (BatchResult batchResult : sqlSession.flushStatements()) {
+                for (int count : batchResult.getUpdateCounts()) {
+                    counts.add(count);
+                }
+            }
+        });
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean cancelTask(Long id) {
@@ -423,50 +749,32 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         // 如果任务已分配资源（车辆和司机）且状态为待执行或执行中，需要释放资源
         if (task.getStatus() == 1 || task.getStatus() == 2) {
             // 释放车辆资源
-            if (task.getVehicleId() != null) {
-                Vehicle vehicle = vehicleMapper.selectById(task.getVehicleId());
-                if (vehicle != null && vehicle.getStatus() == 2) {
-                    vehicle.setStatus(1); // 更新为空闲状态
-                    boolean vehicleResult = vehicleMapper.updateById(vehicle) > 0;
-                    if (!vehicleResult) {
-                        throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新车辆状态失败");
-                    }
-                }
-            }
+            releaseVehicle(task.getVehicleId());
             
             // 释放司机资源
-            if (task.getDriverId() != null) {
-                Driver driver = driverMapper.selectById(task.getDriverId());
-                if (driver != null && driver.getStatus() == 2) {
-                    driver.setStatus(1); // 更新为空闲状态
-                    boolean driverResult = driverMapper.updateById(driver) > 0;
-                    if (!driverResult) {
-                        throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新司机状态失败");
-                    }
-                }
-            }
+            releaseDriver(task.getDriverId());
         }
         
+        // 更新状态为已取消，先任务后订单，与分配任务的加锁顺序一致
+        Integer oldStatus = task.getStatus();
+        task.setStatus(4);
+        updateTaskIfStatus(task, oldStatus);
+        statusCountManager.tasks().transition(oldStatus, 4);
+        statusEventManager.taskChanged(task, oldStatus, 4);
+        
         // 更新订单状态
         if (task.getOrderId() != null) {
             TransportOrder order = transportOrderMapper.selectById(task.getOrderId());
             if (order != null && order.getStatus() < 3) {
+                Integer oldOrderStatus = order.getStatus();
                 order.setStatus(4); // 更新为已取消状态
                 order.setCancelTime(new Date());
-                boolean orderResult = transportOrderMapper.updateById(order) > 0;
-                if (!orderResult) {
-                    throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新订单状态失败");
-                }
+                updateOrderIfStatus(order, oldOrderStatus);
+                statusCountManager.orders().transition(oldOrderStatus, 4);
+                statusEventManager.orderChanged(order, oldOrderStatus, 4);
             }
         }
         
-        // 更新状态为已取消
-        task.setStatus(4);
-        boolean result = this.updateById(task);
-        if (!result) {
-            throw new BusinessException(ErrorCode.OPERATION_ERROR, "取消任务失败");
-        }
-        
         return true;
     }
     
@@ -504,95 +812,53 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
                 break;
             case 2: // 执行中
                 task.setActualStart(now);
-                
-                // 更新订单状态为运输中
-                if (task.getOrderId() != null) {
-                    TransportOrder order = transportOrderMapper.selectById(task.getOrderId());
-                    if (order != null && (order.getStatus() == 0 || order.getStatus() == 1)) {
-                        order.setStatus(2); // 更新为运输中状态
-                        order.setStartTransportTime(now);
-                        boolean orderResult = transportOrderMapper.updateById(order) > 0;
-                        if (!orderResult) {
-                            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新订单状态失败");
-                        }
-                    }
-                }
                 break;
             case 3: // 已完成
                 task.setActualEnd(now);
                 
                 // 释放资源 - 将车辆状态重置为空闲
-                if (task.getVehicleId() != null) {
-                    Vehicle vehicle = vehicleMapper.selectById(task.getVehicleId());
-                    if (vehicle != null && vehicle.getStatus() == 2) {
-                        vehicle.setStatus(1); // 更新为空闲状态
-                        boolean vehicleResult = vehicleMapper.updateById(vehicle) > 0;
-                        if (!vehicleResult) {
-                            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新车辆状态失败");
-                        }
-                    }
-                }
+                releaseVehicle(task.getVehicleId());
                 
                 // 释放资源 - 将司机状态重置为空闲
-                if (task.getDriverId() != null) {
-                    Driver driver = driverMapper.selectById(task.getDriverId());
-                    if (driver != null && driver.getStatus() == 2) {
-                        driver.setStatus(1); // 更新为空闲状态
-                        boolean driverResult = driverMapper.updateById(driver) > 0;
-                        if (!driverResult) {
-                            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新司机状态失败");
-                        }
-                    }
-                }
-                
-                // 更新订单状态为已完成
-                if (task.getOrderId() != null) {
-                    TransportOrder order = transportOrderMapper.selectById(task.getOrderId());
-                    if (order != null && order.getStatus() == 2) {
-                        order.setStatus(3); // 更新为已完成状态
-                        order.setCompleteTime(now);
-                        order.setActualDelivery(now);
-                        boolean orderResult = transportOrderMapper.updateById(order) > 0;
-                        if (!orderResult) {
-                            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新订单状态失败");
-                        }
-                    }
-                }
+                releaseDriver(task.getDriverId());
                 break;
             case 4: // 已取消
                 // 释放资源 - 将车辆状态重置为空闲
-                if (task.getVehicleId() != null) {
-                    Vehicle vehicle = vehicleMapper.selectById(task.getVehicleId());
-                    if (vehicle != null && vehicle.getStatus() == 2) {
-                        vehicle.setStatus(1); // 更新为空闲状态
-                        boolean vehicleResult = vehicleMapper.updateById(vehicle) > 0;
-                        if (!vehicleResult) {
-                            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新车辆状态失败");
-                        }
-                    }
-                }
+                releaseVehicle(task.getVehicleId());
                 
                 // 释放资源 - 将司机状态重置为空闲
-                if (task.getDriverId() != null) {
-                    Driver driver = driverMapper.selectById(task.getDriverId());
-                    if (driver != null && driver.getStatus() == 2) {
-                        driver.setStatus(1); // 更新为空闲状态
-                        boolean driverResult = driverMapper.updateById(driver) > 0;
-                        if (!driverResult) {
-                            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新司机状态失败");
-                        }
-                    }
-                }
+                releaseDriver(task.getDriverId());
                 
                 break;
             default:
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "不支持的任务状态值");
         }
         
-        // 更新任务状态
-        boolean result = this.updateById(task);
-        if (!result) {
-            throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新任务状态失败");
+        // 按原状态更新任务，并发修改同一任务时只有一方成功，另一方整体回滚
+        updateTaskIfStatus(task, oldStatus);
+        statusCountManager.tasks().transition(oldStatus, status);
+        statusEventManager.taskChanged(task, oldStatus, status);
+        
+        // 任务更新成功后再更新关联订单，先任务后订单，与分配任务的加锁顺序一致
+        if (task.getOrderId() != null && (status == 2 || status == 3)) {
+            TransportOrder order = transportOrderMapper.selectById(task.getOrderId());
+            if (status == 2 && order != null && (order.getStatus() == 0 || order.getStatus() == 1)) {
+                // 更新订单状态为运输中
+                Integer oldOrderStatus = order.getStatus();
+                order.setStatus(2);
+                order.setStartTransportTime(now);
+                updateOrderIfStatus(order, oldOrderStatus);
+                statusCountManager.orders().transition(oldOrderStatus, 2);
+                statusEventManager.orderChanged(order, oldOrderStatus, 2);
+            } else if (status == 3 && order != null && order.getStatus() == 2) {
+                // 更新订单状态为已完成
+                order.setStatus(3);
+                order.setCompleteTime(now);
+                order.setActualDelivery(now);
+                updateOrderIfStatus(order, 2);
+                statusCountManager.orders().transition(2, 3);
+                statusEventManager.orderChanged(order, 2, 3);
+            }
         }
         
         return true;
@@ -668,19 +934,23 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         order.setUpdateTime(new Date());
         // 明确设置hasTask属性为true，确保该订单不会出现在未创建任务的订单列表中
         order.setHasTask(1);
-        transportOrderMapper.updateById(order);
+        // 按原状态更新，同一订单被并发创建任务时只有一方成功
+        updateOrderIfStatus(order, 0);
+        statusCountManager.orders().transition(0, 1);
+        statusEventManager.orderChanged(order, 0, 1);
         
         return task.getId();
     }
 
     /**
      * 任务删除前的处理逻辑
-     * 重写removeById方法，在删除任务前进行处理
+     * 重写removeById方法，删除待分配任务后恢复关联订单
      * 
      * @param id 任务ID
      * @return 是否删除成功
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean removeById(Long id) {
         // 获取任务信息
         TransportTask task = this.getById(id);
@@ -690,6 +960,15 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
         
         log.info("开始处理任务删除, 任务ID: {}, 任务状态: {}, 关联订单ID: {}", id, task.getStatus(), task.getOrderId());
         
+        // 先逻辑删除任务再恢复订单，与分配任务的加锁顺序一致 (MyBatis Plus的逻辑删除)
+        boolean removeResult = super.removeById(id);
+        log.info("任务逻辑删除结果: {}, 任务ID: {}", removeResult, id);
+        if (!removeResult) {
+            return false;
+        }
+        statusCountManager.tasks().removed(task.getStatus());
+        statusEventManager.taskChanged(task, task.getStatus(), null);
+        
         // 只有待分配状态的任务删除时，需要恢复订单状态
         if (task.getStatus() == 0 && task.getOrderId() != null) {
             Long orderId = task.getOrderId();
@@ -700,15 +979,15 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
                         orderId, order.getStatus(), order.getHasTask());
                 
                 // 将订单状态恢复为待分配，并标记为未创建任务
+                Integer oldOrderStatus = order.getStatus();
                 order.setStatus(0); // 待分配状态
                 order.setHasTask(0);
                 order.setUpdateTime(new Date());
                 
-                boolean result = transportOrderMapper.updateById(order) > 0;
-                if (!result) {
-                    log.error("更新订单状态失败, 订单ID: {}", orderId);
-                    throw new BusinessException(ErrorCode.OPERATION_ERROR, "更新订单状态失败");
-                }
+                // 按原状态更新，订单已被并发修改时抛出冲突错误
+                updateOrderIfStatus(order, oldOrderStatus);
+                statusCountManager.orders().transition(oldOrderStatus, 0);
+                statusEventManager.orderChanged(order, oldOrderStatus, 0);
                 
                 log.info("成功恢复订单状态为待分配, 订单ID: {}", orderId);
             } else {
@@ -718,9 +997,6 @@ public class TransportTaskServiceImpl extends ServiceImpl<TransportTaskMapper, T
             log.info("任务不是待分配状态或没有关联订单, 跳过订单状态恢复");
         }
         
-        // 调用父类的逻辑删除方法 (MyBatis Plus的逻辑删除)
-        boolean removeResult = super.removeById(id);
-        log.info("任务逻辑删除结果: {}, 任务ID: {}", removeResult, id);
-        return removeResult;
+        return true;
     }
 } 
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.constant.CommonConstant;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.LoginUserCacheManager;
 import com.jiaju.springbootinit.mapper.UserMapper;
 import com.jiaju.springbootinit.model.dto.user.UserQueryRequest;
 import com.jiaju.springbootinit.model.entity.User;
@@ -16,9 +17,11 @@ import com.jiaju.springbootinit.model.vo.LoginUserVO;
 import com.jiaju.springbootinit.model.vo.UserVO;
 import com.jiaju.springbootinit.service.UserService;
 import com.jiaju.springbootinit.utils.SqlUtils;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import me.chanjar.weixin.common.bean.WxOAuth2UserInfo;
@@ -42,6 +45,28 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
      */
     public static final String SALT = "jiaju";
 
+    @Resource
+    private LoginUserCacheManager loginUserCacheManager;
+
+    @Override
+    public boolean updateById(User entity) {
+        boolean result = super.updateById(entity);
+        if (result) {
+            // 角色变更、封号等需立即对鉴权生效
+            loginUserCacheManager.invalidate(entity.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (result) {
+            loginUserCacheManager.invalidate(id);
+        }
+        return result;
+    }
+
     @Override
     public long userRegister(String userAccount, String userPassword, String checkPassword) {
         // 1. 校验
@@ -110,6 +135,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
         // 3. 记录用户的登录态
         request.getSession().setAttribute(USER_LOGIN_STATE, user);
+        loginUserCacheManager.put(user);
         return this.getLoginUserVO(user);
     }
 
@@ -141,6 +167,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             }
             // 记录用户的登录态
             request.getSession().setAttribute(USER_LOGIN_STATE, user);
+            loginUserCacheManager.put(user);
             return getLoginUserVO(user);
         }
     }
@@ -159,9 +186,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (currentUser == null || currentUser.getId() == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
-        // 从数据库查询（追求性能的话可以注释，直接走缓存）
+        // 读取用户快照，未命中时查库；用户修改、删除时快照主动失效
         long userId = currentUser.getId();
-        currentUser = this.getById(userId);
+        currentUser = loginUserCacheManager.get(userId, this::getById);
         if (currentUser == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
@@ -182,9 +209,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         if (currentUser == null || currentUser.getId() == null) {
             return null;
         }
-        // 从数据库查询（追求性能的话可以注释，直接走缓存）
+        // 读取用户快照，未命中时查库
         long userId = currentUser.getId();
-        return this.getById(userId);
+        return loginUserCacheManager.get(userId, this::getById);
     }
 
     /**
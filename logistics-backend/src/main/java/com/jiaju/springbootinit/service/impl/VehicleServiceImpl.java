@@ -4,8 +4,9 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.jiaju.springbootinit.common.ErrorCode;
 import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
+import com.jiaju.springbootinit.manager.StatusCountManager;
 import com.jiaju.springbootinit.mapper.DriverMapper;
-import com.jiaju.springbootinit.mapper.StationMapper;
 import com.jiaju.springbootinit.mapper.VehicleMapper;
 import com.jiaju.springbootinit.model.entity.Station;
 import com.jiaju.springbootinit.model.entity.Vehicle;
@@ -17,7 +18,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -30,7 +33,10 @@ import java.util.stream.Collectors;
 public class VehicleServiceImpl extends ServiceImpl<VehicleMapper, Vehicle> implements VehicleService {
 
     @Resource
-    private StationMapper stationMapper;
+    private ReferenceDataCacheManager referenceDataCacheManager;
+
+    @Resource
+    private StatusCountManager statusCountManager;
 
     @Resource
     private DriverMapper driverMapper;
@@ -38,6 +44,39 @@ public class VehicleServiceImpl extends ServiceImpl<VehicleMapper, Vehicle> impl
     @Resource
     VehicleMapper vehicleMapper;
 
+    @Override
+    public boolean save(Vehicle entity) {
+        boolean result = super.save(entity);
+        if (result) {
+            referenceDataCacheManager.vehicles().invalidate(entity.getId());
+            statusCountManager.vehicles().created(entity.getStatus());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean updateById(Vehicle entity) {
+        boolean result = super.updateById(entity);
+        if (result) {
+            referenceDataCacheManager.vehicles().invalidate(entity.getId());
+            // 通用修改无法得知原状态，修改了状态时重新统计
+            if (entity.getStatus() != null) {
+                statusCountManager.vehicles().markStale();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (result) {
+            referenceDataCacheManager.vehicles().invalidate(id);
+            statusCountManager.vehicles().markStale();
+        }
+        return result;
+    }
+
     @Override
     public void validVehicle(Vehicle vehicle, boolean add) {
         if (vehicle == null) {
@@ -94,7 +133,7 @@ public class VehicleServiceImpl extends ServiceImpl<VehicleMapper, Vehicle> impl
 
         // 设置站点名称
         if (vehicle.getStationId() != null) {
-            Station station = stationMapper.selectById(vehicle.getStationId());
+            Station station = referenceDataCacheManager.stations().get(vehicle.getStationId());
             if (station != null) {
                 vehicleVO.setStationName(station.getName());
             }
@@ -119,7 +158,7 @@ public class VehicleServiceImpl extends ServiceImpl<VehicleMapper, Vehicle> impl
         // 如果有站点ID，批量查询站点信息
         Map<Long, String> stationIdNameMap = new java.util.HashMap<>();
         if (!stationIds.isEmpty()) {
-            List<Station> stations = stationMapper.selectBatchIds(stationIds);
+            Collection<Station> stations = referenceDataCacheManager.stations().getAll(stationIds).values();
             stationIdNameMap = stations.stream()
                     .collect(Collectors.toMap(Station::getId, Station::getName));
         }
@@ -146,30 +185,13 @@ public class VehicleServiceImpl extends ServiceImpl<VehicleMapper, Vehicle> impl
 
     @Override
     public VehicleStatisticsVO getVehicleStatistics() {
+        // 读取内存中的状态计数，不再逐状态执行 COUNT 查询
+        StatusCountManager.Snapshot counts = statusCountManager.vehicles().snapshot();
         VehicleStatisticsVO statisticsVO = new VehicleStatisticsVO();
-        
-        // 获取车辆总数
-        long totalCount = this.count();
-        statisticsVO.setTotal(totalCount);
-        
-        // 获取空闲车辆数量
-        QueryWrapper<Vehicle> idleQuery = new QueryWrapper<>();
-        idleQuery.eq("status", 1); // 空闲状态为1
-        long idleCount = this.count(idleQuery);
-        statisticsVO.setIdle(idleCount);
-        
-        // 获取任务中车辆数量
-        QueryWrapper<Vehicle> inTaskQuery = new QueryWrapper<>();
-        inTaskQuery.eq("status", 2); // 任务中状态为2
-        long inTaskCount = this.count(inTaskQuery);
-        statisticsVO.setInTask(inTaskCount);
-        
-        // 获取维修中车辆数量
-        QueryWrapper<Vehicle> maintenanceQuery = new QueryWrapper<>();
-        maintenanceQuery.eq("status", 0); // 维修中状态为0
-        long maintenanceCount = this.count(maintenanceQuery);
-        statisticsVO.setMaintenance(maintenanceCount);
-        
+        statisticsVO.setTotal(counts.getTotal());
+        statisticsVO.setIdle(counts.get(1)); // 空闲状态为1
+        statisticsVO.setInTask(counts.get(2)); // 任务中状态为2
+        statisticsVO.setMaintenance(counts.get(0)); // 维修中状态为0
         return statisticsVO;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+-- station_distance_cache 按站点对去重：枢纽间距离持久化使用 ON DUPLICATE KEY UPDATE，
+-- 缺少站点对唯一键时每次快照重建都会追加一整套记录
+
+-- 同一站点对只保留最新写入的一条
+DELETE c1 FROM station_distance_cache c1
+JOIN station_distance_cache c2
+  ON c1.from_station_id = c2.from_station_id
+ AND c1.to_station_id = c2.to_station_id
+ AND c1.id < c2.id;
+
+-- 站点对唯一键，同时覆盖按起始站点的查询，原起始站点索引不再需要
+ALTER TABLE station_distance_cache
+ADD UNIQUE KEY uk_from_to_station (from_station_id, to_station_id),
+DROP INDEX idx_from_station;
@@ -0,0 +1,102 @@
+package com.jiaju.springbootinit.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 匈牙利算法指派测试，与穷举结果对比
+ */
+class AssignmentSolverTest {
+
+    @Test
+    void solvesSquareMatrix() {
+        double[][] cost = {
+                {4, 1, 3},
+                {2, 0, 5},
+                {3, 2, 2}
+        };
+        int[] assignment = AssignmentSolver.solve(cost);
+        assertEquals(5.0, totalCost(cost, assignment), 1e-9);
+        assertArrayEquals(new int[]{1, 0, 2}, assignment);
+    }
+
+    @Test
+    void emptyMatrixYieldsEmptyAssignment() {
+        assertEquals(0, AssignmentSolver.solve(new double[0][0]).length);
+        assertArrayEquals(new int[]{-1, -1}, AssignmentSolver.solve(new double[2][0]));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomRectangularMatrices() {
+        Random random = new Random(42);
+        for (int round = 0; round < 300; round++) {
+            int rows = 1 + random.nextInt(6);
+            int cols = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][cols];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    cost[i][j] = random.nextInt(100);
+                }
+            }
+            int[] assignment = AssignmentSolver.solve(cost);
+
+            assertEquals(rows, assignment.length);
+            Set<Integer> usedCols = new HashSet<>();
+            int assigned = 0;
+            for (int col : assignment) {
+                if (col >= 0) {
+                    assertTrue(usedCols.add(col), "列被重复指派");
+                    assigned++;
+                }
+            }
+            // 每行或每列（取较少的一维）都恰好被指派一次
+            assertEquals(Math.min(rows, cols), assigned);
+            assertEquals(bruteForce(cost), totalCost(cost, assignment), 1e-9);
+        }
+    }
+
+    private static double totalCost(double[][] cost, int[] assignment) {
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) {
+                total += cost[i][assignment[i]];
+            }
+        }
+        return total;
+    }
+
+    private static double bruteForce(double[][] cost) {
+        int rows = cost.length;
+        int cols = cost[0].length;
+        return search(cost, 0, new boolean[cols], Math.min(rows, cols));
+    }
+
+    private static double search(double[][] cost, int row, boolean[] usedCols, int remaining) {
+        if (remaining == 0) {
+            return 0;
+        }
+        if (row == cost.length) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < usedCols.length; j++) {
+            if (!usedCols[j]) {
+                usedCols[j] = true;
+                best = Math.min(best, cost[row][j] + search(cost, row + 1, usedCols, remaining - 1));
+                usedCols[j] = false;
+            }
+        }
+        // 行数多于列数时允许该行不指派
+        if (cost.length - row > remaining) {
+            best = Math.min(best, search(cost, row + 1, usedCols, remaining));
+        }
+        return best;
+    }
+}
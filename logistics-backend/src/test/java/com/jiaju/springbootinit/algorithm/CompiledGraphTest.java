@@ -0,0 +1,136 @@
+package com.jiaju.springbootinit.algorithm;
+
+import com.jiaju.springbootinit.model.entity.Station;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 紧凑图（CSR）构建测试
+ */
+class CompiledGraphTest {
+
+    private CompiledGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        LogisticsNetwork network = new LogisticsNetwork();
+        network.addStation(station(30L, "P30", 1L, 30.0, 120.0));
+        network.addStation(station(10L, "ZX10", 1L, 30.1, 120.1));
+        network.addStation(station(20L, "P20", 2L, 30.2, 120.2));
+        network.addStation(station(40L, "P40", 2L, 30.3, 120.3));
+        network.addEdge(10L, 20L, 12.0, 30, 100.0);
+        network.addEdge(10L, 30L, 8.0, 20, 60.0);
+        network.addEdge(30L, 20L, 400.0, 300, 900.0);
+        network.addEdge(20L, 10L, 12.5, 31, 101.0);
+        graph = network.getCompiledGraph();
+    }
+
+    @Test
+    void stationIdsAreMappedToSortedDenseIndexes() {
+        assertEquals(4, graph.getNodeCount());
+        assertEquals(0, graph.indexOf(10L));
+        assertEquals(1, graph.indexOf(20L));
+        assertEquals(2, graph.indexOf(30L));
+        assertEquals(3, graph.indexOf(40L));
+        assertEquals(-1, graph.indexOf(99L));
+        assertEquals(30L, graph.getStationId(2));
+    }
+
+    @Test
+    void outgoingEdgesAreStoredContiguouslyPerNode() {
+        assertEquals(4, graph.getEdgeCount());
+        int node10 = graph.indexOf(10L);
+        assertEquals(2, graph.edgeEnd(node10) - graph.edgeStart(node10));
+        Set<Long> targets = new HashSet<>();
+        for (int e = graph.edgeStart(node10); e < graph.edgeEnd(node10); e++) {
+            assertEquals(node10, graph.edgeSource(e));
+            targets.add(graph.getStationId(graph.edgeTarget(e)));
+        }
+        assertEquals(new HashSet<>(Arrays.asList(20L, 30L)), targets);
+
+        // 没有出边的站点区间为空，边的起点查找跳过空区间
+        int node40 = graph.indexOf(40L);
+        assertEquals(graph.edgeStart(node40), graph.edgeEnd(node40));
+        for (int e = 0; e < graph.getEdgeCount(); e++) {
+            int source = graph.edgeSource(e);
+            assertTrue(graph.edgeStart(source) <= e && e < graph.edgeEnd(source));
+        }
+    }
+
+    @Test
+    void edgeAttributesFollowTheirEdge() {
+        int edge = findEdge(30L, 20L);
+        assertEquals(400.0, graph.edgeDistance(edge));
+        assertEquals(300, graph.edgeTravelTime(edge));
+        assertEquals(900.0, graph.edgeCost(edge));
+    }
+
+    @Test
+    void reverseAdjacencyListsIncomingEdges() {
+        int node20 = graph.indexOf(20L);
+        Set<Long> sources = new HashSet<>();
+        for (int position = graph.reverseStart(node20); position < graph.reverseEnd(node20); position++) {
+            int edge = graph.reverseEdge(position);
+            assertEquals(node20, graph.edgeTarget(edge));
+            assertEquals(graph.edgeSource(edge), graph.reverseSource(position));
+            sources.add(graph.getStationId(graph.reverseSource(position)));
+        }
+        assertEquals(new HashSet<>(Arrays.asList(10L, 30L)), sources);
+    }
+
+    @Test
+    void stationAttributesAreCompiled() {
+        assertTrue(graph.isHub(graph.indexOf(10L)));
+        assertFalse(graph.isHub(graph.indexOf(30L)));
+        assertEquals(graph.getRegionIndex(graph.indexOf(10L)), graph.getRegionIndex(graph.indexOf(30L)));
+        assertEquals(graph.getRegionIndex(graph.indexOf(20L)), graph.regionIndexOf(2L));
+        assertEquals(2, graph.getRegionCount());
+        assertEquals(30.2, graph.getLatitude(graph.indexOf(20L)));
+    }
+
+    @Test
+    void edgeWeightsAreNormalizedPenalizedAndCached() {
+        double[] distanceOnly = graph.getEdgeWeights(2.0, 0.0, 0.0);
+        int shortEdge = findEdge(10L, 20L);
+        int longEdge = findEdge(30L, 20L);
+        assertEquals(12.0, distanceOnly[shortEdge], 1e-9);
+        assertEquals(400.0 * AStarPathFinder.LONG_DISTANCE_PENALTY, distanceOnly[longEdge], 1e-9);
+
+        double[] mixed = graph.getEdgeWeights(0.5, 0.3, 0.2);
+        assertEquals(0.5 * 12.0 + 0.3 * 30 * 0.1 + 0.2 * 100.0 * 0.5, mixed[shortEdge], 1e-9);
+        assertSame(mixed, graph.getEdgeWeights(0.5, 0.3, 0.2));
+    }
+
+    private int findEdge(long fromId, long toId) {
+        int from = graph.indexOf(fromId);
+        int to = graph.indexOf(toId);
+        for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+            if (graph.edgeTarget(e) == to) {
+                return e;
+            }
+        }
+        throw new AssertionError("边不存在: " + fromId + " -> " + toId);
+    }
+
+    private static Station station(long id, String code, long regionId, double latitude, double longitude) {
+        Station station = new Station();
+        station.setId(id);
+        station.setName("站点" + id);
+        station.setCode(code);
+        station.setRegionId(regionId);
+        station.setLatitude(BigDecimal.valueOf(latitude));
+        station.setLongitude(BigDecimal.valueOf(longitude));
+        station.setStatus(1);
+        return station;
+    }
+}
@@ -0,0 +1,165 @@
+package com.jiaju.springbootinit.algorithm;
+
+import com.jiaju.springbootinit.benchmark.SyntheticNetwork;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 枢纽距离矩阵测试：多区域合成网络上与带区域中转规则的参考 Dijkstra 对比
+ */
+class HubDistanceMatrixTest {
+
+    private static final double DISTANCE_WEIGHT = 0.5;
+
+    private static final double TIME_WEIGHT = 0.3;
+
+    private static final double COST_WEIGHT = 0.2;
+
+    private static CompiledGraph graph;
+
+    private static double[] weights;
+
+    private static HubDistanceMatrix matrix;
+
+    @BeforeAll
+    static void setUp() {
+        LogisticsNetwork network = SyntheticNetwork.generate(SyntheticNetwork.Topology.MULTI_REGION, 800, 42L).build();
+        graph = network.getCompiledGraph();
+        weights = graph.getEdgeWeights(DISTANCE_WEIGHT, TIME_WEIGHT, COST_WEIGHT);
+        matrix = HubDistanceMatrix.compute(graph, DISTANCE_WEIGHT, TIME_WEIGHT, COST_WEIGHT, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    void costsMatchReferenceDijkstra() {
+        int hubCount = matrix.getHubCount();
+        assertTrue(hubCount > 1);
+        assertTrue(matrix.hasPaths());
+        for (int from = 0; from < hubCount; from++) {
+            int fromNode = matrix.getHubNode(from);
+            assertTrue(graph.isHub(fromNode));
+            double[] expected = dijkstra(fromNode);
+            for (int to = 0; to < hubCount; to++) {
+                int toNode = matrix.getHubNode(to);
+                double cost = matrix.cost(fromNode, toNode);
+                if (Double.isInfinite(expected[toNode])) {
+                    assertTrue(Double.isInfinite(cost));
+                } else {
+                    assertEquals(expected[toNode], cost, Math.max(1e-9, expected[toNode] * 1e-9),
+                            fromNode + " -> " + toNode);
+                }
+            }
+        }
+    }
+
+    @Test
+    void pathsFollowEdgesAndMatchDistance() {
+        int hubCount = matrix.getHubCount();
+        for (int from = 0; from < hubCount; from++) {
+            int fromNode = matrix.getHubNode(from);
+            for (int to = 0; to < hubCount; to++) {
+                int toNode = matrix.getHubNode(to);
+                int[] path = matrix.path(fromNode, toNode);
+                if (Double.isInfinite(matrix.cost(fromNode, toNode))) {
+                    assertNull(path);
+                    continue;
+                }
+                assertNotNull(path);
+                assertEquals(fromNode, path[0]);
+                assertEquals(toNode, path[path.length - 1]);
+                double cost = 0.0;
+                double distance = 0.0;
+                int time = 0;
+                for (int i = 1; i < path.length; i++) {
+                    int edge = cheapestEdge(path[i - 1], path[i]);
+                    assertTrue(edge >= 0, "路径相邻节点之间没有边");
+                    cost += weights[edge];
+                    distance += graph.edgeDistance(edge);
+                    time += graph.edgeTravelTime(edge);
+                }
+                String label = fromNode + " -> " + toNode;
+                assertEquals(matrix.cost(fromNode, toNode), cost, Math.max(1e-9, cost * 1e-9), label);
+                assertEquals(matrix.distance(fromNode, toNode), distance, Math.max(1e-9, distance * 1e-9), label);
+                assertEquals(matrix.travelTime(fromNode, toNode), time, label);
+            }
+        }
+    }
+
+    @Test
+    void nonHubLookupsAreUnreachable() {
+        int nonHub = -1;
+        for (int node = 0; node < graph.getNodeCount() && nonHub < 0; node++) {
+            if (!graph.isHub(node)) {
+                nonHub = node;
+            }
+        }
+        int hub = matrix.getHubNode(0);
+        assertTrue(Double.isInfinite(matrix.cost(hub, nonHub)));
+        assertTrue(Double.isInfinite(matrix.distance(nonHub, hub)));
+        assertNull(matrix.path(hub, nonHub));
+    }
+
+    @Test
+    void memoryEstimateIsBoundedByPrunedPathTrees() {
+        long hubCount = matrix.getHubCount();
+        long cells = hubCount * hubCount;
+        long estimate = matrix.estimateMemoryBytes();
+        assertTrue(estimate >= cells * 20);
+        // 路径树只保留到枢纽路径上的节点，每行不超过节点数
+        assertTrue(estimate <= cells * 20 + hubCount * 12 + hubCount * graph.getNodeCount() * 8L);
+    }
+
+    /**
+     * 相邻节点间权重最小的边，不存在时返回-1
+     */
+    private static int cheapestEdge(int from, int to) {
+        int best = -1;
+        for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+            if (graph.edgeTarget(e) == to && (best < 0 || weights[e] < weights[best])) {
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 参考实现：非枢纽站点不能直接跨区域到达非枢纽站点的朴素 Dijkstra
+     */
+    private static double[] dijkstra(int source) {
+        int nodeCount = graph.getNodeCount();
+        double[] dist = new double[nodeCount];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        boolean[] done = new boolean[nodeCount];
+        IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+        dist[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            done[u] = true;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.edgeTarget(e);
+                if (v < 0 || done[v]) {
+                    continue;
+                }
+                int fromRegion = graph.getRegionIndex(u);
+                int toRegion = graph.getRegionIndex(v);
+                if (!graph.isHub(u) && !graph.isHub(v) && fromRegion >= 0 && toRegion >= 0
+                        && fromRegion != toRegion) {
+                    continue;
+                }
+                if (dist[u] + weights[e] < dist[v]) {
+                    dist[v] = dist[u] + weights[e];
+                    heap.insertOrDecrease(v, dist[v]);
+                }
+            }
+        }
+        return dist;
+    }
+}
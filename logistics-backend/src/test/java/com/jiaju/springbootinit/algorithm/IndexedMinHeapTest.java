@@ -0,0 +1,68 @@
+package com.jiaju.springbootinit.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 索引最小堆测试
+ */
+class IndexedMinHeapTest {
+
+    @Test
+    void pollReturnsNodesInKeyOrder() {
+        Random random = new Random(7);
+        int count = 1000;
+        double[] keys = new double[count];
+        IndexedMinHeap heap = new IndexedMinHeap(count);
+        for (int node = 0; node < count; node++) {
+            keys[node] = random.nextDouble() * 100;
+            heap.insertOrDecrease(node, keys[node]);
+        }
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (double expected : sorted) {
+            assertEquals(expected, heap.peekKey());
+            assertEquals(expected, keys[heap.poll()]);
+        }
+        assertTrue(heap.isEmpty());
+        assertEquals(Double.POSITIVE_INFINITY, heap.peekKey());
+    }
+
+    @Test
+    void decreaseKeyMovesNodeUpAndIgnoresLargerKeys() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(0, 5.0);
+        heap.insertOrDecrease(1, 3.0);
+        heap.insertOrDecrease(2, 4.0);
+
+        heap.insertOrDecrease(0, 1.0);
+        heap.insertOrDecrease(1, 10.0);
+
+        assertEquals(3, heap.size());
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    void clearResetsPositionsForReuse() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.insertOrDecrease(0, 2.0);
+        heap.insertOrDecrease(1, 1.0);
+        heap.clear();
+
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(0));
+        assertFalse(heap.contains(1));
+
+        heap.insertOrDecrease(1, 7.0);
+        assertTrue(heap.contains(1));
+        assertEquals(1, heap.poll());
+    }
+}
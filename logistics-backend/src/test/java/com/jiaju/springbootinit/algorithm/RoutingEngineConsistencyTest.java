@@ -0,0 +1,142 @@
+package com.jiaju.springbootinit.algorithm;
+
+import com.jiaju.springbootinit.benchmark.SyntheticNetwork;
+import com.jiaju.springbootinit.model.enums.RoutingEngineEnum;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 路径引擎一致性测试：在合成网络上，收缩层次与双向A*的结果代价与参考 Dijkstra 完全一致；
+ * A* 的启发值为校正后的直线距离，可能高估，只保证找到路径且代价不低于最优、偏差有界
+ */
+class RoutingEngineConsistencyTest {
+
+    private static final int STATION_COUNT = 1500;
+
+    private static final int QUERY_COUNT = 150;
+
+    private static final double DISTANCE_WEIGHT = 1.0;
+
+    private static final double TIME_WEIGHT = 0.0;
+
+    private static final double COST_WEIGHT = 0.0;
+
+    // A* 相对最优代价的最大偏差
+    private static final double ASTAR_MAX_DEVIATION = 0.01;
+
+    @ParameterizedTest
+    @EnumSource(SyntheticNetwork.Topology.class)
+    void enginesAgreeWithReferenceDijkstra(SyntheticNetwork.Topology topology) {
+        LogisticsNetwork network = SyntheticNetwork.generate(topology, STATION_COUNT, 42L).build();
+        CompiledGraph graph = network.getCompiledGraph();
+        double[] weights = graph.getEdgeWeights(DISTANCE_WEIGHT, TIME_WEIGHT, COST_WEIGHT);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph, DISTANCE_WEIGHT, TIME_WEIGHT, COST_WEIGHT,
+                false);
+
+        AStarPathFinder astar = finder(network, RoutingEngineEnum.ASTAR);
+        AStarPathFinder bidirectional = finder(network, RoutingEngineEnum.BIDIRECTIONAL);
+
+        Random random = new Random(7);
+        int nodeCount = graph.getNodeCount();
+        for (int query = 0; query < QUERY_COUNT; query++) {
+            int source = random.nextInt(nodeCount);
+            int target = random.nextInt(nodeCount);
+            if (source == target) {
+                continue;
+            }
+            long sourceId = graph.getStationId(source);
+            long targetId = graph.getStationId(target);
+            double expected = dijkstra(graph, weights, source, target);
+            String label = topology + " " + sourceId + " -> " + targetId;
+
+            OptimalRoute chRoute = hierarchy.findPath(sourceId, targetId);
+            OptimalRoute bidirectionalRoute = bidirectional.findPath(sourceId, targetId);
+            OptimalRoute astarRoute = astar.findPath(sourceId, targetId);
+            if (Double.isInfinite(expected)) {
+                assertNull(chRoute, label);
+                assertNull(bidirectionalRoute, label);
+                assertNull(astarRoute, label);
+                continue;
+            }
+            assertNotNull(chRoute, label);
+            assertNotNull(bidirectionalRoute, label);
+            assertNotNull(astarRoute, label);
+            assertEquals(expected, pathCost(graph, weights, chRoute), tolerance(expected), "CH " + label);
+            assertEquals(expected, pathCost(graph, weights, bidirectionalRoute), tolerance(expected),
+                    "双向A* " + label);
+            assertEquals(chRoute.getTotalDistance(), bidirectionalRoute.getTotalDistance(), tolerance(expected),
+                    label);
+            double astarCost = pathCost(graph, weights, astarRoute);
+            assertTrue(astarCost >= expected - tolerance(expected), "A* " + label);
+            assertTrue(astarCost <= expected * (1 + ASTAR_MAX_DEVIATION), "A* " + label + ": " + astarCost);
+        }
+    }
+
+    private static AStarPathFinder finder(LogisticsNetwork network, RoutingEngineEnum engine) {
+        AStarPathFinder finder = new AStarPathFinder(network);
+        finder.setWeights(DISTANCE_WEIGHT, TIME_WEIGHT, COST_WEIGHT);
+        finder.setEnforceRegionalTransfer(false);
+        finder.setEngine(engine);
+        return finder;
+    }
+
+    private static double tolerance(double expected) {
+        return Math.max(1e-9, expected * 1e-9);
+    }
+
+    /**
+     * 按路径上相邻站点间最小权重的边累计代价
+     */
+    private static double pathCost(CompiledGraph graph, double[] weights, OptimalRoute route) {
+        List<Long> pathNodes = route.getPathNodes();
+        double total = 0.0;
+        for (int i = 1; i < pathNodes.size(); i++) {
+            int from = graph.indexOf(pathNodes.get(i - 1));
+            int to = graph.indexOf(pathNodes.get(i));
+            double best = Double.POSITIVE_INFINITY;
+            for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+                if (graph.edgeTarget(e) == to) {
+                    best = Math.min(best, weights[e]);
+                }
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * 参考实现：不使用启发值和工作区复用的朴素 Dijkstra
+     */
+    static double dijkstra(CompiledGraph graph, double[] weights, int source, int target) {
+        double[] dist = new double[graph.getNodeCount()];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        boolean[] done = new boolean[graph.getNodeCount()];
+        IndexedMinHeap heap = new IndexedMinHeap(graph.getNodeCount());
+        dist[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            if (u == target) {
+                return dist[u];
+            }
+            done[u] = true;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.edgeTarget(e);
+                if (v >= 0 && !done[v] && dist[u] + weights[e] < dist[v]) {
+                    dist[v] = dist[u] + weights[e];
+                    heap.insertOrDecrease(v, dist[v]);
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,307 @@
+package com.jiaju.springbootinit.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.jiaju.springbootinit.algorithm.AStarPathFinder;
+import com.jiaju.springbootinit.algorithm.LogisticsNetwork;
+import com.jiaju.springbootinit.algorithm.OptimalRoute;
+import com.jiaju.springbootinit.utils.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 路径计算基准测试
+ * 在合成网络上测量网络构建、直线距离估算、A* 点到点搜索（区分是否强制区域中转）和多线程批量路径计算吞吐，
+ * 结果以 JSON 输出，便于不同版本之间对比。不启动 Spring 容器，也不访问数据库
+ * <p>
+ * 位于测试源码目录，不随应用打包。运行方式（先执行 mvn test-compile，
+ * 并用 mvn dependency:build-classpath -Dmdep.outputFile=cp.txt 导出依赖）：
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) com.jiaju.springbootinit.benchmark.RoutingBenchmark \
+ *     --sizes=1000,10000,100000 --threads=1,2,4,8 --out=benchmark.json
+ * </pre>
+ * 可选参数：--topologies=grid,random-geometric,multi-region --queries=2000 --seed=42
+ */
+public class RoutingBenchmark {
+
+    private static final int DIRECT_DISTANCE_OPS = 200_000;
+
+    private final List<Map<String, Object>> results = new ArrayList<>();
+
+    private final int queries;
+
+    private final long seed;
+
+    private RoutingBenchmark(int queries, long seed) {
+        this.queries = queries;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {1000, 10000, 100000};
+        int[] threads = {1, 2, 4, 8};
+        List<SyntheticNetwork.Topology> topologies = new ArrayList<>();
+        int queries = 2000;
+        long seed = 42L;
+        String out = null;
+        for (String arg : args) {
+            if (arg.startsWith("--sizes=")) {
+                sizes = parseInts(arg.substring("--sizes=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = parseInts(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--topologies=")) {
+                for (String value : arg.substring("--topologies=".length()).split(",")) {
+                    SyntheticNetwork.Topology topology = SyntheticNetwork.Topology.getEnumByValue(value.trim());
+                    if (topology == null) {
+                        throw new IllegalArgumentException("未知拓扑: " + value);
+                    }
+                    topologies.add(topology);
+                }
+            } else if (arg.startsWith("--queries=")) {
+                queries = Integer.parseInt(arg.substring("--queries=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--out=")) {
+                out = arg.substring("--out=".length());
+            } else {
+                throw new IllegalArgumentException("未知参数: " + arg);
+            }
+        }
+        if (topologies.isEmpty()) {
+            for (SyntheticNetwork.Topology topology : SyntheticNetwork.Topology.values()) {
+                topologies.add(topology);
+            }
+        }
+        // 搜索器在每次找到路径时输出 INFO 日志，基准测试期间只保留告警
+        Logger root = LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        if (root instanceof ch.qos.logback.classic.Logger) {
+            ((ch.qos.logback.classic.Logger) root).setLevel(Level.WARN);
+        }
+
+        RoutingBenchmark benchmark = new RoutingBenchmark(queries, seed);
+        for (SyntheticNetwork.Topology topology : topologies) {
+            for (int size : sizes) {
+                benchmark.run(topology, size, threads);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        report.put("seed", seed);
+        report.put("queries", queries);
+        report.put("results", benchmark.results);
+        String json = JSON.toJSONString(report, SerializerFeature.PrettyFormat,
+                SerializerFeature.DisableCircularReferenceDetect);
+        if (out == null) {
+            System.out.println(json);
+        } else {
+            Files.write(Paths.get(out), json.getBytes(StandardCharsets.UTF_8));
+            System.err.println("基准测试结果已写入 " + out);
+        }
+    }
+
+    /**
+     * 对一个拓扑和规模执行全部基准项
+     */
+    private void run(SyntheticNetwork.Topology topology, int size, int[] threads) throws Exception {
+        System.err.println("生成网络: " + topology.getValue() + ", 站点数=" + size);
+        SyntheticNetwork synthetic = SyntheticNetwork.generate(topology, size, seed);
+        LogisticsNetwork network = benchmarkBuild(synthetic, size);
+        long[][] pairs = randomPairs(synthetic, queries, seed + size);
+
+        benchmarkDirectDistance(network, synthetic, size);
+        benchmarkFindPath(network, synthetic, size, pairs, false);
+        benchmarkFindPath(network, synthetic, size, pairs, true);
+        for (int threadCount : threads) {
+            benchmarkBatch(network, synthetic, size, pairs, threadCount);
+        }
+    }
+
+    /**
+     * 网络构建：加载实体、补全枢纽连接、编译邻接数组和区域叠加图
+     */
+    private LogisticsNetwork benchmarkBuild(SyntheticNetwork synthetic, int size) {
+        int repeats = Math.max(3, Math.min(20, 200_000 / size));
+        LogisticsNetwork network = synthetic.build();
+        LatencyHistogram histogram = new LatencyHistogram();
+        long start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) {
+            long begin = System.nanoTime();
+            network = synthetic.build();
+            histogram.record((System.nanoTime() - begin) / 1000L);
+        }
+        long elapsed = System.nanoTime() - start;
+        Map<String, Object> result = result("networkBuild", synthetic, size, 1, repeats, elapsed, histogram);
+        result.put("edges", network.getCompiledGraph().getEdgeCount());
+        results.add(result);
+        return network;
+    }
+
+    /**
+     * 直线距离估算（A* 启发函数的主要开销）
+     */
+    private void benchmarkDirectDistance(LogisticsNetwork network, SyntheticNetwork synthetic, int size) {
+        long[][] pairs = randomPairs(synthetic, 4096, seed ^ size);
+        double sink = 0;
+        for (int i = 0; i < DIRECT_DISTANCE_OPS / 4; i++) {
+            long[] pair = pairs[i & 4095];
+            sink += network.getDirectDistance(pair[0], pair[1]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < DIRECT_DISTANCE_OPS; i++) {
+            long[] pair = pairs[i & 4095];
+            sink += network.getDirectDistance(pair[0], pair[1]);
+        }
+        long elapsed = System.nanoTime() - start;
+        Map<String, Object> result = result("getDirectDistance", synthetic, size, 1, DIRECT_DISTANCE_OPS,
+                elapsed, null);
+        result.put("meanNanos", (double) elapsed / DIRECT_DISTANCE_OPS);
+        // 输出累加结果，避免循环被优化掉
+        result.put("checksum", sink);
+        results.add(result);
+    }
+
+    /**
+     * 单线程点到点搜索
+     */
+    private void benchmarkFindPath(LogisticsNetwork network, SyntheticNetwork synthetic, int size,
+                                   long[][] pairs, boolean enforceRegionalTransfer) {
+        AStarPathFinder finder = new AStarPathFinder(network);
+        finder.setEnforceRegionalTransfer(enforceRegionalTransfer);
+        // 预热：使搜索路径完成即时编译，并分配线程内搜索工作区
+        for (int i = 0; i < pairs.length / 4; i++) {
+            finder.findPath(pairs[i][0], pairs[i][1]);
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        int found = 0;
+        long start = System.nanoTime();
+        for (long[] pair : pairs) {
+            long begin = System.nanoTime();
+            OptimalRoute route = finder.findPath(pair[0], pair[1]);
+            histogram.record((System.nanoTime() - begin) / 1000L);
+            if (route != null) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        Map<String, Object> result = result("findPath", synthetic, size, 1, pairs.length, elapsed, histogram);
+        result.put("enforceRegionalTransfer", enforceRegionalTransfer);
+        result.put("found", found);
+        results.add(result);
+    }
+
+    /**
+     * 多线程批量路径计算：各线程持有独立搜索器，共享同一网络快照，从公共游标领取查询
+     */
+    private void benchmarkBatch(LogisticsNetwork network, SyntheticNetwork synthetic, int size,
+                                long[][] pairs, int threadCount) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            // 预热各工作线程
+            runBatch(executor, network, pairs, threadCount, pairs.length / 4, null);
+            LatencyHistogram histogram = new LatencyHistogram();
+            long start = System.nanoTime();
+            int found = runBatch(executor, network, pairs, threadCount, pairs.length, histogram);
+            long elapsed = System.nanoTime() - start;
+            Map<String, Object> result = result("batchFindPath", synthetic, size, threadCount, pairs.length,
+                    elapsed, histogram);
+            result.put("found", found);
+            results.add(result);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int runBatch(ExecutorService executor, LogisticsNetwork network, long[][] pairs,
+                                int threadCount, int count, LatencyHistogram histogram) throws Exception {
+        AtomicInteger cursor = new AtomicInteger();
+        List<Future<Integer>> futures = new ArrayList<>(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            futures.add(executor.submit(() -> {
+                AStarPathFinder finder = new AStarPathFinder(network);
+                int found = 0;
+                int index;
+                while ((index = cursor.getAndIncrement()) < count) {
+                    long begin = System.nanoTime();
+                    OptimalRoute route = finder.findPath(pairs[index][0], pairs[index][1]);
+                    if (histogram != null) {
+                        histogram.record((System.nanoTime() - begin) / 1000L);
+                    }
+                    if (route != null) {
+                        found++;
+                    }
+                }
+                return found;
+            }));
+        }
+        int found = 0;
+        for (Future<Integer> future : futures) {
+            found += future.get();
+        }
+        return found;
+    }
+
+    private static Map<String, Object> result(String benchmark, SyntheticNetwork synthetic, int size,
+                                              int threads, int ops, long elapsedNanos,
+                                              LatencyHistogram histogram) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", benchmark);
+        result.put("topology", synthetic.getTopology().getValue());
+        result.put("stations", size);
+        result.put("threads", threads);
+        result.put("ops", ops);
+        result.put("elapsedMillis", elapsedNanos / 1e6);
+        result.put("opsPerSecond", ops * 1e9 / Math.max(1L, elapsedNanos));
+        if (histogram != null) {
+            result.put("meanMicros", histogram.getMeanMicros());
+            result.put("p50Micros", histogram.getPercentileMicros(50));
+            result.put("p99Micros", histogram.getPercentileMicros(99));
+            result.put("maxMicros", histogram.getMaxMicros());
+        }
+        return result;
+    }
+
+    /**
+     * 随机抽取起终点不同的站点对
+     */
+    private static long[][] randomPairs(SyntheticNetwork synthetic, int count, long seed) {
+        Random random = new Random(seed);
+        int stationCount = synthetic.getStations().size();
+        long[][] pairs = new long[count][2];
+        for (int i = 0; i < count; i++) {
+            int from = random.nextInt(stationCount);
+            int to = random.nextInt(stationCount - 1);
+            if (to >= from) {
+                to++;
+            }
+            pairs[i][0] = synthetic.getStations().get(from).getId();
+            pairs[i][1] = synthetic.getStations().get(to).getId();
+        }
+        return pairs;
+    }
+
+    private static int[] parseInts(String value) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
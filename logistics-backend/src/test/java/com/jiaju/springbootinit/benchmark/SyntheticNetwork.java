@@ -0,0 +1,459 @@
+package com.jiaju.springbootinit.benchmark;
+
+import com.jiaju.springbootinit.algorithm.LogisticsNetwork;
+import com.jiaju.springbootinit.model.entity.Region;
+import com.jiaju.springbootinit.model.entity.Route;
+import com.jiaju.springbootinit.model.entity.Station;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试与单元测试用合成物流网络
+ * 生成与数据库加载结果相同形态的站点、路线和区域实体，构建流程与 LogisticsNetworkManager 一致；
+ * 拓扑包括规则网格、随机几何图和多区域枢纽网络，同一种子生成的网络完全相同
+ */
+public class SyntheticNetwork {
+
+    /**
+     * 拓扑类型
+     */
+    public enum Topology {
+
+        GRID("grid"),
+        RANDOM_GEOMETRIC("random-geometric"),
+        MULTI_REGION("multi-region");
+
+        private final String value;
+
+        Topology(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public static Topology getEnumByValue(String value) {
+            for (Topology topology : values()) {
+                if (topology.value.equals(value)) {
+                    return topology;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 站点ID起始值
+     */
+    private static final long STATION_ID_BASE = 1_000_000L;
+
+    /**
+     * 网格、随机几何图覆盖的经纬度范围（度）
+     */
+    private static final double MIN_LATITUDE = 22.0;
+
+    private static final double MIN_LONGITUDE = 100.0;
+
+    private static final double SPAN_DEGREES = 16.0;
+
+    /**
+     * 每个区域的枢纽站点数（编码含 ZX）
+     */
+    private static final int HUBS_PER_REGION = 2;
+
+    /**
+     * 最近邻连接数，双向连接后平均出度约 3，避免大量站点因连接数达到 5 被识别为枢纽
+     */
+    private static final int NEAREST_NEIGHBORS = 3;
+
+    private final Topology topology;
+
+    private final List<Station> stations = new ArrayList<>();
+
+    private final List<Route> routes = new ArrayList<>();
+
+    private final List<Region> regions = new ArrayList<>();
+
+    private final Set<Long> linkedPairs = new HashSet<>();
+
+    private SyntheticNetwork(Topology topology) {
+        this.topology = topology;
+    }
+
+    /**
+     * 生成指定拓扑和规模的网络
+     *
+     * @param topology     拓扑类型
+     * @param stationCount 站点数
+     * @param seed         随机种子
+     * @return 合成网络
+     */
+    public static SyntheticNetwork generate(Topology topology, int stationCount, long seed) {
+        SyntheticNetwork network = new SyntheticNetwork(topology);
+        Random random = new Random(seed);
+        switch (topology) {
+            case GRID:
+                network.generateGrid(stationCount, random);
+                break;
+            case RANDOM_GEOMETRIC:
+                network.generateRandomGeometric(stationCount, random);
+                break;
+            case MULTI_REGION:
+                network.generateMultiRegion(stationCount, random);
+                break;
+            default:
+                throw new IllegalArgumentException("未知拓扑: " + topology);
+        }
+        return network;
+    }
+
+    /**
+     * 按 LogisticsNetworkManager 的流程构建网络并编译为只读快照
+     */
+    public LogisticsNetwork build() {
+        LogisticsNetwork network = new LogisticsNetwork();
+        for (Station station : stations) {
+            network.addStation(station);
+        }
+        for (Route route : routes) {
+            network.addEdge(route);
+        }
+        for (Region region : regions) {
+            network.addRegion(region);
+        }
+        network.ensureHubStationsConnectivity();
+        network.getCompiledGraph();
+        network.getRegionOverlay();
+        network.setVersion(1L);
+        return network;
+    }
+
+    public Topology getTopology() {
+        return topology;
+    }
+
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * 规则网格：四邻接双向路线，按网格分块划分区域
+     */
+    private void generateGrid(int stationCount, Random random) {
+        int side = (int) Math.ceil(Math.sqrt(stationCount));
+        int regionSide = regionSide(stationCount);
+        double step = SPAN_DEGREES / side;
+        int[] regionOf = new int[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            int row = i / side;
+            int col = i % side;
+            regionOf[i] = (row * regionSide / side) * regionSide + col * regionSide / side;
+            addStation(i, MIN_LATITUDE + row * step, MIN_LONGITUDE + col * step, regionOf[i]);
+        }
+        for (int i = 0; i < stationCount; i++) {
+            int col = i % side;
+            if (col + 1 < side && i + 1 < stationCount) {
+                addBidirectionalRoute(i, i + 1, random);
+            }
+            if (i + side < stationCount) {
+                addBidirectionalRoute(i, i + side, random);
+            }
+        }
+        addRegions(regionSide * regionSide, regionOf);
+        markHubs(regionOf, regionSide * regionSide, random);
+    }
+
+    /**
+     * 随机几何图：均匀撒点，每个站点连接最近的若干站点，按经纬度方格划分区域
+     */
+    private void generateRandomGeometric(int stationCount, Random random) {
+        int regionSide = regionSide(stationCount);
+        double[] latitudes = new double[stationCount];
+        double[] longitudes = new double[stationCount];
+        int[] regionOf = new int[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            latitudes[i] = MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES;
+            longitudes[i] = MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES;
+            int row = Math.min(regionSide - 1, (int) ((latitudes[i] - MIN_LATITUDE) / SPAN_DEGREES * regionSide));
+            int col = Math.min(regionSide - 1, (int) ((longitudes[i] - MIN_LONGITUDE) / SPAN_DEGREES * regionSide));
+            regionOf[i] = row * regionSide + col;
+            addStation(i, latitudes[i], longitudes[i], regionOf[i]);
+        }
+        connectNearest(latitudes, longitudes, NEAREST_NEIGHBORS, random);
+        addRegions(regionSide * regionSide, regionOf);
+        markHubs(regionOf, regionSide * regionSide, random);
+    }
+
+    /**
+     * 多区域枢纽网络：站点围绕区域中心聚集，区域内按最近邻连接，枢纽站点负责区域间连接
+     */
+    private void generateMultiRegion(int stationCount, Random random) {
+        int regionCount = regionSide(stationCount) * regionSide(stationCount);
+        double[] centerLatitudes = new double[regionCount];
+        double[] centerLongitudes = new double[regionCount];
+        for (int r = 0; r < regionCount; r++) {
+            centerLatitudes[r] = MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES;
+            centerLongitudes[r] = MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES;
+        }
+        double[] latitudes = new double[stationCount];
+        double[] longitudes = new double[stationCount];
+        int[] regionOf = new int[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            int r = i % regionCount;
+            regionOf[i] = r;
+            latitudes[i] = centerLatitudes[r] + random.nextGaussian() * 0.4;
+            longitudes[i] = centerLongitudes[r] + random.nextGaussian() * 0.4;
+            addStation(i, latitudes[i], longitudes[i], r);
+        }
+        // 区域内连接：随机几何图按区域分别生成
+        List<List<Integer>> members = new ArrayList<>();
+        for (int r = 0; r < regionCount; r++) {
+            members.add(new ArrayList<>());
+        }
+        for (int i = 0; i < stationCount; i++) {
+            members.get(regionOf[i]).add(i);
+        }
+        for (List<Integer> member : members) {
+            connectNearestWithin(member, latitudes, longitudes, NEAREST_NEIGHBORS, random);
+        }
+        addRegions(regionCount, regionOf, centerLatitudes, centerLongitudes);
+        // 区域间仅通过枢纽连接（枢纽两两连通由网络构建时补全）
+        markHubs(regionOf, regionCount, random);
+    }
+
+    /**
+     * 区域划分边长：每千个站点约一个区域，区域数限制在 4~64 之间，控制枢纽两两连接的规模
+     */
+    private static int regionSide(int stationCount) {
+        int regionCount = Math.max(4, Math.min(64, stationCount / 1000));
+        return (int) Math.ceil(Math.sqrt(regionCount));
+    }
+
+    private void addStation(int index, double latitude, double longitude, int region) {
+        Station station = new Station();
+        station.setId(STATION_ID_BASE + index);
+        station.setName("站点" + index);
+        station.setCode("P" + index);
+        station.setRegionId(regionId(region));
+        station.setLatitude(BigDecimal.valueOf(latitude));
+        station.setLongitude(BigDecimal.valueOf(longitude));
+        station.setStatus(1);
+        stations.add(station);
+    }
+
+    private static long regionId(int region) {
+        return region + 1L;
+    }
+
+    private void addRegions(int regionCount, int[] regionOf) {
+        double[] latitudes = new double[regionCount];
+        double[] longitudes = new double[regionCount];
+        int[] counts = new int[regionCount];
+        for (int i = 0; i < regionOf.length; i++) {
+            Station station = stations.get(i);
+            latitudes[regionOf[i]] += station.getLatitude().doubleValue();
+            longitudes[regionOf[i]] += station.getLongitude().doubleValue();
+            counts[regionOf[i]]++;
+        }
+        for (int r = 0; r < regionCount; r++) {
+            if (counts[r] > 0) {
+                latitudes[r] /= counts[r];
+                longitudes[r] /= counts[r];
+            }
+        }
+        addRegions(regionCount, regionOf, latitudes, longitudes);
+    }
+
+    private void addRegions(int regionCount, int[] regionOf, double[] latitudes, double[] longitudes) {
+        for (int r = 0; r < regionCount; r++) {
+            Region region = new Region();
+            region.setId(regionId(r));
+            region.setName("区域" + r);
+            region.setCode("R" + r);
+            region.setCenterLatitude(BigDecimal.valueOf(latitudes[r]));
+            region.setCenterLongitude(BigDecimal.valueOf(longitudes[r]));
+            region.setStatus(1);
+            regions.add(region);
+        }
+    }
+
+    /**
+     * 每个区域随机选取固定数量的站点，编码加 ZX 标记为枢纽
+     */
+    private void markHubs(int[] regionOf, int regionCount, Random random) {
+        int[] marked = new int[regionCount];
+        int[] order = new int[regionOf.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        for (int i : order) {
+            if (marked[regionOf[i]] < HUBS_PER_REGION) {
+                marked[regionOf[i]]++;
+                Station station = stations.get(i);
+                station.setCode("ZX" + station.getCode());
+            }
+        }
+    }
+
+    /**
+     * 全部站点按最近邻连接，使用均匀网格分桶查找
+     */
+    private void connectNearest(double[] latitudes, double[] longitudes, int neighbors, Random random) {
+        int stationCount = latitudes.length;
+        int cellsPerSide = Math.max(1, (int) Math.sqrt(stationCount / 2.0));
+        double cellSize = SPAN_DEGREES / cellsPerSide;
+        int[] cellStart = new int[cellsPerSide * cellsPerSide + 1];
+        int[] cellOf = new int[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            int row = Math.min(cellsPerSide - 1, (int) ((latitudes[i] - MIN_LATITUDE) / cellSize));
+            int col = Math.min(cellsPerSide - 1, (int) ((longitudes[i] - MIN_LONGITUDE) / cellSize));
+            cellOf[i] = row * cellsPerSide + col;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cellsPerSide * cellsPerSide; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] cellMembers = new int[stationCount];
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length - 1);
+        for (int i = 0; i < stationCount; i++) {
+            cellMembers[fill[cellOf[i]]++] = i;
+        }
+
+        int[] best = new int[neighbors];
+        double[] bestDistance = new double[neighbors];
+        for (int i = 0; i < stationCount; i++) {
+            int row = cellOf[i] / cellsPerSide;
+            int col = cellOf[i] % cellsPerSide;
+            int found = 0;
+            // 由内向外扩大搜索环，直到找够邻居且再外一圈不可能更近
+            for (int radius = 1; radius <= cellsPerSide; radius++) {
+                Arrays.fill(best, -1);
+                Arrays.fill(bestDistance, Double.MAX_VALUE);
+                found = 0;
+                for (int r = Math.max(0, row - radius); r <= Math.min(cellsPerSide - 1, row + radius); r++) {
+                    for (int c = Math.max(0, col - radius); c <= Math.min(cellsPerSide - 1, col + radius); c++) {
+                        int cell = r * cellsPerSide + c;
+                        for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                            int j = cellMembers[k];
+                            if (j != i) {
+                                found += offer(best, bestDistance, j,
+                                        squaredDegrees(latitudes, longitudes, i, j)) ? 1 : 0;
+                            }
+                        }
+                    }
+                }
+                if (found >= neighbors && bestDistance[neighbors - 1] <= (radius * cellSize) * (radius * cellSize)) {
+                    break;
+                }
+            }
+            for (int j : best) {
+                if (j >= 0) {
+                    addBidirectionalRoute(i, j, random);
+                }
+            }
+        }
+    }
+
+    /**
+     * 指定站点集合内按最近邻连接（区域内站点数较少，直接两两比较）
+     */
+    private void connectNearestWithin(List<Integer> members, double[] latitudes, double[] longitudes,
+                                      int neighbors, Random random) {
+        int[] best = new int[neighbors];
+        double[] bestDistance = new double[neighbors];
+        for (int i : members) {
+            Arrays.fill(best, -1);
+            Arrays.fill(bestDistance, Double.MAX_VALUE);
+            for (int j : members) {
+                if (j != i) {
+                    offer(best, bestDistance, j, squaredDegrees(latitudes, longitudes, i, j));
+                }
+            }
+            for (int j : best) {
+                if (j >= 0) {
+                    addBidirectionalRoute(i, j, random);
+                }
+            }
+        }
+    }
+
+    /**
+     * 维护按距离升序的前 k 个候选，返回是否被接纳
+     */
+    private static boolean offer(int[] best, double[] bestDistance, int candidate, double distance) {
+        int k = best.length;
+        if (distance >= bestDistance[k - 1]) {
+            return false;
+        }
+        int position = k - 1;
+        while (position > 0 && bestDistance[position - 1] > distance) {
+            best[position] = best[position - 1];
+            bestDistance[position] = bestDistance[position - 1];
+            position--;
+        }
+        best[position] = candidate;
+        bestDistance[position] = distance;
+        return true;
+    }
+
+    private static double squaredDegrees(double[] latitudes, double[] longitudes, int i, int j) {
+        double dLat = latitudes[i] - latitudes[j];
+        double dLon = longitudes[i] - longitudes[j];
+        return dLat * dLat + dLon * dLon;
+    }
+
+    private void addBidirectionalRoute(int from, int to, Random random) {
+        // 互为最近邻的站点对只连接一次
+        long key = (long) Math.min(from, to) * Integer.MAX_VALUE + Math.max(from, to);
+        if (!linkedPairs.add(key)) {
+            return;
+        }
+        addRoute(from, to, random);
+        addRoute(to, from, random);
+    }
+
+    /**
+     * 添加单向路线：距离为球面距离乘以 1.1~1.4 的绕行系数，时间按 60km/h，成本按每公里 2.5 元
+     */
+    private void addRoute(int from, int to, Random random) {
+        Station source = stations.get(from);
+        Station target = stations.get(to);
+        double distance = haversine(source, target) * (1.1 + random.nextDouble() * 0.3);
+        Route route = new Route();
+        route.setFromStationId(source.getId());
+        route.setToStationId(target.getId());
+        route.setDistance(BigDecimal.valueOf(distance));
+        route.setTravelTime((int) Math.ceil(distance));
+        route.setTransportCost(BigDecimal.valueOf(distance * 2.5));
+        route.setStatus(1);
+        route.setIsDelete(0);
+        routes.add(route);
+    }
+
+    private static double haversine(Station a, Station b) {
+        double lat1 = Math.toRadians(a.getLatitude().doubleValue());
+        double lat2 = Math.toRadians(b.getLatitude().doubleValue());
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(b.getLongitude().doubleValue() - a.getLongitude().doubleValue());
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6371.0 * 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+    }
+}
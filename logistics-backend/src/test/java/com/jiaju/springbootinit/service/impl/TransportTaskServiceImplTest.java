@@ -0,0 +1,173 @@
+package com.jiaju.springbootinit.service.impl;
+
+import com.jiaju.springbootinit.common.ErrorCode;
+import com.jiaju.springbootinit.config.ReferenceCacheConfig;
+import com.jiaju.springbootinit.exception.BusinessException;
+import com.jiaju.springbootinit.manager.ReferenceDataCacheManager;
+import com.jiaju.springbootinit.manager.StatusCountManager;
+import com.jiaju.springbootinit.manager.StatusEventManager;
+import com.jiaju.springbootinit.mapper.DriverMapper;
+import com.jiaju.springbootinit.mapper.TransportOrderMapper;
+import com.jiaju.springbootinit.mapper.TransportTaskMapper;
+import com.jiaju.springbootinit.mapper.VehicleMapper;
+import com.jiaju.springbootinit.model.entity.Driver;
+import com.jiaju.springbootinit.model.entity.TransportOrder;
+import com.jiaju.springbootinit.model.entity.TransportTask;
+import com.jiaju.springbootinit.model.entity.Vehicle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 单任务分配的条件更新测试：车辆、司机、任务依次按预期状态更新，任一步失败即返回冲突且不再继续
+ */
+class TransportTaskServiceImplTest {
+
+    private static final long TASK_ID = 1L;
+
+    private static final long ORDER_ID = 10L;
+
+    private static final long VEHICLE_ID = 100L;
+
+    private static final long DRIVER_ID = 200L;
+
+    private TransportTaskMapper taskMapper;
+
+    private TransportOrderMapper orderMapper;
+
+    private VehicleMapper vehicleMapper;
+
+    private DriverMapper driverMapper;
+
+    private StatusEventManager statusEventManager;
+
+    private TransportTaskServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        taskMapper = mock(TransportTaskMapper.class);
+        orderMapper = mock(TransportOrderMapper.class);
+        vehicleMapper = mock(VehicleMapper.class);
+        driverMapper = mock(DriverMapper.class);
+        statusEventManager = mock(StatusEventManager.class);
+
+        ReferenceDataCacheManager referenceDataCacheManager = new ReferenceDataCacheManager();
+        ReflectionTestUtils.setField(referenceDataCacheManager, "referenceCacheConfig", new ReferenceCacheConfig());
+        ReflectionTestUtils.setField(referenceDataCacheManager, "vehicleMapper", vehicleMapper);
+        ReflectionTestUtils.setField(referenceDataCacheManager, "driverMapper", driverMapper);
+        referenceDataCacheManager.init();
+
+        StatusCountManager statusCountManager = new StatusCountManager();
+        ReflectionTestUtils.setField(statusCountManager, "transportTaskMapper", taskMapper);
+        ReflectionTestUtils.setField(statusCountManager, "transportOrderMapper", orderMapper);
+        ReflectionTestUtils.setField(statusCountManager, "vehicleMapper", vehicleMapper);
+        ReflectionTestUtils.setField(statusCountManager, "driverMapper", driverMapper);
+        statusCountManager.init();
+
+        service = new TransportTaskServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", taskMapper);
+        ReflectionTestUtils.setField(service, "transportOrderMapper", orderMapper);
+        ReflectionTestUtils.setField(service, "vehicleMapper", vehicleMapper);
+        ReflectionTestUtils.setField(service, "driverMapper", driverMapper);
+        ReflectionTestUtils.setField(service, "referenceDataCacheManager", referenceDataCacheManager);
+        ReflectionTestUtils.setField(service, "statusCountManager", statusCountManager);
+        ReflectionTestUtils.setField(service, "statusEventManager", statusEventManager);
+
+        TransportTask task = new TransportTask();
+        task.setId(TASK_ID);
+        task.setOrderId(ORDER_ID);
+        task.setStatus(0);
+        when(taskMapper.selectById(TASK_ID)).thenReturn(task);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(VEHICLE_ID);
+        vehicle.setStatus(1);
+        when(vehicleMapper.selectById(VEHICLE_ID)).thenReturn(vehicle);
+        Driver driver = new Driver();
+        driver.setId(DRIVER_ID);
+        driver.setStatus(1);
+        when(driverMapper.selectById(DRIVER_ID)).thenReturn(driver);
+        TransportOrder order = new TransportOrder();
+        order.setId(ORDER_ID);
+        order.setStatus(0);
+        when(orderMapper.selectById(ORDER_ID)).thenReturn(order);
+    }
+
+    @Test
+    void assignsVehicleDriverTaskAndOrder() {
+        when(vehicleMapper.compareAndSetStatus(VEHICLE_ID, 1, 2)).thenReturn(1);
+        when(driverMapper.compareAndSetStatus(DRIVER_ID, 1, 2)).thenReturn(1);
+        when(taskMapper.assignIfPending(eq(TASK_ID), eq(VEHICLE_ID), eq(DRIVER_ID), any())).thenReturn(1);
+        when(orderMapper.assignIfPending(eq(ORDER_ID), any())).thenReturn(1);
+
+        assertTrue(service.assignTask(TASK_ID, VEHICLE_ID, DRIVER_ID));
+
+        verify(statusEventManager).taskChanged(any(), eq(0), eq(1));
+        verify(statusEventManager).orderChanged(any(), eq(0), eq(1));
+    }
+
+    @Test
+    void vehicleConflictStopsBeforeDriver() {
+        when(vehicleMapper.compareAndSetStatus(VEHICLE_ID, 1, 2)).thenReturn(0);
+
+        assertConflict();
+
+        verify(driverMapper, never()).compareAndSetStatus(anyLong(), anyInt(), anyInt());
+        verify(taskMapper, never()).assignIfPending(anyLong(), anyLong(), anyLong(), any());
+        verify(statusEventManager, never()).taskChanged(any(), any(), any());
+    }
+
+    @Test
+    void driverConflictStopsBeforeTask() {
+        when(vehicleMapper.compareAndSetStatus(VEHICLE_ID, 1, 2)).thenReturn(1);
+        when(driverMapper.compareAndSetStatus(DRIVER_ID, 1, 2)).thenReturn(0);
+
+        assertConflict();
+
+        verify(taskMapper, never()).assignIfPending(anyLong(), anyLong(), anyLong(), any());
+        verify(statusEventManager, never()).taskChanged(any(), any(), any());
+    }
+
+    @Test
+    void taskConflictLeavesOrderUntouched() {
+        when(vehicleMapper.compareAndSetStatus(VEHICLE_ID, 1, 2)).thenReturn(1);
+        when(driverMapper.compareAndSetStatus(DRIVER_ID, 1, 2)).thenReturn(1);
+        when(taskMapper.assignIfPending(eq(TASK_ID), eq(VEHICLE_ID), eq(DRIVER_ID), any())).thenReturn(0);
+
+        assertConflict();
+
+        verify(orderMapper, never()).assignIfPending(anyLong(), any());
+        verify(statusEventManager, never()).taskChanged(any(), any(), any());
+        verify(statusEventManager, never()).orderChanged(any(), any(), any());
+    }
+
+    @Test
+    void orderNoLongerPendingDoesNotFailAssignment() {
+        when(vehicleMapper.compareAndSetStatus(VEHICLE_ID, 1, 2)).thenReturn(1);
+        when(driverMapper.compareAndSetStatus(DRIVER_ID, 1, 2)).thenReturn(1);
+        when(taskMapper.assignIfPending(eq(TASK_ID), eq(VEHICLE_ID), eq(DRIVER_ID), any())).thenReturn(1);
+        when(orderMapper.assignIfPending(eq(ORDER_ID), any())).thenReturn(0);
+
+        assertTrue(service.assignTask(TASK_ID, VEHICLE_ID, DRIVER_ID));
+
+        verify(statusEventManager).taskChanged(any(), eq(0), eq(1));
+        verify(statusEventManager, never()).orderChanged(any(), any(), any());
+    }
+
+    private void assertConflict() {
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> service.assignTask(TASK_ID, VEHICLE_ID, DRIVER_ID));
+        assertEquals(ErrorCode.CONFLICT_ERROR.getCode(), e.getCode());
+    }
+}